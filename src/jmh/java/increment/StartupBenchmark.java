@@ -0,0 +1,88 @@
+package increment;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.embedded.EmbeddedWebApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import increment.api.IncrementController;
+
+/**
+ * Benchmark of cold start of {@link Increment}, with and without 'fast-start' profile: 
+ * time until the application is ready, and until the first request is answered, which 
+ * includes beans left to first use. Every measurement runs in a fresh JVM, as a new 
+ * instance starts; class data sharing archive of build/cds can be given with 
+ * -jvmArgsAppend -XX:SharedArchiveFile=... on Java 13+.
+ * 
+ * @author Grehov
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class StartupBenchmark {
+    
+    @Param({"dev", "dev,fast-start"})
+    private String profiles;
+    
+    private ConfigurableApplicationContext context;
+    
+    private ConfigurableApplicationContext start() {
+        this.context = new SpringApplicationBuilder(Increment.class)
+                .run("--server.port=0", "--spring.profiles.active=" + this.profiles,
+                        "--logging.level.root=WARN");
+        return this.context;
+    }
+    
+    @Benchmark
+    public ConfigurableApplicationContext ready() {
+        return start();
+    }
+    
+    @Benchmark
+    public int firstResponse() throws IOException {
+        final ConfigurableApplicationContext started = start();
+        final Environment environment = started.getEnvironment();
+        final int port = ((EmbeddedWebApplicationContext) started).getEmbeddedServletContainer().getPort();
+        final HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port 
+                + IncrementController.INCREMENT + "/41").openConnection();
+        connection.setRequestProperty("Authorization", "Basic " + Base64.getEncoder().encodeToString(
+                (environment.getProperty("increment.client-username") + ":" 
+                        + environment.getProperty("increment.client-password"))
+                .getBytes(StandardCharsets.UTF_8)));
+        try {
+            return connection.getResponseCode();
+        } finally {
+            connection.disconnect();
+        }
+    }
+    
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (this.context != null) {
+            this.context.close();
+        }
+    }
+}
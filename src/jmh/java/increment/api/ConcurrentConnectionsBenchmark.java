@@ -0,0 +1,130 @@
+package increment.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.embedded.EmbeddedWebApplicationContext;
+import org.springframework.core.env.Environment;
+
+import increment.Increment;
+
+/**
+ * Compares the default stack with 'non-blocking' profile under many concurrent slow 
+ * clients. Before measurement, given number of connections send an increment request 
+ * whose body never completes, as a stalled mobile client would. The benchmark then 
+ * measures the latency of complete requests sent on fresh connections.
+ * <p>
+ * Client and server share the process, so it needs a file descriptor limit of at least
+ * twice the number of connections (e.g. 'ulimit -n 32768').
+ * 
+ * @author Grehov
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ConcurrentConnectionsBenchmark {
+    
+    private static final int READ_TIMEOUT_MILLIS = 60_000;
+    
+    @Param({"dev", "dev,non-blocking"})
+    public String profiles;
+    
+    @Param({"10000"})
+    public int connections;
+    
+    private EmbeddedWebApplicationContext context;
+    
+    private InetSocketAddress address;
+    
+    private final List<SocketChannel> stalled = new ArrayList<>();
+    
+    private byte[] request;
+    
+    @Setup
+    public void setUp() throws IOException {
+        this.context = (EmbeddedWebApplicationContext) new SpringApplicationBuilder(Increment.class)
+                .run("--spring.profiles.active=" + this.profiles, "--server.port=0", 
+                        "--server.tomcat.max-connections=" + (2 * this.connections));
+        this.address = new InetSocketAddress("localhost", 
+                this.context.getEmbeddedServletContainer().getPort());
+        
+        final Environment environment = this.context.getEnvironment();
+        final String head = "PATCH " + IncrementController.INCREMENT + " HTTP/1.1\r\n"
+                + "Host: localhost\r\n"
+                + "Authorization: Basic " + Base64.getEncoder().encodeToString(
+                        (environment.getProperty("increment.client-username") + ":" 
+                                + environment.getProperty("increment.client-password"))
+                        .getBytes(StandardCharsets.UTF_8)) + "\r\n"
+                + "Content-Type: application/json\r\n"
+                + "Content-Length: 2\r\n";
+        this.request = (head + "Connection: close\r\n\r\n41").getBytes(StandardCharsets.US_ASCII);
+        
+        final byte[] stalledRequest = (head + "\r\n4").getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < this.connections; i++) {
+            final SocketChannel channel = SocketChannel.open(this.address);
+            channel.write(ByteBuffer.wrap(stalledRequest));
+            this.stalled.add(channel);
+        }
+    }
+    
+    @TearDown
+    public void tearDown() throws IOException {
+        for (SocketChannel channel : this.stalled) {
+            channel.close();
+        }
+        this.stalled.clear();
+        this.context.close();
+    }
+    
+    /**
+     * @return length of response, or -1 if none came within read timeout.
+     */
+    @Benchmark
+    public int freshRequest() throws IOException {
+        try (Socket socket = new Socket(this.address.getAddress(), this.address.getPort())) {
+            socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+            socket.getOutputStream().write(this.request);
+            
+            final InputStream input = socket.getInputStream();
+            final ByteArrayOutputStream response = new ByteArrayOutputStream(256);
+            final byte[] buffer = new byte[256];
+            int read;
+            try {
+                while ((read = input.read(buffer)) >= 0) {
+                    response.write(buffer, 0, read);
+                }
+            } catch (SocketTimeoutException e) {
+                return -1;
+            }
+            return response.size();
+        }
+    }
+}
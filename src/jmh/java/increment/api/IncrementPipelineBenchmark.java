@@ -0,0 +1,122 @@
+package increment.api;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.Filter;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.embedded.EmbeddedWebApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.client.RestTemplate;
+
+import increment.Increment;
+
+/**
+ * Benchmarks of the whole {@link IncrementController} pipeline, including security
+ * filter chain, message conversion and {@link increment.services.IncrementService}. 
+ * The pipeline is driven both through {@link MockMvc} and through HTTP against 
+ * the embedded container.
+ * 
+ * @author Grehov
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IncrementPipelineBenchmark {
+    
+    private static final int MAX_CONNECTIONS = 64;
+    
+    private EmbeddedWebApplicationContext context;
+    
+    private MockMvc mockMvc;
+    
+    private CloseableHttpClient httpClient;
+    
+    private RestTemplate restTemplate;
+    
+    private URI incrementUri;
+    
+    private String authorization;
+    
+    @Setup
+    public void setUp() throws Exception {
+        this.context = (EmbeddedWebApplicationContext) new SpringApplicationBuilder(Increment.class)
+                .run("--server.port=0");
+        
+        final Environment environment = this.context.getEnvironment();
+        this.authorization = "Basic " + Base64.getEncoder().encodeToString(
+                (environment.getProperty("increment.client-username") + ":" 
+                        + environment.getProperty("increment.client-password"))
+                .getBytes(StandardCharsets.UTF_8));
+        
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(this.context)
+                .addFilters(this.context.getBean("springSecurityFilterChain", Filter.class))
+                .build();
+        
+        this.httpClient = HttpClients.custom()
+                .setMaxConnPerRoute(MAX_CONNECTIONS)
+                .setMaxConnTotal(MAX_CONNECTIONS)
+                .build();
+        this.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(this.httpClient));
+        this.incrementUri = new URI("http", null, "localhost", 
+                this.context.getEmbeddedServletContainer().getPort(), IncrementController.INCREMENT, 
+                null, null);
+    }
+    
+    @TearDown
+    public void tearDown() throws Exception {
+        this.httpClient.close();
+        this.context.close();
+    }
+    
+    @Benchmark
+    public String mockMvc() throws Exception {
+        final MvcResult result = this.mockMvc.perform(patch(IncrementController.INCREMENT)
+                .header(HttpHeaders.AUTHORIZATION, this.authorization)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(Integer.toString(ThreadLocalRandom.current().nextInt())))
+                .andReturn();
+        return result.getResponse().getContentAsString();
+    }
+    
+    @Benchmark
+    public String embeddedContainer() {
+        return this.restTemplate.exchange(RequestEntity
+                .method(HttpMethod.PATCH, this.incrementUri)
+                .header(HttpHeaders.AUTHORIZATION, this.authorization)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Integer.toString(ThreadLocalRandom.current().nextInt())), String.class)
+                .getBody();
+    }
+}
@@ -0,0 +1,100 @@
+package increment.api;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.Filter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.DefaultMockMvcBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import increment.Increment;
+
+/**
+ * Benchmark of {@link IncrementController#INCREMENT} under a flood of empty and malformed
+ * bodies, with and without {@link IncrementValidationFilter} in front of it, compared 
+ * with valid bodies. Requests are driven through {@link MockMvc} with the security 
+ * filter chain, so the cost of rejection is compared with the whole pipeline.
+ * 
+ * @author Grehov
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InvalidBodyFloodBenchmark {
+    
+    @Param({"true", "false"})
+    private boolean validated;
+    
+    @Param({"1", "", "{\"value\":1}"})
+    private String body;
+    
+    private ConfigurableApplicationContext context;
+    
+    private MockMvc mockMvc;
+    
+    private String authorization;
+    
+    @Setup
+    public void setUp() {
+        this.context = new SpringApplicationBuilder(Increment.class)
+                .run("--server.port=0", "--logging.level.increment=ERROR", 
+                        "--logging.level.org.springframework=ERROR");
+        
+        final Environment environment = this.context.getEnvironment();
+        this.authorization = "Basic " + Base64.getEncoder().encodeToString(
+                (environment.getProperty("increment.client-username") + ":" 
+                        + environment.getProperty("increment.client-password"))
+                .getBytes(StandardCharsets.UTF_8));
+        
+        final DefaultMockMvcBuilder builder = MockMvcBuilders
+                .webAppContextSetup((WebApplicationContext) this.context)
+                .addFilters(this.context.getBean("springSecurityFilterChain", Filter.class));
+        if (this.validated) {
+            builder.addFilters(this.context.getBean("incrementValidationFilter", FilterRegistrationBean.class)
+                    .getFilter());
+        }
+        this.mockMvc = builder.build();
+    }
+    
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+    
+    @Benchmark
+    public int increment() throws Exception {
+        return this.mockMvc.perform(patch(IncrementController.INCREMENT)
+                .header(HttpHeaders.AUTHORIZATION, this.authorization)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(this.body))
+                .andReturn().getResponse().getStatus();
+    }
+}
@@ -0,0 +1,88 @@
+package increment.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import increment.codec.Varint;
+
+/**
+ * Benchmarks of Jackson serialization of incremented value, as it is written 
+ * by {@link IncrementController}, compared with {@link Varint} encoding.
+ * 
+ * @author Grehov
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    /**
+     * Per thread incremented value and output buffer.
+     */
+    @State(Scope.Thread)
+    public static class Incremented {
+        BigInteger bigInteger;
+        long primitive;
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(32);
+        final byte[] varint = new byte[Varint.MAX_BYTES];
+        
+        @Setup
+        public void setUp() {
+            this.primitive = (long) ThreadLocalRandom.current().nextInt() + 1L;
+            this.bigInteger = BigInteger.valueOf(this.primitive);
+        }
+    }
+    
+    @Benchmark
+    public byte[] objectMapperBigInteger(final Incremented incremented) throws IOException {
+        return this.objectMapper.writeValueAsBytes(incremented.bigInteger);
+    }
+    
+    @Benchmark
+    public int generatorBigInteger(final Incremented incremented) throws IOException {
+        incremented.buffer.reset();
+        try (JsonGenerator generator = this.objectMapper.getFactory()
+                .createGenerator(incremented.buffer)) {
+            generator.writeNumber(incremented.bigInteger);
+        }
+        return incremented.buffer.size();
+    }
+    
+    @Benchmark
+    public int generatorLong(final Incremented incremented) throws IOException {
+        incremented.buffer.reset();
+        try (JsonGenerator generator = this.objectMapper.getFactory()
+                .createGenerator(incremented.buffer)) {
+            generator.writeNumber(incremented.primitive);
+        }
+        return incremented.buffer.size();
+    }
+    
+    @Benchmark
+    public int varintLong(final Incremented incremented) {
+        return Varint.write(incremented.primitive, incremented.varint, 0);
+    }
+}
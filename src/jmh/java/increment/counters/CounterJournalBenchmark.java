@@ -0,0 +1,82 @@
+package increment.counters;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of write throughput of {@link CounterJournal} under every {@link FsyncPolicy}.
+ * Run it with several threads to see group commit at work: with {@link FsyncPolicy#ALWAYS}
+ * the throughput grows with threads, since a force is shared by all increments waiting 
+ * for it. The journal is written to the temporary directory, which should be on the disk 
+ * of interest.
+ * 
+ * @author Grehov
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CounterJournalBenchmark {
+    
+    @Param({"ALWAYS", "INTERVAL", "NEVER"})
+    private FsyncPolicy fsync;
+    
+    private Path directory;
+    
+    private CounterJournal journal;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("counter-journal-benchmark");
+        this.journal = new CounterJournal(this.directory, this.fsync, 100, 64 * 1024 * 1024, 
+                TimeUnit.MINUTES.toMillis(1), 65536, TimeUnit.MILLISECONDS);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.journal.close();
+        try (Stream<Path> files = Files.walk(this.directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+    
+    /**
+     * Per thread counter name, out of 1000 names.
+     */
+    @State(Scope.Thread)
+    public static class Name {
+        String name;
+        
+        @Setup
+        public void setUp() {
+            this.name = "counter-" + ThreadLocalRandom.current().nextInt(1000);
+        }
+    }
+    
+    @Benchmark
+    public void append(final Name name) {
+        this.journal.append(name.name, 1L);
+    }
+}
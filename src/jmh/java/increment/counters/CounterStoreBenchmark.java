@@ -0,0 +1,111 @@
+package increment.counters;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of increments of random existing counters in {@link CounterMap} on the heap
+ * and in {@link OffHeapCounterMap}. Memory per key, heap and direct one, is measured 
+ * once counters are created and printed at the end of the trial. It includes names for 
+ * both stores: strings the heap store keeps, bytes the off-heap one copies; names looked
+ * up by the benchmark are created before and aren't counted.
+ * 
+ * @author Grehov
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-XX:MaxDirectMemorySize=4g"})
+public class CounterStoreBenchmark {
+    
+    @Param({"heap", "off-heap"})
+    private String store;
+    
+    @Param({"1000000"})
+    private int keys;
+    
+    private CounterMap heap;
+    
+    private OffHeapCounterMap offHeap;
+    
+    private String[] names;
+    
+    private long heapBytes;
+    
+    private long offHeapBytes;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.names = new String[this.keys];
+        for (int i = 0; i < this.keys; i++) {
+            this.names[i] = "counter-" + i;
+        }
+        final long heapBefore = usedHeap();
+        final long offHeapBefore = usedDirect();
+        // stores get names of their own, as from requests, so names they keep are measured
+        if ("heap".equals(this.store)) {
+            this.heap = new CounterMap(this.keys);
+            for (int i = 0; i < this.keys; i++) {
+                this.heap.getOrCreate("counter-" + i).increment();
+            }
+        } else {
+            this.offHeap = new OffHeapCounterMap(this.keys);
+            for (int i = 0; i < this.keys; i++) {
+                this.offHeap.add("counter-" + i, 1L);
+            }
+        }
+        this.heapBytes = usedHeap() - heapBefore;
+        this.offHeapBytes = usedDirect() - offHeapBefore;
+    }
+    
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+    
+    private static long usedDirect() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> "direct".equals(pool.getName()))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+    }
+    
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.printf("%n%s store: %.1f heap bytes and %.1f off-heap bytes per key%n", this.store, 
+                (double) this.heapBytes / this.keys, (double) this.offHeapBytes / this.keys);
+    }
+    
+    @Benchmark
+    public long increment() {
+        final String name = this.names[ThreadLocalRandom.current().nextInt(this.keys)];
+        if (this.heap != null) {
+            final LongAdder counter = this.heap.getOrCreate(name);
+            counter.increment();
+            return counter.sum();
+        }
+        return this.offHeap.add(name, 1L);
+    }
+}
@@ -0,0 +1,93 @@
+package increment.services;
+
+import java.math.BigInteger;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link IncrementServiceImpl} alone, without any web layer.
+ * 
+ * @author Grehov
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IncrementServiceBenchmark {
+    
+    private IncrementService incrementService;
+    
+    @Setup
+    public void setUp() {
+        this.incrementService = new IncrementServiceImpl();
+    }
+    
+    /**
+     * Per thread value to be incremented, so that the JIT can't fold the call.
+     */
+    @State(Scope.Thread)
+    public static class Value {
+        int value;
+        
+        @Setup
+        public void setUp() {
+            this.value = ThreadLocalRandom.current().nextInt();
+        }
+    }
+    
+    @Benchmark
+    public BigInteger increment(final Value value) {
+        return this.incrementService.increment(value.value);
+    }
+    
+    @Benchmark
+    public long incrementAsLong(final Value value) {
+        return this.incrementService.incrementAsLong(value.value);
+    }
+    
+    /**
+     * Per thread array of values to be incremented in bulk.
+     */
+    @State(Scope.Thread)
+    public static class Values {
+        @Param({"1000", "1000000"})
+        int size;
+        
+        long[] values;
+        
+        @Setup
+        public void setUp() {
+            this.values = ThreadLocalRandom.current().longs(this.size, Long.MIN_VALUE, Long.MAX_VALUE)
+                    .toArray();
+        }
+    }
+    
+    @Benchmark
+    public int[] incrementAll(final Values values) {
+        return this.incrementService.incrementAll(values.values);
+    }
+    
+    @Benchmark
+    public long[] incrementEach(final Values values) {
+        final long[] incremented = values.values;
+        for (int i = 0; i < incremented.length; i++) {
+            incremented[i] = this.incrementService.increment(incremented[i]).longValue();
+        }
+        return incremented;
+    }
+}
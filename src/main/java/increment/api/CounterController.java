@@ -0,0 +1,70 @@
+package increment.api;
+
+import java.util.OptionalLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import increment.services.CounterService;
+
+/**
+ * Implementation of RESTful endpoints of named counters. See {@link CounterService}.
+ * Names consist of 1 to 64 letters, digits, '_' or '-'; other names aren't found.
+ * 
+ * @author Grehov
+ *
+ */
+@RestController
+public class CounterController {
+    
+    public final static String COUNTERS = "/api/counters";
+    
+    final static String COUNTER = COUNTERS + "/{name:[A-Za-z0-9_-]{1,64}}";
+    
+    final static String COUNTER_INCREMENT = COUNTER + "/increment";
+    
+    protected final CounterService counterService;
+    
+    /**
+     * Injection constructor.
+     * 
+     * @param counterService service keeping counters.
+     */
+    @Autowired
+    protected CounterController(final CounterService counterService) {
+        this.counterService = counterService;
+    }
+    
+    /**
+     * Endpoint incrementing counter. See {@link CounterService#increment(String)}.
+     * 
+     * @param name name of counter.
+     * @return {@link ResponseEntity} with value of counter after incrementing and OK status.
+     */
+    @RequestMapping(method = RequestMethod.POST, value = COUNTER_INCREMENT, 
+                    produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Long> increment(@PathVariable final String name) {
+        return new ResponseEntity<Long>(this.counterService.increment(name), HttpStatus.OK);
+    }
+    
+    /**
+     * Endpoint reading counter. See {@link CounterService#value(String)}.
+     * 
+     * @param name name of counter.
+     * @return {@link ResponseEntity} with value of counter and OK status, 
+     *         or NOT_FOUND status if it has never been incremented.
+     */
+    @RequestMapping(method = RequestMethod.GET, value = COUNTER, 
+                    produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Long> value(@PathVariable final String name) {
+        final OptionalLong value = this.counterService.value(name);
+        return value.isPresent() ? new ResponseEntity<Long>(value.getAsLong(), HttpStatus.OK)
+                : ResponseEntity.notFound().build();
+    }
+}
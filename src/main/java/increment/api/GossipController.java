@@ -0,0 +1,75 @@
+package increment.api;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import increment.cluster.GossipMessage;
+import increment.services.ClusteredCounterService;
+
+/**
+ * Receiver of gossip of peers of the cluster. It's out of '/api/**', so that peers don't 
+ * need client credentials; messages are accepted only with the shared secret of the 
+ * cluster, 'increment.cluster.secret'. Malformed messages are answered with BAD_REQUEST
+ * and change nothing.
+ * 
+ * @author Grehov
+ *
+ */
+@RestController
+@ConditionalOnProperty(prefix = "increment.counters", name = "store", havingValue = "clustered")
+public class GossipController {
+    
+    public static final String GOSSIP = "/cluster/gossip";
+    
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+    
+    private final ClusteredCounterService counterService;
+    
+    private final byte[] secret;
+    
+    /**
+     * Injection constructor.
+     * 
+     * @param counterService service of this node.
+     * @param secret shared secret of the cluster.
+     */
+    @Autowired
+    public GossipController(final ClusteredCounterService counterService, 
+            @Value("${increment.cluster.secret}") final String secret) {
+        if (secret.isEmpty()) {
+            throw new IllegalArgumentException("increment.cluster.secret must be set");
+        }
+        this.counterService = counterService;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    @RequestMapping(path = GOSSIP, method = RequestMethod.POST, 
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Void> gossip(
+            @RequestHeader(name = SECRET_HEADER, required = false) final String secret,
+            @RequestBody final GossipMessage message) {
+        if (secret == null 
+                || !MessageDigest.isEqual(this.secret, secret.getBytes(StandardCharsets.UTF_8))) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        try {
+            this.counterService.receive(message);
+        } catch (IllegalArgumentException e) {
+            // not the global NO_CONTENT, so that the peer doesn't take it for success
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+}
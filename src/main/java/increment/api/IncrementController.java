@@ -1,7 +1,16 @@
 package increment.api;
 
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigInteger;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -10,9 +19,19 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonParser.NumberType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+import increment.codec.Varint;
+import increment.codec.VarintHttpMessageConverter;
 import increment.services.IncrementService;
 
 /**
@@ -26,7 +45,34 @@ import increment.services.IncrementService;
 @RestController
 public class IncrementController {
     
-    final static String INCREMENT = "/api/increment";
+    public final static String INCREMENT = "/api/increment";
+    
+    final static String VALUE_PARAM = "value";
+    
+    final static String INCREMENT_BATCH = INCREMENT + "/batch";
+    
+    final static String INCREMENT_LONG = INCREMENT + "/long";
+    
+    final static String INCREMENT_BIG = INCREMENT + "/big";
+    
+    final static String INCREMENT_BULK = INCREMENT + "/bulk";
+    
+    /*
+     * Limit of digits or bytes of arbitrary precision value, since parsing of decimal 
+     * string takes time quadratic in its length.
+     */
+    final static int MAX_BIG_LENGTH = 8192;
+    
+    private static final BigInteger OVERFLOWED_LONG = BigInteger.ONE.shiftLeft(Long.SIZE - 1);
+    
+    /*
+     * Streaming factory shared by all batch requests. Auto closing of JSON content is
+     * disabled, so an array interrupted by invalid input is never completed silently.
+     */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+    
+    private static final int VARINT_BATCH_BUFFER_SIZE = 512;
     
     protected final IncrementService incrementService;  
 
@@ -42,21 +88,253 @@ public class IncrementController {
     
     /**
      * Endpoint performing incrementing of given value. 
-     * See {@link IncrementService#increment(int)}.
+     * See {@link IncrementService#incrementAsLong(int)}, the result of which always fits 
+     * in {@code long}. Both the value and the result are either JSON or 
+     * {@value VarintHttpMessageConverter#APPLICATION_VARINT_VALUE}.
+     * <p>
+     * If the service is asynchronous, e.g. with batching, see 
+     * {@link IncrementService#isAsync()}, {@link IncrementService#incrementAsync(int)} is 
+     * called instead: the result is returned at once, if it's completed already; otherwise 
+     * its future is returned, so that the request is completed asynchronously and no 
+     * container thread waits for the batch.
      * 
      * @param optIncremented {@link Optional} with value to be incremented.
      * 
-     * @return {@link ResponseEntity} with incremented value and OK status.
+     * @return {@link ResponseEntity} with incremented value and OK status, or 
+     *         {@link CompletableFuture} of it.
      */
     @ResponseStatus(HttpStatus.OK)
     @RequestMapping(method = RequestMethod.PATCH, value = INCREMENT, 
+                    consumes = {MediaType.APPLICATION_JSON_VALUE, 
+                            VarintHttpMessageConverter.APPLICATION_VARINT_VALUE}, 
+                    produces = {MediaType.APPLICATION_JSON_VALUE, 
+                            VarintHttpMessageConverter.APPLICATION_VARINT_VALUE})
+    public Object increment(@RequestBody 
+            final Optional<Integer> optIncremented) throws IllegalArgumentException {
+        final int value = optIncremented.orElseThrow(() -> new IllegalArgumentException());
+        if (!this.incrementService.isAsync()) {
+            return new ResponseEntity<Long>(this.incrementService.incrementAsLong(value), HttpStatus.OK);
+        }
+        
+        return respond(this.incrementService.incrementAsync(value), 
+                incremented -> new ResponseEntity<Long>(incremented, HttpStatus.OK));
+    }    
+    
+    /**
+     * Query form of {@link #increment(Optional)} for browsers calling the API directly,
+     * cross-origin with CORS, see {@link increment.config.CorsConfig}, or as JSONP with 
+     * 'callback' parameter, see {@link JsonpAdvice}. The body is kept small, 
+     * e.g. <code>{"incremented":"42"}</code>, with the value as string, since 
+     * JavaScript numbers can't represent every {@code long}.
+     * 
+     * @param value value to be incremented.
+     * 
+     * @return {@link ResponseEntity} with incremented value and OK status, or 
+     *         {@link CompletableFuture} of it.
+     */
+    @RequestMapping(method = RequestMethod.GET, value = INCREMENT, params = VALUE_PARAM,
+                    produces = MediaType.APPLICATION_JSON_VALUE)
+    public Object incrementQuery(@RequestParam(VALUE_PARAM) final int value) {
+        if (!this.incrementService.isAsync()) {
+            return new ResponseEntity<Incremented>(new Incremented(Long.toString(
+                    this.incrementService.incrementAsLong(value))), HttpStatus.OK);
+        }
+        return respond(this.incrementService.incrementAsync(value), incremented -> 
+                new ResponseEntity<Incremented>(new Incremented(Long.toString(incremented)), HttpStatus.OK));
+    }
+    
+    /*
+     * The handler's return value is taken by its actual type, so a completed result is 
+     * written straight away and only a pending one takes an asynchronous dispatch.
+     */
+    private static <T> Object respond(final CompletableFuture<Long> incremented, 
+            final Function<Long, ResponseEntity<T>> response) {
+        return incremented.isDone() && !incremented.isCompletedExceptionally() 
+                ? response.apply(incremented.join()) : incremented.thenApply(response);
+    }
+    
+    /**
+     * Endpoint performing incrementing of every value in given JSON array.
+     * Values are read and written one by one, so neither the request nor the response 
+     * is held in memory as a whole, and every value is written as primitive straight 
+     * into the response buffer. See {@link IncrementService#incrementAsLong(int)}.
+     * 
+     * @param body stream with JSON array of values to be incremented.
+     * @param response response, to which JSON array of incremented values is written
+     *        in the order of the given values.
+     * 
+     * @throws IllegalArgumentException if body is empty or isn't an array of integers.
+     * @throws IOException if reading of body or writing of response fails.
+     */
+    @RequestMapping(method = RequestMethod.PATCH, value = INCREMENT_BATCH, 
                     consumes = MediaType.APPLICATION_JSON_VALUE, 
                     produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<BigInteger> increment(@RequestBody 
-            final Optional<Integer> optIncremented) throws IllegalArgumentException {
-        BigInteger incremented = this.incrementService.increment(optIncremented
-                .orElseThrow(() -> new IllegalArgumentException()));
+    public void incrementBatch(final InputStream body, final HttpServletResponse response) 
+            throws IllegalArgumentException, IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException();
+            }
+            
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(response.getOutputStream())) {
+                generator.writeStartArray();
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token != JsonToken.VALUE_NUMBER_INT 
+                            || parser.getNumberType() != NumberType.INT) {
+                        throw new IllegalArgumentException();
+                    }
+                    generator.writeNumber(this.incrementService.incrementAsLong(parser.getIntValue()));
+                }
+                generator.writeEndArray();
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+    
+    /**
+     * Varint form of {@link #incrementBatch(InputStream, HttpServletResponse)}: the body is
+     * a sequence of {@link Varint} encoded {@code int}s and the response is the sequence of
+     * {@link Varint} encoded incremented values in the same order.
+     * 
+     * @param body stream with varints to be incremented.
+     * @param response response, to which incremented values are written.
+     * 
+     * @throws IllegalArgumentException if body is empty or any varint is truncated, malformed
+     *         or doesn't fit in {@code int}.
+     * @throws IOException if reading of body or writing of response fails.
+     */
+    @RequestMapping(method = RequestMethod.PATCH, value = INCREMENT_BATCH, 
+                    consumes = VarintHttpMessageConverter.APPLICATION_VARINT_VALUE, 
+                    produces = VarintHttpMessageConverter.APPLICATION_VARINT_VALUE)
+    public void incrementBatchVarint(final InputStream body, final HttpServletResponse response) 
+            throws IllegalArgumentException, IOException {
+        final InputStream in = new BufferedInputStream(body, VARINT_BATCH_BUFFER_SIZE);
+        int first = in.read();
+        if (first < 0) {
+            throw new IllegalArgumentException();
+        }
+        
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(VarintHttpMessageConverter.APPLICATION_VARINT_VALUE);
+        final OutputStream out = response.getOutputStream();
+        final byte[] buffer = new byte[Varint.MAX_BYTES];
+        try {
+            do {
+                final long incremented = this.incrementService.incrementAsLong(Varint.readInt(first, in));
+                out.write(buffer, 0, Varint.write(incremented, buffer, 0));
+            } while ((first = in.read()) >= 0);
+        } catch (EOFException e) {
+            throw new IllegalArgumentException(e);
+        }
+        out.flush();
+    }
+    
+    /**
+     * Wide range form of {@link #increment(Optional)}.
+     * See {@link IncrementService#increment(long)}.
+     * 
+     * @param optIncremented {@link Optional} with value to be incremented.
+     * 
+     * @return {@link ResponseEntity} with incremented value and OK status.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(method = RequestMethod.PATCH, value = INCREMENT_LONG, 
+                    consumes = MediaType.APPLICATION_JSON_VALUE, 
+                    produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BigInteger> incrementLong(@RequestBody 
+            final Optional<Long> optIncremented) throws IllegalArgumentException {
+        final BigInteger incremented = this.incrementService.increment(optIncremented
+                .orElseThrow(() -> new IllegalArgumentException()).longValue());
         
         return new ResponseEntity<BigInteger>(incremented, HttpStatus.OK);
-    }    
+    }
+    
+    /**
+     * Arbitrary precision form of {@link #increment(Optional)}, for value given 
+     * as decimal string. See {@link IncrementService#increment(BigInteger)}.
+     * 
+     * @param optIncremented {@link Optional} with decimal string of value to be incremented.
+     * 
+     * @return {@link ResponseEntity} with decimal string of incremented value and OK status.
+     * @throws IllegalArgumentException if value is missing, isn't a decimal integer or 
+     *         is longer than {@value #MAX_BIG_LENGTH} characters.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(method = RequestMethod.PATCH, value = INCREMENT_BIG, 
+                    consumes = MediaType.TEXT_PLAIN_VALUE, 
+                    produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> incrementBigDecimalString(@RequestBody 
+            final Optional<String> optIncremented) throws IllegalArgumentException {
+        final String decimal = optIncremented
+                .map(String::trim)
+                .filter(value -> !value.isEmpty() && value.length() <= MAX_BIG_LENGTH)
+                .orElseThrow(() -> new IllegalArgumentException());
+        final BigInteger incremented = this.incrementService.increment(new BigInteger(decimal));
+        
+        return new ResponseEntity<String>(incremented.toString(), HttpStatus.OK);
+    }
+    
+    /**
+     * Arbitrary precision form of {@link #increment(Optional)}, for value given 
+     * as big-endian two's-complement bytes, as of {@link BigInteger#toByteArray()}. 
+     * See {@link IncrementService#increment(BigInteger)}.
+     * 
+     * @param optIncremented {@link Optional} with bytes of value to be incremented.
+     * 
+     * @return {@link ResponseEntity} with bytes of incremented value and OK status.
+     * @throws IllegalArgumentException if value is missing or is longer than 
+     *         {@value #MAX_BIG_LENGTH} bytes.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(method = RequestMethod.PATCH, value = INCREMENT_BIG, 
+                    consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE, 
+                    produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> incrementBigBytes(@RequestBody 
+            final Optional<byte[]> optIncremented) throws IllegalArgumentException {
+        final byte[] bytes = optIncremented
+                .filter(value -> value.length > 0 && value.length <= MAX_BIG_LENGTH)
+                .orElseThrow(() -> new IllegalArgumentException());
+        final BigInteger incremented = this.incrementService.increment(new BigInteger(bytes));
+        
+        return new ResponseEntity<byte[]>(incremented.toByteArray(), HttpStatus.OK);
+    }
+    
+    /**
+     * Endpoint performing incrementing of every value in given JSON array of {@code long}s 
+     * at once. See {@link IncrementService#incrementAll(long[])}. Overflowed values are 
+     * written as {@code 2^63}.
+     * 
+     * @param incremented array of values to be incremented.
+     * @param response response, to which JSON array of incremented values is written
+     *        in the order of the given values.
+     * 
+     * @throws IOException if writing of response fails.
+     */
+    @RequestMapping(method = RequestMethod.PATCH, value = INCREMENT_BULK, 
+                    consumes = MediaType.APPLICATION_JSON_VALUE, 
+                    produces = MediaType.APPLICATION_JSON_VALUE)
+    public void incrementBulk(@RequestBody final long[] incremented, final HttpServletResponse response) 
+            throws IOException {
+        final int[] overflowed = this.incrementService.incrementAll(incremented);
+        
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(response.getOutputStream())) {
+            generator.writeStartArray();
+            int lane = 0;
+            for (int i = 0; i < incremented.length; i++) {
+                if (lane < overflowed.length && overflowed[lane] == i) {
+                    generator.writeNumber(OVERFLOWED_LONG);
+                    lane++;
+                } else {
+                    generator.writeNumber(incremented[i]);
+                }
+            }
+            generator.writeEndArray();
+        }
+    }
 }
@@ -0,0 +1,111 @@
+package increment.api;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import increment.metrics.Metrics;
+
+/**
+ * Filter, which is put in front of the security filter chain and answers conditional 
+ * GET requests of {@link IncrementResourceController#INCREMENT_RESOURCE}, whose 
+ * 'If-None-Match' has the ETag of the result, with NOT_MODIFIED, without authentication,
+ * password hashing or the service. It discloses nothing but whether the client already
+ * knows the result of a pure function, so it's meant for public caching policy. 
+ * Such responses are counted as 'http.not_modified'.
+ * 
+ * @author Grehov
+ *
+ */
+public class IncrementNotModifiedFilter extends OncePerRequestFilter {
+    
+    private static final String PREFIX = IncrementController.INCREMENT + "/";
+    
+    private static final int MAX_DIGITS = 10;
+    
+    private final String cacheControl;
+    
+    private final LongAdder notModified;
+    
+    /**
+     * @param cacheControl Cache-Control sent with NOT_MODIFIED, as with full responses.
+     * @param metrics registry of metrics.
+     */
+    public IncrementNotModifiedFilter(final String cacheControl, final Metrics metrics) {
+        this.cacheControl = cacheControl;
+        this.notModified = metrics.counter("http.not_modified");
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || request.getHeader(HttpHeaders.IF_NONE_MATCH) == null;
+    }
+    
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, 
+            final HttpServletResponse response, final FilterChain chain) 
+                    throws ServletException, IOException {
+        final String uri = request.getRequestURI();
+        final int start = request.getContextPath().length() + PREFIX.length();
+        if (uri.regionMatches(request.getContextPath().length(), PREFIX, 0, PREFIX.length())) {
+            final Long value = parseInt(uri, start);
+            if (value != null) {
+                final String etag = IncrementResourceController.etagOf(value + 1);
+                if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                    this.notModified.increment();
+                    response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                    response.setHeader(HttpHeaders.ETAG, etag);
+                    response.setHeader(HttpHeaders.CACHE_CONTROL, this.cacheControl);
+                    return;
+                }
+            }
+        }
+        chain.doFilter(request, response);
+    }
+    
+    /*
+     * Parses int from given index to the end, as matched by the resource, null if it isn't one.
+     */
+    private static Long parseInt(final String uri, final int start) {
+        int i = start;
+        final boolean negative = i < uri.length() && uri.charAt(i) == '-';
+        if (negative) {
+            i++;
+        }
+        final int digits = uri.length() - i;
+        if (digits < 1 || digits > MAX_DIGITS) {
+            return null;
+        }
+        long value = 0;
+        for (; i < uri.length(); i++) {
+            final char c = uri.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            value = value * 10 + (c - '0');
+        }
+        value = negative ? -value : value;
+        return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE ? value : null;
+    }
+    
+    /*
+     * Whether 'If-None-Match' list has given strong ETag, or its weak form, as weak 
+     * comparison is used for GET.
+     */
+    private static boolean matches(final String ifNoneMatch, final String etag) {
+        for (final String candidate : ifNoneMatch.split(",")) {
+            final String tag = candidate.trim();
+            if (tag.equals(etag) || tag.equals("*") || (tag.startsWith("W/") && tag.substring(2).equals(etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,98 @@
+package increment.api;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import increment.cache.ClockCache;
+import increment.services.IncrementService;
+
+/**
+ * Cacheable form of {@link IncrementController#incrementQuery(int)}: since incrementing 
+ * is a pure function, the incremented value of a given value is a resource, which never
+ * changes. Responses carry strong ETag of the incremented value and Cache-Control of 
+ * 'increment.http-cache.max-age-seconds', public if 'increment.http-cache.public' is set,
+ * so that browsers and CDNs keep them; conditional requests are answered with 
+ * NOT_MODIFIED, before authentication if {@link IncrementNotModifiedFilter} is enabled.
+ * If 'increment.http-cache.result-cache-size' is positive, results of hot values are 
+ * kept in {@link ClockCache}, which pays off when the service is costlier than a lookup,
+ * e.g. with batching.
+ * 
+ * @author Grehov
+ *
+ */
+@RestController
+public class IncrementResourceController {
+    
+    public static final String INCREMENT_RESOURCE = IncrementController.INCREMENT + "/{value:-?\\d{1,10}}";
+    
+    /** Regular expression of paths of {@link #INCREMENT_RESOURCE}. */
+    public static final String INCREMENT_RESOURCE_REGEX = "^" + IncrementController.INCREMENT + "/-?\\d{1,10}$";
+    
+    private final IncrementService incrementService;
+    
+    private final CacheControl cacheControl;
+    
+    private final ClockCache<Integer, Incremented> results;
+    
+    /**
+     * Injection constructor.
+     * 
+     * @param incrementService service performing incrementing.
+     * @param maxAgeSeconds time, for which responses may be cached by clients.
+     * @param publicCache whether shared caches may keep responses to authenticated requests.
+     * @param resultCacheSize count of results kept, 0 for none.
+     */
+    @Autowired
+    public IncrementResourceController(final IncrementService incrementService,
+            @Value("${increment.http-cache.max-age-seconds:31536000}") final long maxAgeSeconds,
+            @Value("${increment.http-cache.public:true}") final boolean publicCache,
+            @Value("${increment.http-cache.result-cache-size:0}") final int resultCacheSize) {
+        this.incrementService = incrementService;
+        final CacheControl maxAge = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS);
+        this.cacheControl = publicCache ? maxAge.cachePublic() : maxAge.cachePrivate();
+        this.results = resultCacheSize > 0 
+                ? new ClockCache<>(resultCacheSize, maxAgeSeconds, TimeUnit.SECONDS) : null;
+    }
+    
+    /**
+     * Strong ETag of incremented value, which is the value itself.
+     * 
+     * @param incremented incremented value.
+     * @return quoted ETag.
+     */
+    static String etagOf(final long incremented) {
+        return "\"" + incremented + "\"";
+    }
+    
+    /**
+     * @param value value to be incremented.
+     * @return {@link ResponseEntity} with incremented value, ETag and Cache-Control, and 
+     *         OK status, or NOT_MODIFIED if 'If-None-Match' has the ETag.
+     * @throws IllegalArgumentException if value is out of range of {@code int}.
+     */
+    @RequestMapping(method = RequestMethod.GET, value = INCREMENT_RESOURCE, 
+                    produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Incremented> increment(@PathVariable("value") final int value) {
+        Incremented incremented = this.results != null ? this.results.get(value) : null;
+        if (incremented == null) {
+            incremented = new Incremented(Long.toString(this.incrementService.incrementAsLong(value)));
+            if (this.results != null) {
+                this.results.put(value, incremented);
+            }
+        }
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(etagOf((long) value + 1))
+                .cacheControl(this.cacheControl)
+                .body(incremented);
+    }
+}
@@ -0,0 +1,80 @@
+package increment.api;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import increment.push.Broadcaster;
+import increment.push.IncrementUpdates;
+
+/**
+ * Endpoint streaming updates of {@link IncrementUpdates} as Server-Sent Events named
+ * {@value #EVENT}, so that a dashboard subscribes once instead of polling. Streams end 
+ * after 'increment.push.timeout-ms', clients are expected to reconnect, as EventSource 
+ * does. Subscribers beyond 'increment.push.max-subscribers' get SERVICE_UNAVAILABLE. 
+ * Streams of subscribers, whose send takes longer than 'increment.push.send-timeout-ms',
+ * end as well.
+ * 
+ * @author Grehov
+ *
+ */
+@RestController
+@ConditionalOnProperty(prefix = "increment.push", name = "enabled", matchIfMissing = true)
+public class IncrementUpdatesController {
+    
+    public static final String UPDATES = IncrementController.INCREMENT + "/updates";
+    
+    static final String EVENT = "increment";
+    
+    private static final String TEXT_EVENT_STREAM_VALUE = "text/event-stream";
+    
+    private final Broadcaster broadcaster;
+    
+    private final long timeoutMs;
+    
+    /**
+     * Injection constructor.
+     * 
+     * @param updates producer of updates.
+     * @param timeoutMs time, after which stream ends.
+     */
+    @Autowired
+    public IncrementUpdatesController(final IncrementUpdates updates, 
+            @Value("${increment.push.timeout-ms}") final long timeoutMs) {
+        this.broadcaster = updates.getBroadcaster();
+        this.timeoutMs = timeoutMs;
+    }
+    
+    @RequestMapping(method = RequestMethod.GET, value = UPDATES, produces = TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> updates() {
+        final SseEmitter emitter = new SseEmitter(this.timeoutMs);
+        final Broadcaster.Subscription subscription;
+        try {
+            subscription = this.broadcaster.subscribe(new Broadcaster.Sink() {
+                
+                @Override
+                public void send(final String event) throws IOException {
+                    emitter.send(SseEmitter.event().name(EVENT).data(event));
+                }
+                
+                @Override
+                public void cancelled() {
+                    emitter.complete();
+                }
+            });
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        return new ResponseEntity<>(emitter, HttpStatus.OK);
+    }
+}
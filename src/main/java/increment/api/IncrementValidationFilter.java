@@ -0,0 +1,192 @@
+package increment.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import increment.codec.VarintHttpMessageConverter;
+import increment.metrics.Metrics;
+import increment.servlet.BufferedBodyRequestWrapper;
+
+/**
+ * Filter validating bodies of {@link IncrementController#INCREMENT} before they reach 
+ * message conversion, so that floods of malformed requests are rejected without 
+ * exceptions, exception resolution and stack traces. Empty bodies, and JSON null, get 
+ * NO_CONTENT, as the endpoint does for them, JSON bodies, which can't be an integer, 
+ * e.g. objects, literals, integers out of range or followed by anything but whitespace, 
+ * or bodies longer than {@value #MAX_BODY_BYTES} bytes, get BAD_REQUEST; both with 
+ * no body. Other bodies, 
+ * including JSON numbers and strings, which Jackson may coerce, are passed on. 
+ * Rejections are counted as 'validation.empty_body' and 'validation.invalid_body', 
+ * and logged as warnings subject to the logging rate limit.
+ * <p>
+ * Bodies are read into a buffer, which the thread reuses together with its 
+ * {@link BufferedBodyRequestWrapper} for the next request, unless the request went 
+ * asynchronous and may still use the wrapper, so valid requests allocate nothing here.
+ * 
+ * @author Grehov
+ *
+ */
+public class IncrementValidationFilter extends OncePerRequestFilter {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(IncrementValidationFilter.class);
+    
+    static final int MAX_BODY_BYTES = 256;
+    
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    
+    private static final int EMPTY = 0;
+    
+    private static final int VALID = 1;
+    
+    private static final int INVALID = 2;
+    
+    private static final ThreadLocal<BufferedBodyRequestWrapper> WRAPPERS = new ThreadLocal<>();
+    
+    private final LongAdder emptyBodies;
+    
+    private final LongAdder invalidBodies;
+    
+    /**
+     * @param metrics registry of metrics.
+     */
+    public IncrementValidationFilter(final Metrics metrics) {
+        this.emptyBodies = metrics.counter("validation.empty_body");
+        this.invalidBodies = metrics.counter("validation.invalid_body");
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return !"PATCH".equals(request.getMethod()) 
+                || !request.getRequestURI().equals(request.getContextPath() + IncrementController.INCREMENT)
+                || request.getContentType() == null;
+    }
+    
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, 
+            final HttpServletResponse response, final FilterChain chain) 
+                    throws ServletException, IOException {
+        final boolean json;
+        try {
+            final MediaType contentType = MediaType.parseMediaType(request.getContentType());
+            json = MediaType.APPLICATION_JSON.includes(contentType);
+            if (!json && !VarintHttpMessageConverter.APPLICATION_VARINT.includes(contentType)) {
+                chain.doFilter(request, response);
+                return;
+            }
+        } catch (IllegalArgumentException e) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        BufferedBodyRequestWrapper wrapper = WRAPPERS.get();
+        if (wrapper == null) {
+            wrapper = new BufferedBodyRequestWrapper(request, new byte[MAX_BODY_BYTES + 1], 0);
+        } else {
+            // taken, so that the thread doesn't hand it to another request meanwhile
+            WRAPPERS.remove();
+        }
+        final byte[] buffer = wrapper.getBuffer();
+        final int length = readFully(request.getInputStream(), buffer);
+        final int verdict = length > MAX_BODY_BYTES ? INVALID 
+                : json ? validateJson(buffer, length) 
+                : length == 0 ? EMPTY : VALID;
+        if (verdict == EMPTY) {
+            this.emptyBodies.increment();
+            LOG.warn("No content in request body found.");
+            reject(response, HttpServletResponse.SC_NO_CONTENT);
+            WRAPPERS.set(wrapper);
+        } else if (verdict == INVALID) {
+            this.invalidBodies.increment();
+            LOG.warn("Invalid request body of {} bytes rejected.", length);
+            reject(response, HttpServletResponse.SC_BAD_REQUEST);
+            WRAPPERS.set(wrapper);
+        } else {
+            wrapper.reset(request, length);
+            try {
+                chain.doFilter(wrapper, response);
+            } finally {
+                if (!request.isAsyncStarted()) {
+                    WRAPPERS.set(wrapper);
+                }
+            }
+        }
+    }
+    
+    /*
+     * Decides JSON body of given length: empty, i.e. nothing but whitespace or null, 
+     * invalid, or valid, which is also left for Jackson to decide when unsure.
+     */
+    static int validateJson(final byte[] body, final int length) {
+        int i = skipWhitespace(body, 0, length);
+        if (i == length) {
+            return EMPTY;
+        }
+        final byte first = body[i];
+        if (first == 'n') {
+            if (length - i >= NULL.length && body[i + 1] == 'u' && body[i + 2] == 'l' && body[i + 3] == 'l'
+                    && skipWhitespace(body, i + NULL.length, length) == length) {
+                return EMPTY;
+            }
+            return INVALID;
+        }
+        if (first == '"') {
+            return VALID;
+        }
+        final boolean negative = first == '-';
+        if (negative) {
+            i++;
+        }
+        final int digitsStart = i;
+        long value = 0;
+        while (i < length && body[i] >= '0' && body[i] <= '9') {
+            value = value * 10 + (body[i] - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                return INVALID;
+            }
+            i++;
+        }
+        if (i == digitsStart) {
+            return INVALID;
+        }
+        if (i < length && (body[i] == '.' || body[i] == 'e' || body[i] == 'E')) {
+            return VALID;
+        }
+        if (skipWhitespace(body, i, length) != length) {
+            return INVALID;
+        }
+        return !negative && value > Integer.MAX_VALUE ? INVALID : VALID;
+    }
+    
+    private static int skipWhitespace(final byte[] body, final int from, final int length) {
+        int i = from;
+        while (i < length && (body[i] == ' ' || body[i] == '\t' || body[i] == '\n' || body[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+    
+    private static int readFully(final InputStream in, final byte[] buffer) throws IOException {
+        int length = 0;
+        int read;
+        while (length < buffer.length && (read = in.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+        }
+        return length;
+    }
+    
+    private static void reject(final HttpServletResponse response, final int status) {
+        response.setStatus(status);
+        response.setContentLength(0);
+    }
+}
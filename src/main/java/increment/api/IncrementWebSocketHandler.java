@@ -0,0 +1,116 @@
+package increment.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+
+import increment.codec.Varint;
+import increment.services.IncrementService;
+
+/**
+ * WebSocket endpoint, over which increments are pipelined on one connection. 
+ * The handshake is an ordinary request to {@link #INCREMENT_WS}, so the client is 
+ * authenticated once, when the connection is opened. Frames of a connection are 
+ * answered one by one in the order of arrival:
+ * <ul>
+ * <li>text frame holds lines of '<i>id</i> <i>value</i>' and is answered by frame of lines
+ * of '<i>id</i> <i>incremented value</i>', or '<i>id</i> error' if value isn't an 
+ * {@code int}; the id is any correlation token without spaces, it's echoed as is;</li>
+ * <li>binary frame holds {@link Varint}s and is answered by frame of {@link Varint}s
+ * of incremented values; malformed frame closes the connection.</li>
+ * </ul>
+ * See {@link IncrementService#incrementAsLong(int)}.
+ * 
+ * @author Grehov
+ *
+ */
+public class IncrementWebSocketHandler extends AbstractWebSocketHandler {
+    
+    public final static String INCREMENT_WS = IncrementController.INCREMENT + "/ws";
+    
+    static final String ERROR = "error";
+    
+    protected final IncrementService incrementService;
+    
+    /**
+     * Injection constructor.
+     * 
+     * @param incrementService service performing incrementing. 
+     */
+    @Autowired
+    public IncrementWebSocketHandler(final IncrementService incrementService) {
+        this.incrementService = incrementService;
+    }
+    
+    @Override
+    protected void handleTextMessage(final WebSocketSession session, final TextMessage message) 
+            throws IOException {
+        final String payload = message.getPayload();
+        final StringBuilder response = new StringBuilder(payload.length() + 16);
+        int start = 0;
+        while (start < payload.length()) {
+            int end = payload.indexOf('\n', start);
+            if (end < 0) {
+                end = payload.length();
+            }
+            if (end > start) {
+                appendIncremented(payload, start, end, response);
+            }
+            start = end + 1;
+        }
+        session.sendMessage(new TextMessage(response));
+    }
+    
+    private void appendIncremented(final String payload, final int start, final int end, 
+            final StringBuilder response) {
+        final int separator = payload.lastIndexOf(' ', end - 1);
+        final int valueStart = separator < start ? start : separator + 1;
+        if (response.length() > 0) {
+            response.append('\n');
+        }
+        response.append(payload, start, valueStart);
+        try {
+            response.append(this.incrementService.incrementAsLong(
+                    Integer.parseInt(payload.substring(valueStart, end).trim())));
+        } catch (NumberFormatException e) {
+            response.append(ERROR);
+        }
+    }
+    
+    @Override
+    protected void handleBinaryMessage(final WebSocketSession session, final BinaryMessage message) 
+            throws IOException {
+        final ByteBuffer payload = message.getPayload();
+        final ByteArrayInputStream in;
+        if (payload.hasArray()) {
+            in = new ByteArrayInputStream(payload.array(), 
+                    payload.arrayOffset() + payload.position(), payload.remaining());
+        } else {
+            final byte[] bytes = new byte[payload.remaining()];
+            payload.duplicate().get(bytes);
+            in = new ByteArrayInputStream(bytes);
+        }
+        // no varint grows by more than one byte when incremented
+        final byte[] response = new byte[payload.remaining() * 2];
+        int length = 0;
+        try {
+            for (int first = in.read(); first >= 0; first = in.read()) {
+                length += Varint.write(this.incrementService.incrementAsLong(Varint.readInt(first, in)), 
+                        response, length);
+            }
+        } catch (EOFException | IllegalArgumentException e) {
+            session.close(CloseStatus.BAD_DATA);
+            return;
+        }
+        session.sendMessage(new BinaryMessage(Arrays.copyOf(response, length)));
+    }
+}
@@ -0,0 +1,23 @@
+package increment.api;
+
+/**
+ * Incremented value as returned by {@link IncrementController#incrementQuery(int)}.
+ * 
+ * @author Grehov
+ *
+ */
+public class Incremented {
+    
+    private final String incremented;
+    
+    /**
+     * @param incremented decimal string of incremented value.
+     */
+    public Incremented(final String incremented) {
+        this.incremented = incremented;
+    }
+    
+    public String getIncremented() {
+        return this.incremented;
+    }
+}
@@ -0,0 +1,22 @@
+package increment.api;
+
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractJsonpResponseBodyAdvice;
+
+/**
+ * Wraps JSON responses of {@link IncrementController} in JSONP callback, given by 
+ * {@value #CALLBACK_PARAM} parameter, for browsers without CORS. It's limited to the 
+ * controller, so that no other response, e.g. a token, can be read cross-site.
+ * 
+ * @author Grehov
+ *
+ */
+@ControllerAdvice(assignableTypes = IncrementController.class)
+public class JsonpAdvice extends AbstractJsonpResponseBodyAdvice {
+    
+    static final String CALLBACK_PARAM = "callback";
+    
+    public JsonpAdvice() {
+        super(CALLBACK_PARAM);
+    }
+}
@@ -0,0 +1,56 @@
+package increment.api;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import increment.metrics.Metrics;
+
+/**
+ * Endpoint exposing metrics of the application in JSON, or in Prometheus text format
+ * if the client accepts {@value #PROMETHEUS_VALUE}. It's outside of '/api/**', so 
+ * scrapers need no credentials.
+ * 
+ * @author Grehov
+ *
+ */
+@RestController
+public class MetricsController {
+    
+    public final static String METRICS = "/metrics";
+    
+    static final String PROMETHEUS_VALUE = "text/plain;version=0.0.4;charset=utf-8";
+    
+    protected final Metrics metrics;
+    
+    /**
+     * Injection constructor.
+     * 
+     * @param metrics registry of metrics.
+     */
+    @Autowired
+    protected MetricsController(final Metrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    /**
+     * @return timers and counters, latencies in microseconds.
+     */
+    @RequestMapping(method = RequestMethod.GET, value = METRICS, 
+                    produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Object> json() {
+        return this.metrics.snapshot();
+    }
+    
+    /**
+     * @return timers and counters in Prometheus text format.
+     */
+    @RequestMapping(method = RequestMethod.GET, value = METRICS, produces = PROMETHEUS_VALUE)
+    public String prometheus() {
+        return this.metrics.prometheus();
+    }
+}
@@ -0,0 +1,213 @@
+package increment.api;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonParser.NumberType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+import increment.services.IncrementService;
+
+/**
+ * Non-blocking implementation of {@link IncrementController#increment} contract. 
+ * The body is read and the response is written with Servlet 3.1 non-blocking I/O, so 
+ * a container thread is held only while bytes are actually available, not for the whole 
+ * time a slow client takes to send its request or to receive the response.
+ * <p>
+ * Accepts JSON integer literal, responds with incremented value and OK status, 
+ * with NO_CONTENT status to empty body or {@code null} and with BAD_REQUEST status to
+ * anything else. See {@link IncrementService#incrementAsLong(int)}; if the service is
+ * asynchronous, {@link IncrementService#incrementAsync(int)}, the result of which 
+ * is written once completed, so no container thread waits for it, e.g. with batching;
+ * if the service fails, e.g. as it's being closed, with SERVICE_UNAVAILABLE status.
+ * <p>
+ * Requests of other methods, e.g. GET with 'value' parameter or CORS preflight, are 
+ * forwarded to the dispatcher servlet, so they are served as in other profiles.
+ * 
+ * @author Grehov
+ *
+ */
+public class NonBlockingIncrementServlet extends HttpServlet {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private static final String PATCH = "PATCH";
+    
+    private static final int MAX_BODY_LENGTH = 1024;
+    
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    
+    private final transient IncrementService incrementService;
+    
+    private final String dispatcherServletName;
+    
+    /**
+     * @param incrementService service performing incrementing.
+     * @param dispatcherServletName name of the servlet serving requests other than PATCH.
+     */
+    public NonBlockingIncrementServlet(final IncrementService incrementService, 
+            final String dispatcherServletName) {
+        this.incrementService = incrementService;
+        this.dispatcherServletName = dispatcherServletName;
+    }
+    
+    @Override
+    protected void service(final HttpServletRequest request, final HttpServletResponse response) 
+            throws IOException, ServletException {
+        if (!PATCH.equals(request.getMethod())) {
+            getServletContext().getNamedDispatcher(this.dispatcherServletName).forward(request, response);
+            return;
+        }
+        if (!isJson(request.getContentType())) {
+            response.sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE);
+            return;
+        }
+        
+        // wrappers of filters, e.g. recording responses, stay in place
+        final AsyncContext asyncContext = request.startAsync(request, response);
+        final ServletInputStream input = request.getInputStream();
+        input.setReadListener(new BodyReader(asyncContext, input));
+    }
+    
+    private static boolean isJson(final String contentType) {
+        try {
+            return contentType != null 
+                    && MediaType.APPLICATION_JSON.includes(MediaType.parseMediaType(contentType));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+    
+    /*
+     * Collects body as it arrives and responds once all of it is read.
+     */
+    private final class BodyReader implements ReadListener {
+        
+        private final AsyncContext asyncContext;
+        private final ServletInputStream input;
+        private final byte[] body = new byte[MAX_BODY_LENGTH + 1];
+        private int length;
+        
+        BodyReader(final AsyncContext asyncContext, final ServletInputStream input) {
+            this.asyncContext = asyncContext;
+            this.input = input;
+        }
+
+        @Override
+        public void onDataAvailable() throws IOException {
+            while (this.input.isReady() && !this.input.isFinished()) {
+                final int read = this.input.read(this.body, this.length, this.body.length - this.length);
+                if (read < 0) {
+                    return;
+                }
+                this.length += read;
+                if (this.length > MAX_BODY_LENGTH) {
+                    respond(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, null);
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void onAllDataRead() throws IOException {
+            if (this.length > MAX_BODY_LENGTH) {
+                return;
+            }
+            try (JsonParser parser = JSON_FACTORY.createParser(this.body, 0, this.length)) {
+                final JsonToken token = parser.nextToken();
+                if (token == null || token == JsonToken.VALUE_NULL) {
+                    respond(HttpServletResponse.SC_NO_CONTENT, null);
+                } else if (token != JsonToken.VALUE_NUMBER_INT 
+                        || parser.getNumberType() != NumberType.INT) {
+                    respond(HttpServletResponse.SC_BAD_REQUEST, null);
+                } else if (!incrementService.isAsync()) {
+                    respond(incrementService.incrementAsLong(parser.getIntValue()), null);
+                } else {
+                    incrementService.incrementAsync(parser.getIntValue()).whenComplete(this::respond);
+                }
+            } catch (JsonProcessingException e) {
+                respond(HttpServletResponse.SC_BAD_REQUEST, null);
+            }
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            this.asyncContext.complete();
+        }
+        
+        private void respond(final Long incremented, final Throwable failure) {
+            try {
+                if (failure != null) {
+                    respond(HttpServletResponse.SC_SERVICE_UNAVAILABLE, null);
+                } else {
+                    respond(HttpServletResponse.SC_OK, 
+                            Long.toString(incremented).getBytes(StandardCharsets.UTF_8));
+                }
+            } catch (IOException | RuntimeException e) {
+                onError(e);
+            }
+        }
+        
+        private void respond(final int status, final byte[] content) throws IOException {
+            final HttpServletResponse response = (HttpServletResponse) this.asyncContext.getResponse();
+            response.setStatus(status);
+            if (content == null) {
+                this.asyncContext.complete();
+                return;
+            }
+            response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+            response.setContentLength(content.length);
+            final ServletOutputStream output = response.getOutputStream();
+            output.setWriteListener(new BodyWriter(this.asyncContext, output, content));
+        }
+    }
+    
+    /*
+     * Writes response body once the connection accepts it.
+     */
+    private static final class BodyWriter implements WriteListener {
+        
+        private final AsyncContext asyncContext;
+        private final ServletOutputStream output;
+        private byte[] content;
+        
+        BodyWriter(final AsyncContext asyncContext, final ServletOutputStream output, 
+                final byte[] content) {
+            this.asyncContext = asyncContext;
+            this.output = output;
+            this.content = content;
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            if (this.content != null && this.output.isReady()) {
+                this.output.write(this.content);
+                this.content = null;
+            }
+            if (this.content == null && this.output.isReady()) {
+                this.asyncContext.complete();
+            }
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            this.asyncContext.complete();
+        }
+    }
+}
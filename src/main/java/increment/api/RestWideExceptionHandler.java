@@ -1,10 +1,10 @@
 package increment.api;
 
-import javax.annotation.Resource;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.MessageSource;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -13,7 +13,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
-import increment.services.IncrementServiceImpl;
+import increment.metrics.Metrics;
 
 /**
  * Global REST controller exceptions handlers.
@@ -27,6 +27,21 @@ public class RestWideExceptionHandler {
     
     private static final Logger LOG = LoggerFactory.getLogger(RestWideExceptionHandler.class);
     
+    private final LongAdder illegalArguments;
+    
+    private final LongAdder usernamesNotFound;
+    
+    /**
+     * Injection constructor.
+     * 
+     * @param metrics registry of metrics, where handled exceptions are counted.
+     */
+    @Autowired
+    public RestWideExceptionHandler(final Metrics metrics) {
+        this.illegalArguments = metrics.counter("errors.illegal_argument");
+        this.usernamesNotFound = metrics.counter("errors.username_not_found");
+    }
+    
     /**
      * Global controllers exceptions handler for 'IllegalArgument' case.
      * Sets according to the case 'http' status.
@@ -37,7 +52,11 @@ public class RestWideExceptionHandler {
     @ExceptionHandler(IllegalArgumentException.class)
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public ResponseEntity<?> illegalControllerArgumentHandler(IllegalArgumentException e) {
-        LOG.error("No content in request body found. Details: {}", e);
+        this.illegalArguments.increment();
+        LOG.warn("No content in request body found.");
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Details: ", e);
+        }
         return ResponseEntity
                 .status(HttpStatus.NO_CONTENT)
                 .build();
@@ -53,7 +72,11 @@ public class RestWideExceptionHandler {
     @ExceptionHandler(UsernameNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ResponseEntity<?> UsernameNotFoundExceptionHandler(UsernameNotFoundException e) {
-        LOG.error("User not found. Details: {}", e);
+        this.usernamesNotFound.increment();
+        LOG.warn("User not found.");
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Details: ", e);
+        }
         return ResponseEntity
                 .status(HttpStatus.NOT_FOUND)
                 .build();
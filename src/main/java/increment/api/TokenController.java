@@ -0,0 +1,63 @@
+package increment.api;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import increment.security.TokenService;
+
+/**
+ * Implementation of RESTful endpoint, which trades credentials of authenticated 
+ * user for bearer token. See {@link TokenService#issue(Authentication)}.
+ * 
+ * @author Grehov
+ *
+ */
+@RestController
+@ConditionalOnProperty(prefix = "increment.security.token", name = "enabled")
+public class TokenController {
+    
+    public final static String TOKEN = "/api/token";
+    
+    protected final TokenService tokenService;
+    
+    /**
+     * Injection constructor.
+     * 
+     * @param tokenService service issuing tokens.
+     */
+    @Autowired
+    protected TokenController(final TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+    
+    /**
+     * Endpoint issuing token for authenticated user.
+     * 
+     * @param authentication authentication of user.
+     * 
+     * @return {@link ResponseEntity} with token, its type and time to live in seconds
+     *         and OK status.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @RequestMapping(method = RequestMethod.POST, value = TOKEN, 
+                    produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> token(final Authentication authentication) {
+        final Map<String, Object> token = new LinkedHashMap<>();
+        token.put("token", this.tokenService.issue(authentication));
+        token.put("tokenType", "Bearer");
+        token.put("expiresIn", this.tokenService.getTtlSeconds());
+        
+        return new ResponseEntity<Map<String, Object>>(token, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,287 @@
+package increment.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Bounded cache with expiring entries. The cache is split into independently locked 
+ * segments, each of which evicts with 
+ * <a href="https://en.wikipedia.org/wiki/Page_replacement_algorithm#Clock">CLOCK</a>
+ * algorithm once full: recently read entries get a second chance, the rest are replaced
+ * in ring order. Expired entries are dropped on access and preferred for replacement. 
+ * Entries may be pinned by a predicate of their values, e.g. while they are in use, 
+ * so that they aren't replaced before they expire, unless all entries of their segment
+ * are pinned. 
+ * 
+ * @param <K> type of keys, must have consistent {@code equals} and {@code hashCode}.
+ * @param <V> type of values.
+ * 
+ * @author Grehov
+ *
+ */
+public class ClockCache<K, V> {
+    
+    private static final int MAX_SEGMENTS = 16;
+    
+    private static final int MIN_SEGMENT_SIZE = 16;
+    
+    private final Segment<K, V>[] segments;
+    
+    private final int segmentMask;
+    
+    private final long ttlNanos;
+    
+    private final LongSupplier nanoClock;
+    
+    /**
+     * Creates cache holding at most given number of entries, each for given time.
+     * 
+     * @param maxSize maximal number of entries, > 0.
+     * @param ttl time to live of an entry since it was put, > 0.
+     * @param unit unit of ttl.
+     * 
+     * @throws IllegalArgumentException if maxSize or ttl isn't positive.
+     */
+    public ClockCache(final int maxSize, final long ttl, final TimeUnit unit) {
+        this(maxSize, ttl, unit, value -> false);
+    }
+    
+    /**
+     * Creates cache holding at most given number of entries, each for given time, 
+     * which doesn't replace entries while their values are pinned.
+     * 
+     * @param maxSize maximal number of entries, > 0.
+     * @param ttl time to live of an entry since it was put, > 0.
+     * @param unit unit of ttl.
+     * @param pinned predicate of values, which mustn't be replaced.
+     * 
+     * @throws IllegalArgumentException if maxSize or ttl isn't positive.
+     */
+    public ClockCache(final int maxSize, final long ttl, final TimeUnit unit, final Predicate<? super V> pinned) {
+        this(maxSize, ttl, unit, pinned, System::nanoTime);
+    }
+    
+    ClockCache(final int maxSize, final long ttl, final TimeUnit unit, final LongSupplier nanoClock) {
+        this(maxSize, ttl, unit, value -> false, nanoClock);
+    }
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    ClockCache(final int maxSize, final long ttl, final TimeUnit unit, final Predicate<? super V> pinned, 
+            final LongSupplier nanoClock) {
+        if (maxSize <= 0 || ttl <= 0) {
+            throw new IllegalArgumentException("Size and time to live must be positive.");
+        }
+        int segmentsCount = 1;
+        while (segmentsCount < MAX_SEGMENTS && segmentsCount * 2 * MIN_SEGMENT_SIZE <= maxSize) {
+            segmentsCount *= 2;
+        }
+        this.segments = new Segment[segmentsCount];
+        final int segmentSize = (maxSize + segmentsCount - 1) / segmentsCount;
+        for (int i = 0; i < segmentsCount; i++) {
+            this.segments[i] = new Segment<>(segmentSize, pinned);
+        }
+        this.segmentMask = segmentsCount - 1;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.nanoClock = nanoClock;
+    }
+    
+    /**
+     * Returns value cached for given key.
+     * 
+     * @param key key of value.
+     * @return cached value or null, if there is no such key or it expired.
+     */
+    public V get(final K key) {
+        return segmentFor(key).get(key, this.nanoClock.getAsLong());
+    }
+    
+    /**
+     * Caches given value for given key, replacing present one. 
+     * 
+     * @param key key of value.
+     * @param value value to be cached, not null.
+     */
+    public void put(final K key, final V value) {
+        segmentFor(key).put(key, value, this.nanoClock.getAsLong(), this.ttlNanos);
+    }
+    
+    /**
+     * Caches given value for given key, unless a value, which hasn't expired, is cached 
+     * for it already. Check and put are atomic.
+     * 
+     * @param key key of value.
+     * @param value value to be cached, not null.
+     * @return value already cached, or null if given value was cached.
+     */
+    public V putIfAbsent(final K key, final V value) {
+        return segmentFor(key).putIfAbsent(key, value, this.nanoClock.getAsLong(), this.ttlNanos);
+    }
+    
+    /**
+     * Removes value cached for given key, if any.
+     * 
+     * @param key key of value.
+     */
+    public void remove(final K key) {
+        segmentFor(key).remove(key);
+    }
+    
+    /**
+     * Removes all entries matching given predicate.
+     * 
+     * @param predicate predicate of key and value.
+     */
+    public void removeIf(final BiPredicate<? super K, ? super V> predicate) {
+        for (Segment<K, V> segment : this.segments) {
+            segment.removeIf(predicate);
+        }
+    }
+    
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        removeIf((key, value) -> true);
+    }
+    
+    /**
+     * @return number of entries, including expired ones not yet dropped.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : this.segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+    
+    private Segment<K, V> segmentFor(final K key) {
+        final int hash = key.hashCode();
+        return this.segments[(hash ^ (hash >>> 16)) & this.segmentMask];
+    }
+    
+    /*
+     * Ring of slots with the index from key to slot. All access is guarded 
+     * by the segment monitor.
+     */
+    private static final class Segment<K, V> {
+        
+        private final Predicate<? super V> pinned;
+        
+        private final Map<K, Integer> index;
+        private final Object[] keys;
+        private final Object[] values;
+        private final long[] expirations;
+        private final boolean[] referenced;
+        
+        private final int[] freeSlots;
+        private int freeCount;
+        private int hand;
+        
+        Segment(final int capacity, final Predicate<? super V> pinned) {
+            this.pinned = pinned;
+            this.index = new HashMap<>(capacity * 4 / 3 + 1);
+            this.keys = new Object[capacity];
+            this.values = new Object[capacity];
+            this.expirations = new long[capacity];
+            this.referenced = new boolean[capacity];
+            this.freeSlots = new int[capacity];
+            for (int i = 0; i < capacity; i++) {
+                this.freeSlots[i] = capacity - 1 - i;
+            }
+            this.freeCount = capacity;
+        }
+        
+        @SuppressWarnings("unchecked")
+        synchronized V get(final K key, final long now) {
+            final Integer slot = this.index.get(key);
+            if (slot == null) {
+                return null;
+            }
+            if (this.expirations[slot] - now <= 0) {
+                release(slot);
+                return null;
+            }
+            this.referenced[slot] = true;
+            return (V) this.values[slot];
+        }
+        
+        synchronized void put(final K key, final V value, final long now, final long ttl) {
+            Integer slot = this.index.get(key);
+            if (slot == null) {
+                slot = this.freeCount > 0 ? this.freeSlots[--this.freeCount] : evict(now);
+                this.keys[slot] = key;
+                this.index.put(key, slot);
+            }
+            this.values[slot] = value;
+            this.expirations[slot] = now + ttl;
+            this.referenced[slot] = false;
+        }
+        
+        synchronized V putIfAbsent(final K key, final V value, final long now, final long ttl) {
+            final V present = get(key, now);
+            if (present == null) {
+                put(key, value, now, ttl);
+            }
+            return present;
+        }
+        
+        synchronized void remove(final K key) {
+            final Integer slot = this.index.get(key);
+            if (slot != null) {
+                release(slot);
+            }
+        }
+        
+        @SuppressWarnings("unchecked")
+        synchronized void removeIf(final BiPredicate<? super K, ? super V> predicate) {
+            for (int slot = 0; slot < this.keys.length; slot++) {
+                if (this.keys[slot] != null 
+                        && predicate.test((K) this.keys[slot], (V) this.values[slot])) {
+                    release(slot);
+                }
+            }
+        }
+        
+        synchronized int size() {
+            return this.index.size();
+        }
+        
+        /*
+         * Sweeps the clock hand until a victim is found and returns its slot, now 
+         * unindexed. Referenced entries are spared once, unless they already expired,
+         * pinned ones for two rounds, after which every entry is pinned, so the entry 
+         * under the hand is replaced anyway.
+         */
+        @SuppressWarnings("unchecked")
+        private int evict(final long now) {
+            for (int swept = 0; ; swept++) {
+                final int slot = this.hand;
+                this.hand = (this.hand + 1) % this.keys.length;
+                if (this.expirations[slot] - now > 0) {
+                    if (this.referenced[slot]) {
+                        this.referenced[slot] = false;
+                        continue;
+                    }
+                    if (swept < 2 * this.keys.length && this.pinned.test((V) this.values[slot])) {
+                        continue;
+                    }
+                }
+                this.index.remove(this.keys[slot]);
+                return slot;
+            }
+        }
+        
+        private void release(final int slot) {
+            this.index.remove(this.keys[slot]);
+            this.keys[slot] = null;
+            this.values[slot] = null;
+            this.referenced[slot] = false;
+            this.freeSlots[this.freeCount++] = slot;
+        }
+    }
+}
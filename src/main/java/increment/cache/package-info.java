@@ -0,0 +1,8 @@
+/**
+ * In-process caches shared by the other layers.
+ */
+/**
+ * @author Grehov
+ *
+ */
+package increment.cache;
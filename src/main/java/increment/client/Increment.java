@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Value;
 
 import com.google.gwt.core.client.EntryPoint;
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsonUtils;
 import com.google.gwt.http.client.URL;
 import com.google.gwt.jsonp.client.JsonpRequestBuilder;
 import com.google.gwt.user.client.Random;
@@ -16,13 +17,18 @@ import com.google.gwt.user.client.ui.VerticalPanel;
 
 /**
  * Entry point classes define <code>onModuleLoad()</code>.
+ * Increments are pushed by the server as Server-Sent Events, the client falls back 
+ * to polling the API with JSONP, if the browser has no EventSource or the stream closes.
  */
 public class Increment implements EntryPoint {
 	
     private static final int REFRESH_INTERVAL = 5000;
     
-    @Value("${increment.url.proxy-php}")
-    private String proxyUrl ;
+    @Value("${increment.url.increment}")
+    private String incrementUrl ;
+    
+    @Value("${increment.url.updates}")
+    private String updatesUrl ;
      
     private final VerticalPanel toIncementPanel = new VerticalPanel();
     private final Label toIncrementLabel = new Label();
@@ -34,6 +40,8 @@ public class Increment implements EntryPoint {
     
     private final Timer refreshTimer;
     
+    private boolean polling;
+    
     public Increment() {
         refreshTimer = new Timer() {
           @Override
@@ -41,7 +49,6 @@ public class Increment implements EntryPoint {
               refreshIncrementor();
           }
         };
-        refreshTimer.scheduleRepeating(REFRESH_INTERVAL);             
     }
     
 
@@ -58,6 +65,43 @@ public class Increment implements EntryPoint {
         
         RootPanel.get("toIncrement").add(toIncementPanel);
         RootPanel.get("incremented").add(incrementedPanel);       
+        
+        if (!subscribe(updatesUrl)) {
+            startPolling();
+        }
+    }
+    
+    /*
+     * Subscribes to pushed increments, if the browser supports EventSource.
+     * EventSource reconnects by itself, closed stream means the server refused it.
+     */
+    private native boolean subscribe(String url) /*-{
+        if (!$wnd.EventSource) {
+            return false;
+        }
+        var self = this;
+        var source = new $wnd.EventSource(url, { withCredentials: true });
+        source.addEventListener('increment', $entry(function(event) {
+            self.@increment.client.Increment::onUpdate(Ljava/lang/String;)(event.data);
+        }));
+        source.onerror = $entry(function() {
+            if (source.readyState === $wnd.EventSource.CLOSED) {
+                self.@increment.client.Increment::startPolling()();
+            }
+        });
+        return true;
+    }-*/;
+    
+    private void onUpdate(String json) {
+        Update update = JsonUtils.safeEval(json);
+        updateIncrementLabels(update.getToIncrement(), update.getIncremented());
+    }
+    
+    private void startPolling() {
+        if (!polling) {
+            polling = true;
+            refreshTimer.scheduleRepeating(REFRESH_INTERVAL);
+        }
     }
     
     /**
@@ -66,7 +110,7 @@ public class Increment implements EntryPoint {
      */
     private void refreshIncrementor() {  
         final int toIncrement = Random.nextInt();
-        String url = proxyUrl + Integer.toString(toIncrement);           
+        String url = incrementUrl + "?value=" + Integer.toString(toIncrement);           
         url = URL.encode(url);  
         
         JsonpRequestBuilder builder = new JsonpRequestBuilder();
@@ -112,3 +156,13 @@ class Incremented extends JavaScriptObject {
     protected Incremented() { };   
     public final native String getIncremented() /*-{ return this.incremented; }-*/;
   }
+
+/**
+ * Implementation of overlay type for pushed update.
+ */
+class Update extends JavaScriptObject {
+
+    protected Update() { };   
+    public final native String getToIncrement() /*-{ return this.toIncrement; }-*/;
+    public final native String getIncremented() /*-{ return this.incremented; }-*/;
+  }
@@ -0,0 +1,45 @@
+package increment.cluster;
+
+import java.util.Map;
+
+/**
+ * Message gossiped between nodes: components of counters by counter name and node id, 
+ * every component a pair of increments and decrements made at the node.
+ * 
+ * @author Grehov
+ *
+ */
+public class GossipMessage {
+    
+    private String node;
+    
+    private Map<String, Map<String, long[]>> counters;
+    
+    public GossipMessage() {
+    }
+    
+    /**
+     * @param node id of sending node.
+     * @param counters components of counters.
+     */
+    public GossipMessage(final String node, final Map<String, Map<String, long[]>> counters) {
+        this.node = node;
+        this.counters = counters;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public void setNode(final String node) {
+        this.node = node;
+    }
+
+    public Map<String, Map<String, long[]>> getCounters() {
+        return counters;
+    }
+
+    public void setCounters(final Map<String, Map<String, long[]>> counters) {
+        this.counters = counters;
+    }
+}
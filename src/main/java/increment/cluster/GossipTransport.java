@@ -0,0 +1,20 @@
+package increment.cluster;
+
+/**
+ * Transport of {@link GossipMessage}s to peers.
+ * 
+ * @author Grehov
+ *
+ */
+public interface GossipTransport {
+    
+    /**
+     * Sends message to peer. Delivery isn't guaranteed, lost messages are made up for 
+     * by later ones.
+     * 
+     * @param peer address of peer, as meant by the transport.
+     * @param message message to be sent.
+     * @throws RuntimeException if the message surely wasn't delivered.
+     */
+    void send(String peer, GossipMessage message);
+}
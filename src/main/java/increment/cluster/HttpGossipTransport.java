@@ -0,0 +1,45 @@
+package increment.cluster;
+
+import java.net.URI;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import increment.api.GossipController;
+
+/**
+ * Transport posting messages as JSON to {@link GossipController#GOSSIP} of peer, 
+ * whose address is its base URL, e.g. 'http://node-2:8090'. Messages carry the shared
+ * secret of the cluster.
+ * 
+ * @author Grehov
+ *
+ */
+public class HttpGossipTransport implements GossipTransport {
+    
+    private final RestTemplate restTemplate;
+    
+    private final String secret;
+    
+    /**
+     * @param secret shared secret of the cluster.
+     * @param timeoutMillis connect and read timeout.
+     */
+    public HttpGossipTransport(final String secret, final int timeoutMillis) {
+        final SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeoutMillis);
+        requestFactory.setReadTimeout(timeoutMillis);
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.secret = secret;
+    }
+
+    @Override
+    public void send(final String peer, final GossipMessage message) {
+        this.restTemplate.exchange(RequestEntity.post(URI.create(peer + GossipController.GOSSIP))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(GossipController.SECRET_HEADER, this.secret)
+                .body(message), Void.class);
+    }
+}
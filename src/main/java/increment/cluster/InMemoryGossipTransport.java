@@ -0,0 +1,39 @@
+package increment.cluster;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Transport delivering messages directly to nodes in the same JVM, registered by address.
+ * 
+ * @author Grehov
+ *
+ */
+public class InMemoryGossipTransport implements GossipTransport {
+    
+    private final Map<String, PnCounterStore> nodes = new ConcurrentHashMap<>();
+    
+    /**
+     * @param peer address of node.
+     * @param store state of node.
+     */
+    public void register(final String peer, final PnCounterStore store) {
+        this.nodes.put(peer, store);
+    }
+    
+    /**
+     * @param peer address of node to be made unreachable.
+     */
+    public void unregister(final String peer) {
+        this.nodes.remove(peer);
+    }
+
+    @Override
+    public void send(final String peer, final GossipMessage message) {
+        final PnCounterStore store = this.nodes.get(peer);
+        if (store == null) {
+            throw new IllegalStateException("Peer " + peer + " is unreachable");
+        }
+        store.merge(message);
+    }
+}
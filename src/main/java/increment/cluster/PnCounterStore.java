@@ -0,0 +1,239 @@
+package increment.cluster;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import increment.counters.CounterLimitException;
+import increment.counters.CounterNames;
+
+/**
+ * State of named PN-Counters at one node of the cluster. A PN-Counter has per node two 
+ * grow-only components, increments and decrements made at the node, and its value is 
+ * the sum of increments less the sum of decrements over all nodes. The node changes only 
+ * its own components, with no coordination, and states of nodes are merged by taking 
+ * the maximum of each component, so that merging is commutative, associative and 
+ * idempotent, and nodes converge to the same values however messages are reordered, 
+ * duplicated or lost, as long as some of them get through.
+ * <p>
+ * Own components are {@link LongAdder}s, so that the hot path is the same as with a local
+ * counter. Only counters changed since the last {@link #delta()} are gossiped, the full
+ * state, see {@link #full()}, makes up for lost messages and lets peers which aren't
+ * known to every node relay components of others.
+ * <p>
+ * Own components are kept under id of the node and time of the store's creation, 
+ * see {@link #getComponentId()}, since a node restarted with the same id starts its
+ * components from zero: components of its former run are merged as those of any other 
+ * node, so no increment is lost or counted twice, whether it's made before or after 
+ * the state of the former run comes back. Every restart thus adds a component to each 
+ * counter it changes, which is never removed.
+ * 
+ * @author Grehov
+ *
+ */
+public class PnCounterStore {
+    
+    /*
+     * Last time of creation of a store, so that stores created within the same millisecond
+     * get distinct components.
+     */
+    private static final AtomicLong LAST_START = new AtomicLong();
+    
+    private final String nodeId;
+    
+    private final String componentId;
+    
+    private final int maxCount;
+    
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    
+    /**
+     * @param nodeId id of the node, unique in the cluster.
+     * @param maxCount maximal count of counters.
+     */
+    public PnCounterStore(final String nodeId, final int maxCount) {
+        this.nodeId = Objects.requireNonNull(nodeId);
+        this.componentId = nodeId + ':' + LAST_START.accumulateAndGet(System.currentTimeMillis(), 
+                (last, now) -> Math.max(last + 1, now));
+        this.maxCount = maxCount;
+    }
+    
+    public String getNodeId() {
+        return this.nodeId;
+    }
+    
+    /**
+     * @return key of own components of this run of the node, id of the node and 
+     *         milliseconds of the store's creation, e.g. 'a:1700000000000'.
+     */
+    public String getComponentId() {
+        return this.componentId;
+    }
+    
+    /**
+     * Adds to counter at this node.
+     * 
+     * @param name name of counter.
+     * @param delta value to be added, negative values are decrements.
+     * @return value of counter, as known at this node, after adding.
+     * @throws CounterLimitException if the counter is new and there are already maximal
+     *         count of counters.
+     */
+    public long add(final String name, final long delta) throws CounterLimitException {
+        final Counter counter = getOrCreate(name);
+        if (delta >= 0) {
+            counter.increments.add(delta);
+        } else {
+            counter.decrements.add(-delta);
+        }
+        counter.dirty = true;
+        return counter.value();
+    }
+    
+    /**
+     * @param name name of counter.
+     * @return value of counter as known at this node, empty if it isn't known.
+     */
+    public OptionalLong value(final String name) {
+        final Counter counter = this.counters.get(name);
+        return counter != null ? OptionalLong.of(counter.value()) : OptionalLong.empty();
+    }
+    
+    /**
+     * Own components of counters changed since the previous call. Changes made during 
+     * the call may be included now, and they are included next time as well.
+     * 
+     * @return message with changed components, with no counters if nothing has changed.
+     */
+    public GossipMessage delta() {
+        final Map<String, Map<String, long[]>> changed = new HashMap<>();
+        this.counters.forEach((name, counter) -> {
+            if (counter.dirty) {
+                counter.dirty = false;
+                final Map<String, long[]> components = new HashMap<>(2);
+                components.put(this.componentId, counter.own());
+                changed.put(name, components);
+            }
+        });
+        return new GossipMessage(this.nodeId, changed);
+    }
+    
+    /**
+     * @return message with all components of all counters known at this node.
+     */
+    public GossipMessage full() {
+        final Map<String, Map<String, long[]>> all = new HashMap<>();
+        this.counters.forEach((name, counter) -> {
+            final Map<String, long[]> components;
+            synchronized (counter) {
+                components = new HashMap<>(counter.others.size() + 1);
+                counter.others.forEach((node, component) -> components.put(node, component.clone()));
+            }
+            components.put(this.componentId, counter.own());
+            all.put(name, components);
+        });
+        return new GossipMessage(this.nodeId, all);
+    }
+    
+    /**
+     * Merges state received from other node. Counters beyond maximal count are dropped, 
+     * they are made up for by full states once there is room for them. The whole message
+     * is validated first, so a malformed one changes nothing.
+     * 
+     * @param message state of other node.
+     * @throws IllegalArgumentException if any name is longer than {@value CounterNames#MAX_BYTES}
+     *         bytes in UTF-8, or any component isn't a pair of non-negative increments 
+     *         and decrements.
+     */
+    public void merge(final GossipMessage message) throws IllegalArgumentException {
+        if (message.getCounters() == null) {
+            return;
+        }
+        validate(message);
+        message.getCounters().forEach((name, components) -> {
+            final Counter counter;
+            try {
+                counter = getOrCreate(name);
+            } catch (CounterLimitException e) {
+                return;
+            }
+            components.forEach((node, component) -> {
+                // own components come back no greater than they are
+                if (!this.componentId.equals(node)) {
+                    counter.merge(node, component);
+                }
+            });
+        });
+    }
+    
+    private static void validate(final GossipMessage message) {
+        message.getCounters().forEach((name, components) -> {
+            if (name == null || !CounterNames.isValid(name)) {
+                throw new IllegalArgumentException("Counter name is missing or longer than " 
+                        + CounterNames.MAX_BYTES + " bytes");
+            }
+            if (components == null) {
+                throw new IllegalArgumentException("Counter " + name + " has no components");
+            }
+            components.forEach((node, component) -> {
+                if (component == null || component.length != 2 || component[0] < 0 || component[1] < 0) {
+                    throw new IllegalArgumentException("Component of " + node + " in " + name 
+                            + " isn't pair of non-negative increments and decrements");
+                }
+            });
+        });
+    }
+    
+    private Counter getOrCreate(final String name) throws CounterLimitException {
+        final Counter counter = this.counters.get(name);
+        if (counter != null) {
+            return counter;
+        }
+        if (this.counters.size() >= this.maxCount) {
+            throw new CounterLimitException(this.maxCount);
+        }
+        return this.counters.computeIfAbsent(name, key -> new Counter());
+    }
+    
+    private static final class Counter {
+        
+        private final LongAdder increments = new LongAdder();
+        
+        private final LongAdder decrements = new LongAdder();
+        
+        /** Components of other nodes, guarded by the counter. */
+        private final Map<String, long[]> others = new HashMap<>(4);
+        
+        /** Sums of components of other nodes, guarded by the counter. */
+        private volatile long othersValue;
+        
+        private volatile boolean dirty;
+        
+        long value() {
+            return this.increments.sum() - this.decrements.sum() + this.othersValue;
+        }
+        
+        long[] own() {
+            return new long[] {this.increments.sum(), this.decrements.sum()};
+        }
+        
+        synchronized void merge(final String node, final long[] component) {
+            final long[] known = this.others.computeIfAbsent(node, key -> new long[2]);
+            long change = 0;
+            if (component[0] > known[0]) {
+                change += component[0] - known[0];
+                known[0] = component[0];
+            }
+            if (component[1] > known[1]) {
+                change -= component[1] - known[1];
+                known[1] = component[1];
+            }
+            this.othersValue += change;
+        }
+    }
+}
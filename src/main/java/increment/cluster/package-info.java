@@ -0,0 +1,8 @@
+/**
+ * Counters shared by instances of the application as replicated data types.
+ * 
+ * @author Grehov
+ *
+ */
+
+package increment.cluster;
@@ -0,0 +1,91 @@
+package increment.codec;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Codec of signed integers as 
+ * <a href="https://developers.google.com/protocol-buffers/docs/encoding#varints">varints</a>
+ * with zigzag encoding, as used by Protocol Buffers' 'sint64': small magnitudes, 
+ * either positive or negative, take few bytes, e.g. values within [-64, 63] take one byte,
+ * any {@code int} at most five bytes and any {@code long} at most {@value #MAX_BYTES} bytes.
+ * 
+ * @author Grehov
+ *
+ */
+public final class Varint {
+    
+    /**
+     * Maximal length of encoded {@code long}.
+     */
+    public static final int MAX_BYTES = 10;
+    
+    private Varint() {
+    }
+    
+    /**
+     * Encodes value into given buffer.
+     * 
+     * @param value value to be encoded.
+     * @param buffer buffer with at least {@value #MAX_BYTES} bytes from offset.
+     * @param offset offset in buffer.
+     * @return count of written bytes.
+     */
+    public static int write(final long value, final byte[] buffer, final int offset) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        int position = offset;
+        while ((zigzag & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+        buffer[position++] = (byte) zigzag;
+        return position - offset;
+    }
+    
+    /**
+     * Decodes value, which first byte has been already read from the stream.
+     * 
+     * @param first first byte of value, as returned by {@link InputStream#read()}.
+     * @param in stream with rest of bytes of value.
+     * @return decoded value.
+     * 
+     * @throws EOFException if the stream ends within the value.
+     * @throws IllegalArgumentException if the value is longer than {@value #MAX_BYTES} bytes.
+     * @throws IOException if reading of the stream fails.
+     */
+    public static long read(final int first, final InputStream in) throws IOException {
+        int current = first;
+        long zigzag = 0L;
+        for (int shift = 0; shift < 7 * MAX_BYTES; shift += 7) {
+            if (current < 0) {
+                throw new EOFException("Varint is truncated");
+            }
+            zigzag |= (long) (current & 0x7F) << shift;
+            if ((current & 0x80) == 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+            current = in.read();
+        }
+        throw new IllegalArgumentException("Varint is longer than " + MAX_BYTES + " bytes");
+    }
+    
+    /**
+     * Decodes {@code int}, which first byte has been already read from the stream.
+     * 
+     * @param first first byte of value, as returned by {@link InputStream#read()}.
+     * @param in stream with rest of bytes of value.
+     * @return decoded value.
+     * 
+     * @throws EOFException if the stream ends within the value.
+     * @throws IllegalArgumentException if the value is malformed or doesn't fit in {@code int}.
+     * @throws IOException if reading of the stream fails.
+     */
+    public static int readInt(final int first, final InputStream in) throws IOException {
+        final long value = read(first, in);
+        if (value != (int) value) {
+            throw new IllegalArgumentException("Varint " + value + " doesn't fit in int");
+        }
+        return (int) value;
+    }
+}
@@ -0,0 +1,73 @@
+package increment.codec;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+/**
+ * Converter of single {@link Integer}, {@link Long} or {@link BigInteger} fitting in
+ * {@code long} from and to {@value #APPLICATION_VARINT_VALUE}, i.e. a {@link Varint}. 
+ * Registered as bean, it takes part in content negotiation next to JSON.
+ * 
+ * @author Grehov
+ *
+ */
+public class VarintHttpMessageConverter extends AbstractHttpMessageConverter<Number> {
+    
+    public final static String APPLICATION_VARINT_VALUE = "application/x-increment-varint";
+    
+    public final static MediaType APPLICATION_VARINT = MediaType.valueOf(APPLICATION_VARINT_VALUE);
+    
+    public VarintHttpMessageConverter() {
+        super(APPLICATION_VARINT);
+    }
+
+    @Override
+    protected boolean supports(final Class<?> clazz) {
+        return clazz == Integer.class || clazz == Long.class || clazz == BigInteger.class;
+    }
+    
+    @Override
+    protected Long getContentLength(final Number number, final MediaType contentType) {
+        return (long) Varint.write(number.longValue(), new byte[Varint.MAX_BYTES], 0);
+    }
+
+    @Override
+    protected Number readInternal(final Class<? extends Number> clazz, final HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        final InputStream in = inputMessage.getBody();
+        try {
+            final long value = Varint.read(in.read(), in);
+            if (in.read() != -1) {
+                throw new HttpMessageNotReadableException("More than one varint in body");
+            }
+            if (clazz == Integer.class) {
+                if (value != (int) value) {
+                    throw new HttpMessageNotReadableException("Varint " + value + " doesn't fit in int");
+                }
+                return (int) value;
+            }
+            return clazz == Long.class ? (Number) value : BigInteger.valueOf(value);
+        } catch (EOFException | IllegalArgumentException e) {
+            throw new HttpMessageNotReadableException("Malformed varint", e);
+        }
+    }
+
+    @Override
+    protected void writeInternal(final Number number, final HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (number instanceof BigInteger && ((BigInteger) number).bitLength() >= Long.SIZE) {
+            throw new HttpMessageNotWritableException("Value " + number + " doesn't fit in long");
+        }
+        final byte[] buffer = new byte[Varint.MAX_BYTES];
+        outputMessage.getBody().write(buffer, 0, Varint.write(number.longValue(), buffer, 0));
+    }
+}
@@ -0,0 +1,8 @@
+/**
+ * Compact binary wire format of the API.
+ * 
+ * @author Grehov
+ *
+ */
+
+package increment.codec;
@@ -1,21 +1,24 @@
 package increment.config;
 
 import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.PropertySource;
 import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-import increment.Increment;
+import increment.codec.VarintHttpMessageConverter;
 
 @Configuration
-@PropertySource("classpath:application.yml")
-@ComponentScan(basePackageClasses = Increment.class)
+@EnableScheduling
 class ApplicationConfig {
 
     @Bean
     public static PropertySourcesPlaceholderConfigurer propertySourcesPlaceholderConfigurer() {
         return new PropertySourcesPlaceholderConfigurer();
     }
+    
+    @Bean
+    public VarintHttpMessageConverter varintHttpMessageConverter() {
+        return new VarintHttpMessageConverter();
+    }
 
 }
\ No newline at end of file
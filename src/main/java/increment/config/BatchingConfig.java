@@ -0,0 +1,37 @@
+package increment.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import increment.services.BatchingIncrementService;
+import increment.services.IncrementServiceImpl;
+import increment.services.IncrementSummary;
+
+/**
+ * Configuration of {@link BatchingIncrementService} in front of {@link IncrementServiceImpl}.
+ * It's set with 'increment.batching.*'.
+ * 
+ * @author Grehov
+ *
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "increment.batching", name = "enabled")
+class BatchingConfig {
+    
+    @Value("${increment.batching.max-batch-size}")
+    private int maxBatchSize;
+    
+    @Value("${increment.batching.max-wait-micros}")
+    private long maxWaitMicros;
+    
+    @Bean
+    public BatchingIncrementService batchingIncrementService(final IncrementServiceImpl incrementService,
+            final IncrementSummary summary) {
+        return new BatchingIncrementService(incrementService, summary, this.maxBatchSize, 
+                this.maxWaitMicros, TimeUnit.MICROSECONDS);
+    }
+}
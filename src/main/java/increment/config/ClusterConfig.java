@@ -0,0 +1,73 @@
+package increment.config;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import increment.cluster.GossipTransport;
+import increment.cluster.HttpGossipTransport;
+import increment.cluster.PnCounterStore;
+import increment.metrics.Metrics;
+import increment.services.ClusteredCounterService;
+
+/**
+ * Configuration of {@link ClusteredCounterService}, which shares counters with peers 
+ * over HTTP. It's enabled by 'increment.counters.store' of 'clustered' and set with 
+ * 'increment.cluster.*'.
+ * 
+ * @author Grehov
+ *
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "increment.counters", name = "store", havingValue = "clustered")
+class ClusterConfig {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(ClusterConfig.class);
+    
+    @Value("${increment.counters.max-count:100000}")
+    private int maxCount;
+    
+    @Value("${increment.cluster.node-id}")
+    private String nodeId;
+    
+    @Value("${increment.cluster.peers}")
+    private String peers;
+    
+    @Value("${increment.cluster.secret}")
+    private String secret;
+    
+    @Value("${increment.cluster.full-sync-every}")
+    private int fullSyncEvery;
+    
+    @Value("${increment.cluster.timeout-ms}")
+    private int timeoutMs;
+    
+    @Bean
+    public GossipTransport gossipTransport() {
+        return new HttpGossipTransport(this.secret, this.timeoutMs);
+    }
+    
+    @Bean
+    public ClusteredCounterService clusteredCounterService(final GossipTransport gossipTransport, 
+            final Metrics metrics) {
+        String id = this.nodeId.trim();
+        if (id.isEmpty()) {
+            id = UUID.randomUUID().toString();
+            LOG.warn("increment.cluster.node-id isn't set, node is {} until restart", id);
+        }
+        final List<String> peerList = Arrays.stream(this.peers.split(","))
+                .map(String::trim)
+                .filter(peer -> !peer.isEmpty())
+                .collect(Collectors.toList());
+        return new ClusteredCounterService(new PnCounterStore(id, this.maxCount), gossipTransport, 
+                peerList, this.fullSyncEvery, metrics.counter("cluster.gossip_failures"));
+    }
+}
@@ -0,0 +1,45 @@
+package increment.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+
+import increment.idempotency.IdempotencyFilter;
+
+/**
+ * CORS of '/api/**' for browsers calling the API directly from origins given by 
+ * 'increment.cors.allowed-origins', with credentials, so that neither a proxy adding 
+ * them nor JSONP is needed. Preflight results are cached by browsers for 
+ * 'increment.cors.max-age-seconds'. With no origins, only same origin browsers are allowed.
+ * Preflight requests pass the security filter chain, see 
+ * {@link increment.security.WebSecurityConfig}.
+ * 
+ * @author Grehov
+ *
+ */
+@Configuration
+class CorsConfig extends WebMvcConfigurerAdapter {
+    
+    private static final String API_SUBPATH = "/api/**";
+    
+    @Value("${increment.cors.allowed-origins:}")
+    private String[] allowedOrigins;
+    
+    @Value("${increment.cors.max-age-seconds:3600}")
+    private long maxAgeSeconds;
+    
+    @Override
+    public void addCorsMappings(final CorsRegistry registry) {
+        if (this.allowedOrigins.length == 0) {
+            return;
+        }
+        registry.addMapping(API_SUBPATH)
+            .allowedOrigins(this.allowedOrigins)
+            .allowedMethods("GET", "POST", "PATCH")
+            .allowedHeaders("Authorization", "Content-Type", IdempotencyFilter.IDEMPOTENCY_KEY)
+            .exposedHeaders(IdempotencyFilter.REPLAYED, "Retry-After")
+            .allowCredentials(true)
+            .maxAge(this.maxAgeSeconds);
+    }
+}
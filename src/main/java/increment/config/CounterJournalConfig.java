@@ -0,0 +1,54 @@
+package increment.config;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import increment.counters.CounterJournal;
+import increment.counters.FsyncPolicy;
+
+/**
+ * Configuration of {@link CounterJournal}, which makes counters durable. 
+ * It's set with 'increment.counters.journal.*'.
+ * 
+ * @author Grehov
+ *
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "increment.counters.journal", name = "enabled")
+class CounterJournalConfig {
+    
+    @Value("${increment.counters.journal.dir}")
+    private String dir;
+    
+    @Value("${increment.counters.journal.fsync}")
+    private String fsync;
+    
+    @Value("${increment.counters.journal.fsync-interval-ms}")
+    private long fsyncIntervalMs;
+    
+    @Value("${increment.counters.journal.segment-size}")
+    private int segmentSize;
+    
+    @Value("${increment.counters.journal.snapshot-interval-ms}")
+    private long snapshotIntervalMs;
+    
+    @Value("${increment.counters.journal.queue-size}")
+    private int queueSize;
+    
+    @Value("${increment.counters.store:heap}")
+    private String store;
+    
+    @Bean
+    public CounterJournal counterJournal() throws IOException {
+        final FsyncPolicy fsyncPolicy = FsyncPolicy.valueOf(this.fsync.trim().toUpperCase(Locale.ROOT));
+        return new CounterJournal(Paths.get(this.dir), fsyncPolicy, this.fsyncIntervalMs, this.segmentSize, 
+                this.snapshotIntervalMs, this.queueSize, TimeUnit.MILLISECONDS, "off-heap".equals(this.store));
+    }
+}
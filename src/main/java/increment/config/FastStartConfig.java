@@ -0,0 +1,74 @@
+package increment.config;
+
+import java.lang.management.ManagementFactory;
+
+import org.apache.tomcat.util.scan.StandardJarScanFilter;
+import org.apache.tomcat.util.scan.StandardJarScanner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.embedded.EmbeddedServletContainerCustomizer;
+import org.springframework.boot.context.embedded.tomcat.TomcatEmbeddedServletContainerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import increment.startup.LazyInitBeanFactoryPostProcessor;
+
+/**
+ * Configuration of 'fast-start' profile, for instances started under load. Beans are 
+ * created lazily by {@link LazyInitBeanFactoryPostProcessor}, and the embedded Tomcat 
+ * doesn't scan jars for TLDs and web fragments, which the API has none of. Auto-configuration
+ * unused by the API is excluded in application.yml of the profile.
+ * <p>
+ * If 'increment.startup.exit-on-ready' is set, the application exits once it's ready, so
+ * that a run records the classes loaded at startup, e.g. into a class data sharing archive.
+ * 
+ * @author Grehov
+ *
+ */
+@Configuration
+@Profile("fast-start")
+class FastStartConfig {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(FastStartConfig.class);
+    
+    @Bean
+    public static LazyInitBeanFactoryPostProcessor lazyInitBeanFactoryPostProcessor() {
+        return new LazyInitBeanFactoryPostProcessor();
+    }
+    
+    @Bean
+    public EmbeddedServletContainerCustomizer jarScanCustomizer() {
+        return container -> {
+            if (container instanceof TomcatEmbeddedServletContainerFactory) {
+                ((TomcatEmbeddedServletContainerFactory) container).addContextCustomizers(context -> {
+                    final StandardJarScanner scanner = new StandardJarScanner();
+                    final StandardJarScanFilter filter = new StandardJarScanFilter();
+                    filter.setTldSkip("*");
+                    filter.setPluggabilitySkip("*");
+                    scanner.setJarScanFilter(filter);
+                    scanner.setScanManifest(false);
+                    context.setJarScanner(scanner);
+                });
+            }
+        };
+    }
+    
+    @Bean
+    @ConditionalOnProperty(prefix = "increment.startup", name = "exit-on-ready")
+    public ApplicationListener<ApplicationReadyEvent> exitOnReady() {
+        return new ApplicationListener<ApplicationReadyEvent>() {
+            
+            @Override
+            public void onApplicationEvent(final ApplicationReadyEvent event) {
+                LOG.info("Ready in {} ms of JVM uptime, exiting as 'increment.startup.exit-on-ready' is set", 
+                        ManagementFactory.getRuntimeMXBean().getUptime());
+                System.exit(SpringApplication.exit(event.getApplicationContext()));
+            }
+        };
+    }
+}
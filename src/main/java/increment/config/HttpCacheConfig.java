@@ -0,0 +1,42 @@
+package increment.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+
+import increment.api.IncrementNotModifiedFilter;
+import increment.api.IncrementResourceController;
+import increment.metrics.Metrics;
+
+/**
+ * Configuration of {@link IncrementNotModifiedFilter}, which is ordered right in front 
+ * of the security filter chain. It's enabled by 'increment.http-cache.not-modified-before-auth',
+ * but only with public caching policy, 'increment.http-cache.public', see 
+ * {@link IncrementResourceController}.
+ * 
+ * @author Grehov
+ *
+ */
+@Configuration
+@ConditionalOnExpression("${increment.http-cache.public:true} and ${increment.http-cache.not-modified-before-auth:true}")
+class HttpCacheConfig {
+    
+    @Value("${increment.http-cache.max-age-seconds:31536000}")
+    private long maxAgeSeconds;
+    
+    @Bean
+    public FilterRegistrationBean incrementNotModifiedFilter(final SecurityProperties securityProperties, 
+            final Metrics metrics) {
+        final FilterRegistrationBean registration = new FilterRegistrationBean(new IncrementNotModifiedFilter(
+                CacheControl.maxAge(this.maxAgeSeconds, TimeUnit.SECONDS).cachePublic().getHeaderValue(), 
+                metrics));
+        registration.setOrder(securityProperties.getFilterOrder() - 1);
+        return registration;
+    }
+}
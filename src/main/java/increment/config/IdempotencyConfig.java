@@ -0,0 +1,48 @@
+package increment.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import increment.cache.ClockCache;
+import increment.idempotency.IdempotencyFilter;
+import increment.metrics.Metrics;
+
+/**
+ * Configuration of {@link IdempotencyFilter}, which is ordered after the security filter 
+ * chain, its metering filter, rate limits and validation, so that keys are scoped by 
+ * authenticated principals and retries count against limits. Entries in flight are
+ * pinned in the cache.
+ * It's set with 'increment.idempotency.*'.
+ * 
+ * @author Grehov
+ *
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "increment.idempotency", name = "enabled", matchIfMissing = true)
+class IdempotencyConfig {
+    
+    @Value("${increment.idempotency.max-size:100000}")
+    private int maxSize;
+    
+    @Value("${increment.idempotency.ttl-seconds:3600}")
+    private long ttlSeconds;
+    
+    @Value("${increment.idempotency.max-body-bytes:65536}")
+    private int maxBodyBytes;
+    
+    @Bean
+    public FilterRegistrationBean idempotencyFilter(final SecurityProperties securityProperties, 
+            final Metrics metrics) {
+        final FilterRegistrationBean registration = new FilterRegistrationBean(new IdempotencyFilter(
+                new ClockCache<>(this.maxSize, this.ttlSeconds, TimeUnit.SECONDS, 
+                        entry -> !entry.isCompleted()), this.maxBodyBytes, metrics));
+        registration.setOrder(securityProperties.getFilterOrder() + 4);
+        return registration;
+    }
+}
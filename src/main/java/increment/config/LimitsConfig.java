@@ -0,0 +1,64 @@
+package increment.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import increment.limits.AimdConcurrencyLimit;
+import increment.limits.ConcurrencyLimitFilter;
+import increment.limits.RateLimitFilter;
+import increment.metrics.Metrics;
+
+/**
+ * Configuration of admission control. {@link RateLimitFilter} is ordered after the 
+ * security filter chain and its metering filter, so that it sees authenticated principals,
+ * and it's enabled by 'increment.limits.rate.enabled'. {@link ConcurrencyLimitFilter}
+ * is ordered in front of the security filter chain, right after the metering filter, 
+ * and it's enabled by 'increment.limits.concurrency.enabled'.
+ * 
+ * @author Grehov
+ *
+ */
+@Configuration
+class LimitsConfig {
+    
+    private final Metrics metrics;
+    
+    LimitsConfig(final Metrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    @Bean
+    @ConditionalOnProperty(prefix = "increment.limits.rate", name = "enabled")
+    public FilterRegistrationBean rateLimitFilter(final SecurityProperties securityProperties,
+            @Value("${increment.limits.rate.client-rate}") final double clientRate,
+            @Value("${increment.limits.rate.client-burst}") final int clientBurst,
+            @Value("${increment.limits.rate.global-rate}") final double globalRate,
+            @Value("${increment.limits.rate.global-burst}") final int globalBurst,
+            @Value("${increment.limits.rate.max-clients}") final int maxClients) {
+        final FilterRegistrationBean registration = new FilterRegistrationBean(new RateLimitFilter(
+                clientRate, clientBurst, globalRate, globalBurst, maxClients, this.metrics));
+        registration.setOrder(securityProperties.getFilterOrder() + 2);
+        return registration;
+    }
+    
+    @Bean
+    @ConditionalOnProperty(prefix = "increment.limits.concurrency", name = "enabled")
+    public FilterRegistrationBean concurrencyLimitFilter(final SecurityProperties securityProperties,
+            @Value("${increment.limits.concurrency.initial-limit}") final int initialLimit,
+            @Value("${increment.limits.concurrency.min-limit}") final int minLimit,
+            @Value("${increment.limits.concurrency.max-limit}") final int maxLimit,
+            @Value("${increment.limits.concurrency.latency-threshold-ms}") final long latencyThresholdMs,
+            @Value("${increment.limits.concurrency.backoff-ratio}") final double backoffRatio) {
+        final FilterRegistrationBean registration = new FilterRegistrationBean(new ConcurrencyLimitFilter(
+                new AimdConcurrencyLimit(initialLimit, minLimit, maxLimit, latencyThresholdMs, 
+                        TimeUnit.MILLISECONDS, backoffRatio), this.metrics));
+        registration.setOrder(securityProperties.getFilterOrder() - 2);
+        return registration;
+    }
+}
@@ -0,0 +1,78 @@
+package increment.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+
+import increment.metrics.Metrics;
+import increment.metrics.MetricsHandlerInterceptor;
+import increment.metrics.RequestMetricsFilter;
+import increment.metrics.SecurityMetricsFilter;
+import increment.push.IncrementUpdates;
+import increment.services.BatchingIncrementService;
+import increment.services.IncrementService;
+import increment.services.IncrementServiceImpl;
+import increment.services.MeteredIncrementService;
+import increment.services.PublishingIncrementService;
+
+/**
+ * Instrumentation of requests, the security filter chain, handlers and the service
+ * with {@link Metrics}. The metering filters are ordered around the security filter 
+ * chain and the admission filters right in front of it.
+ * 
+ * @author Grehov
+ *
+ */
+@Configuration
+class MetricsConfig extends WebMvcConfigurerAdapter {
+    
+    private final Metrics metrics;
+    
+    MetricsConfig(final Metrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    /**
+     * Service used by the endpoints: metered, batched if 'increment.batching.enabled' is set,
+     * and published to dashboards unless 'increment.push.enabled' is unset.
+     */
+    @Bean
+    @Primary
+    public IncrementService meteredIncrementService(final IncrementServiceImpl incrementService, 
+            final ObjectProvider<BatchingIncrementService> batchingIncrementService,
+            final ObjectProvider<IncrementUpdates> incrementUpdates) {
+        final IncrementService batching = batchingIncrementService.getIfAvailable();
+        IncrementService service = batching != null ? batching : incrementService;
+        final IncrementUpdates updates = incrementUpdates.getIfAvailable();
+        if (updates != null) {
+            service = new PublishingIncrementService(service, updates);
+        }
+        return new MeteredIncrementService(service, this.metrics);
+    }
+    
+    @Bean
+    public FilterRegistrationBean requestMetricsFilter(final SecurityProperties securityProperties) {
+        final FilterRegistrationBean registration = 
+                new FilterRegistrationBean(new RequestMetricsFilter(this.metrics));
+        registration.setOrder(securityProperties.getFilterOrder() - 3);
+        return registration;
+    }
+    
+    @Bean
+    public FilterRegistrationBean securityMetricsFilter(final SecurityProperties securityProperties) {
+        final FilterRegistrationBean registration = 
+                new FilterRegistrationBean(new SecurityMetricsFilter(this.metrics));
+        registration.setOrder(securityProperties.getFilterOrder() + 1);
+        return registration;
+    }
+    
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        registry.addInterceptor(new MetricsHandlerInterceptor(this.metrics));
+    }
+}
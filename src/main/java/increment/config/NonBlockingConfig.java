@@ -0,0 +1,37 @@
+package increment.config;
+
+import org.springframework.boot.autoconfigure.web.DispatcherServletAutoConfiguration;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import increment.api.IncrementController;
+import increment.api.NonBlockingIncrementServlet;
+import increment.services.IncrementService;
+
+/**
+ * Configuration of 'non-blocking' profile, which serves {@link IncrementController#INCREMENT}
+ * with {@link NonBlockingIncrementServlet} instead of {@link IncrementController}.
+ * The servlet's exact mapping takes precedence over the dispatcher servlet, so the rest
+ * of the API and the security filter chain stay as they are; requests of other methods
+ * than PATCH are forwarded by the servlet to the dispatcher servlet.
+ * 
+ * @author Grehov
+ *
+ */
+@Configuration
+@Profile("non-blocking")
+class NonBlockingConfig {
+    
+    @Bean
+    public ServletRegistrationBean nonBlockingIncrementServlet(final IncrementService incrementService) {
+        final ServletRegistrationBean registration = new ServletRegistrationBean(
+                new NonBlockingIncrementServlet(incrementService, 
+                        DispatcherServletAutoConfiguration.DEFAULT_DISPATCHER_SERVLET_BEAN_NAME), 
+                IncrementController.INCREMENT);
+        registration.setName("nonBlockingIncrementServlet");
+        registration.setAsyncSupported(true);
+        return registration;
+    }
+}
@@ -0,0 +1,41 @@
+package increment.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import increment.push.Broadcaster;
+import increment.push.IncrementUpdates;
+
+/**
+ * Configuration of {@link IncrementUpdates} pushed to dashboards. 
+ * It's set with 'increment.push.*'.
+ * 
+ * @author Grehov
+ *
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "increment.push", name = "enabled", matchIfMissing = true)
+class PushConfig {
+    
+    @Value("${increment.push.max-subscribers}")
+    private int maxSubscribers;
+    
+    @Value("${increment.push.buffer-size}")
+    private int bufferSize;
+    
+    @Value("${increment.push.sender-threads}")
+    private int senderThreads;
+    
+    @Value("${increment.push.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+    
+    @Bean
+    public IncrementUpdates incrementUpdates() {
+        return new IncrementUpdates(new Broadcaster(this.maxSubscribers, this.bufferSize, this.senderThreads, 
+                this.sendTimeoutMs, TimeUnit.MILLISECONDS));
+    }
+}
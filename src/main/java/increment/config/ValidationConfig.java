@@ -0,0 +1,35 @@
+package increment.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import increment.api.IncrementValidationFilter;
+import increment.metrics.Metrics;
+
+/**
+ * Configuration of {@link IncrementValidationFilter}, which is ordered after the security 
+ * filter chain and rate limits, so that unauthenticated and excessive requests are 
+ * rejected first. It's enabled by 'increment.validation.enabled', except in 'non-blocking'
+ * profile, whose servlet validates bodies itself as they arrive.
+ * 
+ * @author Grehov
+ *
+ */
+@Configuration
+@Profile("!non-blocking")
+@ConditionalOnProperty(prefix = "increment.validation", name = "enabled", matchIfMissing = true)
+class ValidationConfig {
+    
+    @Bean
+    public FilterRegistrationBean incrementValidationFilter(final SecurityProperties securityProperties, 
+            final Metrics metrics) {
+        final FilterRegistrationBean registration = 
+                new FilterRegistrationBean(new IncrementValidationFilter(metrics));
+        registration.setOrder(securityProperties.getFilterOrder() + 3);
+        return registration;
+    }
+}
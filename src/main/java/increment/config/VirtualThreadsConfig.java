@@ -0,0 +1,67 @@
+package increment.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import org.apache.coyote.AbstractProtocol;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.embedded.EmbeddedServletContainerCustomizer;
+import org.springframework.boot.context.embedded.tomcat.TomcatEmbeddedServletContainerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration running request handling of the embedded Tomcat, and so the
+ * {@link increment.services.IncrementService} calls, on virtual threads instead 
+ * of the fixed worker pool. Enabled with 'increment.server.virtual-threads'.
+ * <p>
+ * The application is still compiled for Java 8, so the virtual thread executor is looked 
+ * up at runtime. On a JVM without virtual threads the worker pool is kept and a warning
+ * is logged. 
+ * 
+ * @author Grehov
+ *
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "increment.server", name = "virtual-threads")
+class VirtualThreadsConfig {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+    
+    private static final String VIRTUAL_THREAD_EXECUTOR_FACTORY = "newVirtualThreadPerTaskExecutor";
+    
+    /**
+     * Sets virtual thread executor to Tomcat connectors. The executor keeps no threads 
+     * of its own, so it isn't shut down with the container.
+     * 
+     * @return customizer of embedded Tomcat.
+     */
+    @Bean
+    public EmbeddedServletContainerCustomizer virtualThreadsCustomizer() {
+        final Executor executor = virtualThreadExecutor();
+        return container -> {
+            if (executor != null && container instanceof TomcatEmbeddedServletContainerFactory) {
+                ((TomcatEmbeddedServletContainerFactory) container).addConnectorCustomizers(
+                        connector -> {
+                            if (connector.getProtocolHandler() instanceof AbstractProtocol) {
+                                ((AbstractProtocol<?>) connector.getProtocolHandler())
+                                        .setExecutor(executor);
+                            }
+                        });
+            }
+        };
+    }
+    
+    private static Executor virtualThreadExecutor() {
+        try {
+            return (Executor) Executors.class.getMethod(VIRTUAL_THREAD_EXECUTOR_FACTORY)
+                    .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            LOG.warn("Virtual threads aren't supported by Java {}, worker pool is used instead.",
+                    System.getProperty("java.specification.version"));
+            return null;
+        }
+    }
+}
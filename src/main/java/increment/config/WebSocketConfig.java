@@ -0,0 +1,52 @@
+package increment.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+import increment.api.IncrementWebSocketHandler;
+import increment.services.IncrementService;
+
+/**
+ * Configuration of {@link IncrementWebSocketHandler}. Its handshake path is under '/api/**',
+ * so it's authenticated as the rest of the API. Only same origin browsers are allowed, 
+ * unless 'increment.websocket.allowed-origins' is set.
+ * 
+ * @author Grehov
+ *
+ */
+@Configuration
+@EnableWebSocket
+class WebSocketConfig implements WebSocketConfigurer {
+    
+    private final IncrementService incrementService;
+    
+    @Value("${increment.websocket.allowed-origins:}")
+    private String[] allowedOrigins;
+    
+    @Value("${increment.websocket.max-message-size:65536}")
+    private int maxMessageSize;
+    
+    WebSocketConfig(final IncrementService incrementService) {
+        this.incrementService = incrementService;
+    }
+    
+    @Override
+    public void registerWebSocketHandlers(final WebSocketHandlerRegistry registry) {
+        registry.addHandler(new IncrementWebSocketHandler(this.incrementService), 
+                IncrementWebSocketHandler.INCREMENT_WS)
+            .setAllowedOrigins(this.allowedOrigins);
+    }
+    
+    @Bean
+    public ServletServerContainerFactoryBean createWebSocketContainer() {
+        final ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxTextMessageBufferSize(this.maxMessageSize);
+        container.setMaxBinaryMessageBufferSize(this.maxMessageSize);
+        return container;
+    }
+}
@@ -0,0 +1,719 @@
+package increment.counters;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjLongConsumer;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Durable journal of counter increments. Increments are appended to memory-mapped log 
+ * segments by a single writer thread, which takes all increments queued meanwhile as one 
+ * group: deltas of the group are summed per counter, written and, depending on 
+ * {@link FsyncPolicy}, forced at once. 
+ * <p>
+ * Whenever a segment is full, or snapshot interval elapses, the writer starts a new segment 
+ * and writes snapshot of all counters, which covers all previous segments. Once the new 
+ * snapshot is written, moved in place, the directory forced and the snapshot read back, 
+ * files older than the previous snapshot are deleted; the previous snapshot and segments 
+ * since it are kept, so that a snapshot damaged later on disk costs only a longer replay. 
+ * Recovery thus reads the latest valid snapshot and replays at most a couple of segments 
+ * or intervals worth of log, however long the journal has been running.
+ * <p>
+ * Every log record and snapshot carries CRC32, so a record torn by crash ends 
+ * the replay of its segment. If segments since the latest valid snapshot, or since 
+ * the start without one, are missing, recovery fails rather than losing counts.
+ * <p>
+ * Snapshots are written from the journal's own values of counters, which cover exactly 
+ * what was written, unlike the store, which may already count queued increments. 
+ * For the off-heap store they are kept in {@link OffHeapCounterMap}, so that the journal 
+ * doesn't bring the counters back on the heap; this doubles direct memory taken by counters.
+ * 
+ * @author Grehov
+ *
+ */
+public class CounterJournal implements Closeable {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(CounterJournal.class);
+    
+    private static final String SEGMENT_PREFIX = "journal-";
+    
+    private static final String SEGMENT_SUFFIX = ".log";
+    
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    
+    private static final int SNAPSHOT_MAGIC = 0x494E4353;
+    
+    /*
+     * Record is length of payload, payload of name length, name and delta, and CRC32 
+     * of payload. Zero length marks the unwritten rest of segment.
+     */
+    private static final int RECORD_OVERHEAD = Integer.BYTES + Short.BYTES + Long.BYTES + Integer.BYTES;
+    
+    private static final int MAX_NAME_BYTES = Short.MAX_VALUE;
+    
+    private static final int SNAPSHOT_BUFFER_SIZE = 1 << 20;
+    
+    static final int MIN_SEGMENT_SIZE = 2 * (RECORD_OVERHEAD + MAX_NAME_BYTES);
+    
+    /*
+     * Interval, at which waiting for room in the queue checks whether the journal was closed.
+     */
+    private static final long OFFER_CHECK_MILLIS = 100;
+    
+    private static final class Pending {
+        final String name;
+        final long delta;
+        final CompletableFuture<Void> durable;
+        
+        Pending(final String name, final long delta, final CompletableFuture<Void> durable) {
+            this.name = name;
+            this.delta = delta;
+            this.durable = durable;
+        }
+    }
+    
+    private static final Pending CLOSE = new Pending("", 0L, null);
+    
+    /*
+     * Values of counters, on or off the heap.
+     */
+    private interface Values {
+        
+        void add(String name, long delta);
+        
+        void forEach(ObjLongConsumer<String> action);
+        
+        int size();
+    }
+    
+    private static final class HeapValues implements Values {
+        
+        private final Map<String, Long> values = new HashMap<>();
+        
+        @Override
+        public void add(final String name, final long delta) {
+            this.values.merge(name, delta, Long::sum);
+        }
+        
+        @Override
+        public void forEach(final ObjLongConsumer<String> action) {
+            this.values.forEach(action::accept);
+        }
+        
+        @Override
+        public int size() {
+            return this.values.size();
+        }
+    }
+    
+    private static final class OffHeapValues implements Values {
+        
+        private final OffHeapCounterMap values = new OffHeapCounterMap(Integer.MAX_VALUE);
+        
+        @Override
+        public void add(final String name, final long delta) {
+            this.values.add(name, delta);
+        }
+        
+        @Override
+        public void forEach(final ObjLongConsumer<String> action) {
+            this.values.forEach(action);
+        }
+        
+        @Override
+        public int size() {
+            return this.values.size();
+        }
+    }
+    
+    private final Path directory;
+    
+    private final FsyncPolicy fsyncPolicy;
+    
+    private final long fsyncIntervalNanos;
+    
+    private final int segmentSize;
+    
+    private final long snapshotIntervalNanos;
+    
+    private final BlockingQueue<Pending> queue;
+    
+    private final Thread writer;
+    
+    /*
+     * Set by close(), and by the writer before it completes what's left in the queue.
+     */
+    private volatile boolean closed;
+    
+    private volatile boolean appended;
+    
+    /*
+     * State below is confined to the writer thread after construction.
+     */
+    
+    private final Values values;
+    
+    private final CRC32 crc = new CRC32();
+    
+    private long segmentSequence;
+    
+    private long snapshotSequence;
+    
+    private FileChannel segmentChannel;
+    
+    private MappedByteBuffer segment;
+    
+    private boolean dirty;
+    
+    private boolean unsnapshotted;
+    
+    private long lastForce = System.nanoTime();
+    
+    private long lastSnapshot = System.nanoTime();
+    
+    private volatile IOException failure;
+    
+    /**
+     * Opens journal, recovering values of counters from given directory.
+     * 
+     * @param directory directory of the journal, created if doesn't exist.
+     * @param fsyncPolicy policy of forcing the journal to disk.
+     * @param fsyncInterval interval of forcing for {@link FsyncPolicy#INTERVAL}.
+     * @param segmentSize size of log segment in bytes.
+     * @param snapshotInterval maximal interval between snapshots, if anything was written.
+     * @param queueSize maximal count of increments waiting for the writer, 
+     *        further increments block.
+     * @param unit unit of intervals.
+     * @throws IOException if recovery fails.
+     * @throws IllegalArgumentException if segment size is less than {@value #MIN_SEGMENT_SIZE}.
+     */
+    public CounterJournal(final Path directory, final FsyncPolicy fsyncPolicy, final long fsyncInterval, 
+            final int segmentSize, final long snapshotInterval, final int queueSize, final TimeUnit unit) 
+                    throws IOException {
+        this(directory, fsyncPolicy, fsyncInterval, segmentSize, snapshotInterval, queueSize, unit, false);
+    }
+    
+    /**
+     * Opens journal, recovering values of counters from given directory.
+     * 
+     * @param directory directory of the journal, created if doesn't exist.
+     * @param fsyncPolicy policy of forcing the journal to disk.
+     * @param fsyncInterval interval of forcing for {@link FsyncPolicy#INTERVAL}.
+     * @param segmentSize size of log segment in bytes.
+     * @param snapshotInterval maximal interval between snapshots, if anything was written.
+     * @param queueSize maximal count of increments waiting for the writer, 
+     *        further increments block.
+     * @param unit unit of intervals.
+     * @param offHeap whether values of counters are kept off the heap, names are then 
+     *        limited to {@value CounterNames#MAX_BYTES} bytes in UTF-8.
+     * @throws IOException if recovery fails, e.g. if segments not covered by a valid 
+     *         snapshot are missing.
+     * @throws IllegalArgumentException if segment size is less than {@value #MIN_SEGMENT_SIZE}.
+     */
+    public CounterJournal(final Path directory, final FsyncPolicy fsyncPolicy, final long fsyncInterval, 
+            final int segmentSize, final long snapshotInterval, final int queueSize, final TimeUnit unit,
+            final boolean offHeap) throws IOException {
+        if (segmentSize < MIN_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("Segment size is less than " + MIN_SEGMENT_SIZE);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = unit.toNanos(fsyncInterval);
+        this.segmentSize = segmentSize;
+        this.snapshotIntervalNanos = unit.toNanos(snapshotInterval);
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        
+        final long start = System.nanoTime();
+        this.values = offHeap ? new OffHeapValues() : new HeapValues();
+        recover(this.values);
+        openSegment(this.segmentSequence);
+        LOG.info("Recovered {} counters from {} in {} ms", this.values.size(), directory, 
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        
+        this.writer = new Thread(this::write, "counter-journal");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+    
+    /**
+     * Passes recovered values of counters to given action. The journal keeps no copy of 
+     * them, so it's possible only before the first append.
+     * 
+     * @param action action taking name and value of counter.
+     * @throws IllegalStateException if anything was appended already.
+     */
+    public void forEachRecovered(final ObjLongConsumer<String> action) {
+        if (this.appended) {
+            throw new IllegalStateException("Recovered values were appended to");
+        }
+        this.values.forEach(action);
+    }
+    
+    /**
+     * Appends increment of counter. With {@link FsyncPolicy#ALWAYS} waits until
+     * the increment is on disk, otherwise only until it's queued.
+     * 
+     * @param name name of counter.
+     * @param delta increment of counter.
+     * @throws UncheckedIOException if the journal failed to write.
+     * @throws IllegalStateException if the journal is closed.
+     */
+    public void append(final String name, final long delta) {
+        final IOException failure = this.failure;
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+        if (!this.appended) {
+            this.appended = true;
+        }
+        final CompletableFuture<Void> durable = this.fsyncPolicy == FsyncPolicy.ALWAYS 
+                ? new CompletableFuture<>() : null;
+        final Pending pending = new Pending(name, delta, durable);
+        try {
+            do {
+                if (this.closed) {
+                    throw new IllegalStateException("Journal is closed");
+                }
+            } while (!this.queue.offer(pending, OFFER_CHECK_MILLIS, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while appending", e);
+        }
+        // the writer may have completed what was left in the queue before the increment came
+        if (this.closed && this.queue.remove(pending)) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        if (durable != null) {
+            try {
+                durable.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof IOException 
+                        ? new UncheckedIOException((IOException) e.getCause()) : e;
+            }
+        }
+    }
+    
+    /**
+     * Writes everything queued, forces it to disk and stops the writer.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        try {
+            while (this.writer.isAlive() 
+                    && !this.queue.offer(CLOSE, OFFER_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                // the writer is busy with a full queue
+            }
+            this.writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /*
+     * Loop of the writer thread.
+     */
+    private void write() {
+        final List<Pending> group = new ArrayList<>();
+        final Map<String, Long> deltas = new LinkedHashMap<>();
+        final long pollNanos = this.fsyncPolicy == FsyncPolicy.INTERVAL 
+                ? Math.min(this.fsyncIntervalNanos, this.snapshotIntervalNanos) : this.snapshotIntervalNanos;
+        boolean closed = false;
+        while (!closed) {
+            try {
+                final Pending first = this.queue.poll(pollNanos, TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    group.add(first);
+                    this.queue.drainTo(group);
+                }
+                for (Pending pending : group) {
+                    if (pending == CLOSE) {
+                        closed = true;
+                    } else {
+                        deltas.merge(pending.name, pending.delta, Long::sum);
+                    }
+                }
+                
+                for (Map.Entry<String, Long> delta : deltas.entrySet()) {
+                    writeRecord(delta.getKey(), delta.getValue());
+                }
+                final long now = System.nanoTime();
+                if (this.dirty && (closed || this.fsyncPolicy == FsyncPolicy.ALWAYS 
+                        || (this.fsyncPolicy == FsyncPolicy.INTERVAL 
+                            && now - this.lastForce >= this.fsyncIntervalNanos))) {
+                    force(now);
+                }
+                complete(group, null);
+                
+                if (this.unsnapshotted && (closed || now - this.lastSnapshot >= this.snapshotIntervalNanos)) {
+                    snapshot();
+                }
+            } catch (IOException e) {
+                LOG.error("Journal failed to write, increments are no longer durable", e);
+                this.failure = e;
+                complete(group, e);
+            } catch (RuntimeException | Error e) {
+                LOG.error("Journal writer failed, increments are no longer durable", e);
+                this.failure = new IOException("Journal writer failed", e);
+                complete(group, this.failure);
+                closed = true;
+            } catch (InterruptedException e) {
+                closed = true;
+            } finally {
+                group.clear();
+                deltas.clear();
+            }
+        }
+        try {
+            this.segmentChannel.close();
+        } catch (IOException e) {
+            LOG.warn("Journal segment failed to close: {}", e.toString());
+        }
+        // increments queued after closing would never be written
+        this.closed = true;
+        this.queue.drainTo(group);
+        complete(group, new IOException("Journal is closed"));
+    }
+    
+    private static void writeFully(final FileChannel channel, final ByteBuffer buffer) {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+    
+    private static void complete(final List<Pending> group, final IOException failure) {
+        for (Pending pending : group) {
+            if (pending.durable != null) {
+                if (failure == null) {
+                    pending.durable.complete(null);
+                } else {
+                    pending.durable.completeExceptionally(failure);
+                }
+            }
+        }
+    }
+    
+    private void writeRecord(final String name, final long delta) throws IOException {
+        final byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > MAX_NAME_BYTES) {
+            throw new IOException("Counter name is longer than " + MAX_NAME_BYTES + " bytes");
+        }
+        if (this.segment.remaining() < RECORD_OVERHEAD + nameBytes.length + Integer.BYTES) {
+            // at least zero length must fit after record, that's why the extra int
+            snapshot();
+        }
+        
+        final int payloadLength = Short.BYTES + nameBytes.length + Long.BYTES;
+        final int payloadStart = this.segment.position() + Integer.BYTES;
+        this.segment.putInt(payloadLength);
+        this.segment.putShort((short) nameBytes.length);
+        this.segment.put(nameBytes);
+        this.segment.putLong(delta);
+        this.crc.reset();
+        final ByteBuffer payload = this.segment.duplicate();
+        payload.position(payloadStart).limit(payloadStart + payloadLength);
+        this.crc.update(payload);
+        this.segment.putInt((int) this.crc.getValue());
+        
+        this.values.add(name, delta);
+        this.dirty = true;
+        this.unsnapshotted = true;
+    }
+    
+    private void force(final long now) {
+        this.segment.force();
+        this.dirty = false;
+        this.lastForce = now;
+    }
+    
+    /*
+     * Starts new segment, then writes snapshot of values covering all previous segments.
+     * Once it's verified, files before the previous snapshot are deleted; otherwise it's 
+     * deleted itself and written again at the next interval.
+     */
+    private void snapshot() throws IOException {
+        force(System.nanoTime());
+        this.segmentChannel.close();
+        final long sequence = this.segmentSequence + 1;
+        openSegment(sequence);
+        
+        final Path snapshot = writeSnapshot(sequence, this.values);
+        this.lastSnapshot = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            if (!isValidSnapshot(channel, ByteBuffer.allocate(SNAPSHOT_BUFFER_SIZE))) {
+                LOG.error("Snapshot {} failed verification, previous snapshot is kept", snapshot);
+                Files.delete(snapshot);
+                return;
+            }
+        }
+        deleteBefore(this.snapshotSequence);
+        this.snapshotSequence = sequence;
+        this.unsnapshotted = false;
+    }
+    
+    private void openSegment(final long sequence) throws IOException {
+        this.segmentSequence = sequence;
+        this.segmentChannel = FileChannel.open(file(SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX), 
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.segment = this.segmentChannel.map(MapMode.READ_WRITE, 0, this.segmentSize);
+    }
+    
+    /*
+     * Snapshot is streamed through a buffer, so that no copy of the values is built. 
+     * Count of counters is written last, at its place in the header.
+     */
+    private Path writeSnapshot(final long sequence, final Values values) throws IOException {
+        final Path temporary = file(SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, 
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_BUFFER_SIZE);
+            final int[] count = new int[1];
+            buffer.putInt(SNAPSHOT_MAGIC).putInt(0);
+            try {
+                values.forEach((name, value) -> {
+                    final byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+                    if (buffer.remaining() < Short.BYTES + nameBytes.length + Long.BYTES) {
+                        writeFully(channel, buffer);
+                    }
+                    buffer.putShort((short) nameBytes.length).put(nameBytes).putLong(value);
+                    count[0]++;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writeFully(channel, buffer);
+            
+            // header is part of CRC, so it's computed again over the file with the count
+            final ByteBuffer header = ByteBuffer.allocate(2 * Integer.BYTES).putInt(SNAPSHOT_MAGIC).putInt(count[0]);
+            header.flip();
+            channel.write(header, 0);
+            this.crc.reset();
+            long position = 0L;
+            while (channel.read(buffer, position) > 0) {
+                buffer.flip();
+                position += buffer.remaining();
+                this.crc.update(buffer);
+                buffer.clear();
+            }
+            final ByteBuffer checksum = ByteBuffer.allocate(Integer.BYTES).putInt((int) this.crc.getValue());
+            checksum.flip();
+            channel.write(checksum, channel.size());
+            channel.force(true);
+        }
+        final Path snapshot = Files.move(temporary, file(SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX), 
+                StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory();
+        return snapshot;
+    }
+    
+    /*
+     * Makes the move of snapshot durable. Directories can't be opened on some platforms, 
+     * e.g. Windows, which don't need it.
+     */
+    private void forceDirectory() {
+        try (FileChannel channel = FileChannel.open(this.directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            LOG.debug("Journal directory can't be forced: {}", e.toString());
+        }
+    }
+    
+    private void deleteBefore(final long sequence) throws IOException {
+        for (Map.Entry<Long, Path> segment : list(SEGMENT_PREFIX, SEGMENT_SUFFIX).headMap(sequence).entrySet()) {
+            Files.delete(segment.getValue());
+        }
+        for (Map.Entry<Long, Path> snapshot : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX).headMap(sequence).entrySet()) {
+            Files.delete(snapshot.getValue());
+        }
+    }
+    
+    private Path file(final String prefix, final long sequence, final String suffix) {
+        return this.directory.resolve(String.format("%s%016x%s", prefix, sequence, suffix));
+    }
+    
+    private TreeMap<Long, Path> list(final String prefix, final String suffix) throws IOException {
+        final TreeMap<Long, Path> files = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory, prefix + "*" + suffix)) {
+            for (Path file : stream) {
+                final String name = file.getFileName().toString();
+                try {
+                    files.put(Long.parseLong(name.substring(prefix.length(), 
+                            name.length() - suffix.length()), 16), file);
+                } catch (NumberFormatException e) {
+                    LOG.warn("Unexpected file {} in journal", file);
+                }
+            }
+        }
+        return files;
+    }
+    
+    /*
+     * Loads the latest valid snapshot and replays segments since it. New segment follows 
+     * the last one, so nothing is ever written after a torn record.
+     */
+    private void recover(final Values values) throws IOException {
+        long replayFrom = 0L;
+        for (Map.Entry<Long, Path> snapshot : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX).descendingMap().entrySet()) {
+            if (readSnapshot(snapshot.getValue(), values)) {
+                replayFrom = snapshot.getKey();
+                break;
+            }
+            LOG.warn("Snapshot {} is corrupted, skipped", snapshot.getValue());
+        }
+        
+        final TreeMap<Long, Path> segments = list(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        long expected = replayFrom;
+        for (Map.Entry<Long, Path> segment : segments.tailMap(replayFrom).entrySet()) {
+            if (segment.getKey() != expected) {
+                throw new IOException("Journal segment " + expected + " in " + this.directory 
+                        + " is missing and no valid snapshot covers it");
+            }
+            replay(segment.getValue(), values);
+            expected++;
+        }
+        this.snapshotSequence = replayFrom;
+        this.segmentSequence = segments.isEmpty() ? replayFrom : Math.max(replayFrom, segments.lastKey() + 1);
+    }
+    
+    /*
+     * Reads valid snapshot into empty values, leaving them empty otherwise. Snapshot is 
+     * streamed through a buffer, so that it may be larger than a mapped buffer.
+     */
+    private boolean readSnapshot(final Path file, final Values values) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_BUFFER_SIZE);
+            if (!isValidSnapshot(channel, buffer)) {
+                return false;
+            }
+            final long end = channel.size() - Integer.BYTES;
+            buffer.clear().limit(0);
+            long position = fill(channel, buffer, 0L, end, 2 * Integer.BYTES);
+            buffer.getInt();
+            final int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                position = fill(channel, buffer, position, end, Short.BYTES);
+                final byte[] name = new byte[buffer.getShort()];
+                position = fill(channel, buffer, position, end, name.length + Long.BYTES);
+                buffer.get(name);
+                values.add(new String(name, StandardCharsets.UTF_8), buffer.getLong());
+            }
+            return true;
+        }
+    }
+    
+    /*
+     * Checks magic and CRC of snapshot, reading it through given buffer.
+     */
+    private boolean isValidSnapshot(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        final long end = channel.size() - Integer.BYTES;
+        if (end < 2 * Integer.BYTES) {
+            return false;
+        }
+        this.crc.reset();
+        long position = 0L;
+        while (position < end) {
+            final long start = position;
+            buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+            position = readFully(channel, buffer, position);
+            buffer.flip();
+            if (start == 0L && buffer.getInt(0) != SNAPSHOT_MAGIC) {
+                return false;
+            }
+            this.crc.update(buffer);
+        }
+        buffer.clear().limit(Integer.BYTES);
+        readFully(channel, buffer, end);
+        return (int) this.crc.getValue() == buffer.getInt(0);
+    }
+    
+    /*
+     * Makes sure that at least needed bytes are remaining in the buffer, reading more of 
+     * the channel from given position up to the end. Returns position after what was read.
+     */
+    private static long fill(final FileChannel channel, final ByteBuffer buffer, final long position, 
+            final long end, final int needed) throws IOException {
+        if (buffer.remaining() >= needed) {
+            return position;
+        }
+        buffer.compact();
+        buffer.limit((int) Math.min(buffer.capacity(), buffer.position() + end - position));
+        final long read = readFully(channel, buffer, position);
+        buffer.flip();
+        if (buffer.remaining() < needed) {
+            throw new EOFException("Snapshot is truncated");
+        }
+        return read;
+    }
+    
+    private static long readFully(final FileChannel channel, final ByteBuffer buffer, final long position) 
+            throws IOException {
+        long next = position;
+        while (buffer.hasRemaining()) {
+            final int read = channel.read(buffer, next);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of " + channel);
+            }
+            next += read;
+        }
+        return next;
+    }
+    
+    private void replay(final Path file, final Values values) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final MappedByteBuffer segment = channel.map(MapMode.READ_ONLY, 0, channel.size());
+            while (segment.remaining() >= Integer.BYTES) {
+                final int payloadLength = segment.getInt();
+                if (payloadLength < Short.BYTES + Long.BYTES 
+                        || segment.remaining() < payloadLength + Integer.BYTES) {
+                    return;
+                }
+                final ByteBuffer payload = segment.slice();
+                payload.limit(payloadLength);
+                this.crc.reset();
+                this.crc.update(payload.duplicate());
+                if ((int) this.crc.getValue() != segment.getInt(segment.position() + payloadLength)) {
+                    LOG.warn("Torn record in {} at {}, rest of segment skipped", file, segment.position());
+                    return;
+                }
+                final byte[] name = new byte[payload.getShort()];
+                payload.get(name);
+                values.add(new String(name, StandardCharsets.UTF_8), payload.getLong());
+                segment.position(segment.position() + payloadLength + Integer.BYTES);
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package increment.counters;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a new counter is requested, while there are already maximal count of counters.
+ * 
+ * @author Grehov
+ *
+ */
+@ResponseStatus(HttpStatus.INSUFFICIENT_STORAGE)
+public class CounterLimitException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * @param maxSize maximal count of counters.
+     */
+    public CounterLimitException(final int maxSize) {
+        super("No more than " + maxSize + " counters are allowed");
+    }
+}
@@ -0,0 +1,127 @@
+package increment.counters;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent open addressing map from name to {@link LongAdder}. Lookups are lock free: 
+ * they probe linearly a table, which is published as volatile and never modified
+ * other than by filling of empty slots. Inserts and resizes, which are rare, take 
+ * the lock of the map. Counters are never removed, so the count of names is bounded.
+ * 
+ * @author Grehov
+ *
+ */
+public class CounterMap {
+    
+    private static final int MIN_CAPACITY = 16;
+    
+    private static final class Entry {
+        final int hash;
+        final String name;
+        final LongAdder counter = new LongAdder();
+        
+        Entry(final int hash, final String name) {
+            this.hash = hash;
+            this.name = name;
+        }
+    }
+    
+    private final int maxSize;
+    
+    private volatile AtomicReferenceArray<Entry> table = new AtomicReferenceArray<>(MIN_CAPACITY);
+    
+    // guarded by this
+    private int size;
+    
+    /**
+     * @param maxSize maximal count of counters.
+     */
+    public CounterMap(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+    
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+    
+    private static Entry find(final AtomicReferenceArray<Entry> table, final int hash, final String name) {
+        final int mask = table.length() - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            final Entry entry = table.get(i);
+            if (entry == null || (entry.hash == hash && entry.name.equals(name))) {
+                return entry;
+            }
+        }
+    }
+    
+    /**
+     * @param name name of counter.
+     * @return counter of given name or {@code null} if there is none.
+     */
+    public LongAdder get(final String name) {
+        final Entry entry = find(this.table, spread(name.hashCode()), name);
+        return entry != null ? entry.counter : null;
+    }
+    
+    /**
+     * Returns counter of given name, creating it with zero value on first call.
+     * 
+     * @param name name of counter.
+     * @return counter of given name.
+     * @throws CounterLimitException if the counter doesn't exist and there are already
+     *         maximal count of counters.
+     */
+    public LongAdder getOrCreate(final String name) throws CounterLimitException {
+        final int hash = spread(name.hashCode());
+        final Entry entry = find(this.table, hash, name);
+        return entry != null ? entry.counter : insert(hash, name);
+    }
+    
+    private synchronized LongAdder insert(final int hash, final String name) {
+        AtomicReferenceArray<Entry> table = this.table;
+        final Entry existing = find(table, hash, name);
+        if (existing != null) {
+            return existing.counter;
+        }
+        if (this.size >= this.maxSize) {
+            throw new CounterLimitException(this.maxSize);
+        }
+        // at most half full, so that probes stay short
+        if (2 * (this.size + 1) > table.length()) {
+            table = resize(table);
+        }
+        final Entry entry = new Entry(hash, name);
+        put(table, entry);
+        this.size++;
+        return entry.counter;
+    }
+    
+    private AtomicReferenceArray<Entry> resize(final AtomicReferenceArray<Entry> table) {
+        final AtomicReferenceArray<Entry> resized = new AtomicReferenceArray<>(2 * table.length());
+        for (int i = 0; i < table.length(); i++) {
+            final Entry entry = table.get(i);
+            if (entry != null) {
+                put(resized, entry);
+            }
+        }
+        this.table = resized;
+        return resized;
+    }
+    
+    private static void put(final AtomicReferenceArray<Entry> table, final Entry entry) {
+        final int mask = table.length() - 1;
+        int i = entry.hash & mask;
+        while (table.get(i) != null) {
+            i = (i + 1) & mask;
+        }
+        table.set(i, entry);
+    }
+    
+    /**
+     * @return count of counters.
+     */
+    public synchronized int size() {
+        return this.size;
+    }
+}
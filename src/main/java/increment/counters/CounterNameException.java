@@ -0,0 +1,23 @@
+package increment.counters;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a counter is requested by name, which no store accepts, see {@link CounterNames}.
+ * 
+ * @author Grehov
+ *
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class CounterNameException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * @param maxBytes maximal length of name in UTF-8 bytes.
+     */
+    public CounterNameException(final int maxBytes) {
+        super("Counter name is longer than " + maxBytes + " bytes in UTF-8");
+    }
+}
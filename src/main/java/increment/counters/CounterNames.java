@@ -0,0 +1,60 @@
+package increment.counters;
+
+/**
+ * Limit of names of counters, the same for every store, so that a name accepted by one
+ * store isn't rejected by another: {@link OffHeapCounterMap} keeps length of name in one 
+ * byte, so names are limited to {@value #MAX_BYTES} bytes in UTF-8.
+ * 
+ * @author Grehov
+ *
+ */
+public final class CounterNames {
+    
+    /**
+     * Maximal length of name in UTF-8 bytes.
+     */
+    public static final int MAX_BYTES = 255;
+    
+    private CounterNames() {
+    }
+    
+    /**
+     * @param name name of counter.
+     * @return whether name is no longer than {@value #MAX_BYTES} bytes in UTF-8.
+     */
+    public static boolean isValid(final String name) {
+        // a char takes at most 3 bytes, so short names aren't counted
+        if (name.length() <= MAX_BYTES / 3) {
+            return true;
+        }
+        int bytes = 0;
+        for (int i = 0; i < name.length() && bytes <= MAX_BYTES; i++) {
+            final char c = name.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < name.length() 
+                    && Character.isLowSurrogate(name.charAt(i + 1))) {
+                // supplementary character, 4 bytes for the pair
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes <= MAX_BYTES;
+    }
+    
+    /**
+     * @param name name of counter.
+     * @return the name.
+     * @throws CounterNameException if name is longer than {@value #MAX_BYTES} bytes in UTF-8.
+     */
+    public static String check(final String name) throws CounterNameException {
+        if (!isValid(name)) {
+            throw new CounterNameException(MAX_BYTES);
+        }
+        return name;
+    }
+}
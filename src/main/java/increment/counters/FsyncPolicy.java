@@ -0,0 +1,29 @@
+package increment.counters;
+
+/**
+ * Policy of forcing {@link CounterJournal} to disk.
+ * 
+ * @author Grehov
+ *
+ */
+public enum FsyncPolicy {
+    
+    /**
+     * Every group of increments is forced before the increments return, so no 
+     * acknowledged increment is lost. The cost of a force is shared by all increments 
+     * of the group, i.e. by all increments, which arrived while previous force took place.
+     */
+    ALWAYS,
+    
+    /**
+     * Increments return once queued and the journal is forced periodically, so at most 
+     * increments of the last interval are lost on crash of the machine.
+     */
+    INTERVAL,
+    
+    /**
+     * Increments return once queued and the operating system writes the journal whenever
+     * it decides to. Increments survive crash of the process, but not of the machine.
+     */
+    NEVER
+}
@@ -0,0 +1,264 @@
+package increment.counters;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Map from name to {@code long} counter, which keeps both names and counters off the heap, 
+ * in direct {@link ByteBuffer}s, so that tens of millions of counters add neither objects 
+ * for the garbage collector to trace nor to the heap size. 
+ * <p>
+ * The map is split into segments by hash of name, every segment guarded by its own lock. 
+ * A segment has an open addressing table of 16 byte slots: hash of name, offset of name 
+ * in the segment's arena of names, and value of counter. The arena holds length and UTF-8 
+ * bytes of every name. Both are doubled when full. Counters are never removed.
+ * 
+ * @author Grehov
+ *
+ */
+public class OffHeapCounterMap {
+    
+    private static final int SEGMENTS = 64;
+    
+    private static final int SLOT_SIZE = 16;
+    
+    private static final int HASH_OFFSET = 0;
+    
+    private static final int NAME_OFFSET = 4;
+    
+    private static final int VALUE_OFFSET = 8;
+    
+    private static final int MIN_SLOTS = 64;
+    
+    private final class Segment {
+        
+        private ByteBuffer table = ByteBuffer.allocateDirect(MIN_SLOTS * SLOT_SIZE);
+        
+        private int mask = MIN_SLOTS - 1;
+        
+        private ByteBuffer names = ByteBuffer.allocateDirect(MIN_SLOTS * 16);
+        
+        private int size;
+        
+        /*
+         * Returns position of slot of name, or of empty slot, where it belongs.
+         */
+        private int find(final int hash, final byte[] name) {
+            for (int i = hash & this.mask; ; i = (i + 1) & this.mask) {
+                final int slot = i * SLOT_SIZE;
+                final int slotHash = this.table.getInt(slot + HASH_OFFSET);
+                if (slotHash == 0 || (slotHash == hash 
+                        && nameEquals(this.table.getInt(slot + NAME_OFFSET), name))) {
+                    return slot;
+                }
+            }
+        }
+        
+        private boolean nameEquals(final int offset, final byte[] name) {
+            if ((this.names.get(offset) & 0xFF) != name.length) {
+                return false;
+            }
+            for (int i = 0; i < name.length; i++) {
+                if (this.names.get(offset + 1 + i) != name[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        synchronized long add(final int hash, final byte[] name, final long delta) {
+            int slot = find(hash, name);
+            if (this.table.getInt(slot + HASH_OFFSET) == 0) {
+                reserve();
+                // at most three quarters full, denser than on heap, since slots are small
+                if (4 * (this.size + 1) > 3 * (this.mask + 1)) {
+                    grow();
+                    slot = find(hash, name);
+                }
+                this.table.putInt(slot + HASH_OFFSET, hash);
+                this.table.putInt(slot + NAME_OFFSET, append(name));
+                this.size++;
+            }
+            final long value = this.table.getLong(slot + VALUE_OFFSET) + delta;
+            this.table.putLong(slot + VALUE_OFFSET, value);
+            return value;
+        }
+        
+        synchronized OptionalLong get(final int hash, final byte[] name) {
+            final int slot = find(hash, name);
+            return this.table.getInt(slot + HASH_OFFSET) == 0 ? OptionalLong.empty() 
+                    : OptionalLong.of(this.table.getLong(slot + VALUE_OFFSET));
+        }
+        
+        synchronized void forEach(final ObjLongConsumer<String> action) {
+            final byte[] name = new byte[CounterNames.MAX_BYTES];
+            for (int slot = 0; slot < this.table.capacity(); slot += SLOT_SIZE) {
+                if (this.table.getInt(slot + HASH_OFFSET) != 0) {
+                    final int offset = this.table.getInt(slot + NAME_OFFSET);
+                    final int length = this.names.get(offset) & 0xFF;
+                    for (int i = 0; i < length; i++) {
+                        name[i] = this.names.get(offset + 1 + i);
+                    }
+                    action.accept(new String(name, 0, length, StandardCharsets.UTF_8), 
+                            this.table.getLong(slot + VALUE_OFFSET));
+                }
+            }
+        }
+        
+        synchronized long bytes() {
+            return (long) this.table.capacity() + this.names.capacity();
+        }
+        
+        private int append(final byte[] name) {
+            if (this.names.remaining() < 1 + name.length) {
+                final ByteBuffer names = ByteBuffer.allocateDirect(
+                        Math.max(2 * this.names.capacity(), this.names.position() + 1 + name.length));
+                this.names.flip();
+                names.put(this.names);
+                this.names = names;
+            }
+            final int offset = this.names.position();
+            this.names.put((byte) name.length);
+            this.names.put(name);
+            return offset;
+        }
+        
+        private void grow() {
+            final ByteBuffer old = this.table;
+            this.table = ByteBuffer.allocateDirect(2 * old.capacity());
+            this.mask = this.table.capacity() / SLOT_SIZE - 1;
+            for (int slot = 0; slot < old.capacity(); slot += SLOT_SIZE) {
+                final int hash = old.getInt(slot + HASH_OFFSET);
+                if (hash != 0) {
+                    int i = hash & this.mask;
+                    while (this.table.getInt(i * SLOT_SIZE + HASH_OFFSET) != 0) {
+                        i = (i + 1) & this.mask;
+                    }
+                    this.table.putInt(i * SLOT_SIZE + HASH_OFFSET, hash);
+                    this.table.putInt(i * SLOT_SIZE + NAME_OFFSET, old.getInt(slot + NAME_OFFSET));
+                    this.table.putLong(i * SLOT_SIZE + VALUE_OFFSET, old.getLong(slot + VALUE_OFFSET));
+                }
+            }
+        }
+    }
+    
+    private final Segment[] segments = new Segment[SEGMENTS];
+    
+    private final int maxSize;
+    
+    private final AtomicInteger size = new AtomicInteger();
+    
+    /**
+     * @param maxSize maximal count of counters.
+     */
+    public OffHeapCounterMap(final int maxSize) {
+        this.maxSize = maxSize;
+        for (int i = 0; i < SEGMENTS; i++) {
+            this.segments[i] = new Segment();
+        }
+    }
+    
+    /*
+     * Murmur3 finalizer over the FNV-1a hash of name, never 0, since 0 marks empty slot.
+     */
+    private static int hash(final byte[] name) {
+        int hash = 0x811C9DC5;
+        for (byte b : name) {
+            hash = (hash ^ b) * 0x01000193;
+        }
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash != 0 ? hash : 1;
+    }
+    
+    private static byte[] bytes(final String name) {
+        final byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > CounterNames.MAX_BYTES) {
+            throw new CounterNameException(CounterNames.MAX_BYTES);
+        }
+        return bytes;
+    }
+    
+    private Segment segment(final int hash) {
+        // high bits, the low ones index slots
+        return this.segments[hash >>> (Integer.SIZE - Integer.numberOfTrailingZeros(SEGMENTS))];
+    }
+    
+    /**
+     * Adds delta to counter of given name, creating it with zero value on first call.
+     * 
+     * @param name name of counter.
+     * @param delta delta to be added.
+     * @return value of counter after adding.
+     * @throws CounterLimitException if the counter doesn't exist and there are already
+     *         maximal count of counters.
+     * @throws CounterNameException if name is longer than {@value CounterNames#MAX_BYTES} 
+     *         bytes in UTF-8.
+     */
+    public long add(final String name, final long delta) throws CounterLimitException, CounterNameException {
+        final byte[] bytes = bytes(name);
+        final int hash = hash(bytes);
+        return segment(hash).add(hash, bytes, delta);
+    }
+    
+    /**
+     * @param name name of counter.
+     * @return value of counter, empty if there is none.
+     * @throws CounterNameException if name is longer than {@value CounterNames#MAX_BYTES} 
+     *         bytes in UTF-8.
+     */
+    public OptionalLong get(final String name) throws CounterNameException {
+        final byte[] bytes = bytes(name);
+        final int hash = hash(bytes);
+        return segment(hash).get(hash, bytes);
+    }
+    
+    /**
+     * Passes every counter to given action, segment by segment, so that it's consistent 
+     * within segment only.
+     * 
+     * @param action action taking name and value of counter.
+     */
+    public void forEach(final ObjLongConsumer<String> action) {
+        for (Segment segment : this.segments) {
+            segment.forEach(action);
+        }
+    }
+    
+    /**
+     * @return count of counters.
+     */
+    public int size() {
+        return this.size.get();
+    }
+    
+    /**
+     * @return bytes of direct memory taken by the map.
+     */
+    public long offHeapBytes() {
+        long bytes = 0L;
+        for (Segment segment : this.segments) {
+            bytes += segment.bytes();
+        }
+        return bytes;
+    }
+    
+    /*
+     * Called by segment before inserting new counter.
+     */
+    private void reserve() throws CounterLimitException {
+        int size;
+        do {
+            size = this.size.get();
+            if (size >= this.maxSize) {
+                throw new CounterLimitException(this.maxSize);
+            }
+        } while (!this.size.compareAndSet(size, size + 1));
+    }
+}
@@ -0,0 +1,8 @@
+/**
+ * Named counters shared by clients of the application.
+ * 
+ * @author Grehov
+ *
+ */
+
+package increment.counters;
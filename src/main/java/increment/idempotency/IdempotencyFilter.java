@@ -0,0 +1,400 @@
+package increment.idempotency;
+
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import increment.cache.ClockCache;
+import increment.metrics.Metrics;
+import increment.servlet.BufferedBodyRequestWrapper;
+
+/**
+ * Filter, which is put after the security filter chain and deduplicates requests 
+ * to '/api/**', which change state, i.e. POST or PATCH, and carry {@link #IDEMPOTENCY_KEY} 
+ * header. Keys are scoped by the authenticated principal. The first request with a key 
+ * is processed and its response, unless it's a server error, is cached for a while; 
+ * repetitions of the request get the cached response with {@link #REPLAYED} header, 
+ * without the handler being called. Repetitions arriving while the first request is still 
+ * processed get CONFLICT, reuses of the key for a different request, i.e. other method, 
+ * URI or body, get UNPROCESSABLE_ENTITY. Requests with bodies above the limit aren't 
+ * deduplicated. Responses are recorded as they are written, so requests completed 
+ * asynchronously, e.g. by non-blocking I/O or batching, are cached once they complete.
+ * <p>
+ * The cache should pin entries in flight, see {@link Entry#isCompleted()}, since 
+ * an entry replaced before its request completes lets a repetition be processed again;
+ * such entries are counted as 'idempotency.evicted_in_flight', replays and conflicts 
+ * as 'idempotency.replays' and 'idempotency.conflicts'.
+ * 
+ * @author Grehov
+ *
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+    
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    
+    public static final String REPLAYED = "Idempotent-Replayed";
+    
+    private static final String API_PREFIX = "/api/";
+    
+    private static final int MAX_KEY_LENGTH = 255;
+    
+    private static final int UNPROCESSABLE_ENTITY = 422;
+    
+    private final ClockCache<String, Entry> entries;
+    
+    private final int maxBodyBytes;
+    
+    private final LongAdder replays;
+    
+    private final LongAdder conflicts;
+    
+    private final LongAdder evictedInFlight;
+    
+    /**
+     * @param entries cache of requests by principal and key, which should pin entries 
+     *        in flight.
+     * @param maxBodyBytes maximal length of body of deduplicated request.
+     * @param metrics registry of metrics.
+     */
+    public IdempotencyFilter(final ClockCache<String, Entry> entries, final int maxBodyBytes, 
+            final Metrics metrics) {
+        this.entries = entries;
+        this.maxBodyBytes = maxBodyBytes;
+        this.replays = metrics.counter("idempotency.replays");
+        this.conflicts = metrics.counter("idempotency.conflicts");
+        this.evictedInFlight = metrics.counter("idempotency.evicted_in_flight");
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        final String method = request.getMethod();
+        return request.getHeader(IDEMPOTENCY_KEY) == null 
+                || !("POST".equals(method) || "PATCH".equals(method))
+                || !request.getRequestURI().startsWith(request.getContextPath() + API_PREFIX);
+    }
+    
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, 
+            final HttpServletResponse response, final FilterChain chain) 
+                    throws ServletException, IOException {
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        final String key = request.getHeader(IDEMPOTENCY_KEY);
+        if (authentication == null || !authentication.isAuthenticated() 
+                || key.isEmpty() || key.length() > MAX_KEY_LENGTH 
+                || request.getContentLengthLong() > this.maxBodyBytes) {
+            chain.doFilter(request, response);
+            return;
+        }
+        final byte[] body = readBody(request.getInputStream());
+        if (body == null) {
+            // body of unknown length is above the limit, and it's consumed already
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            return;
+        }
+        final String scopedKey = authentication.getName() + '\n' + key;
+        final Entry entry = new Entry(request.getMethod(), request.getRequestURI(), 
+                request.getQueryString(), body);
+        final Entry present = this.entries.putIfAbsent(scopedKey, entry);
+        if (present != null) {
+            replay(present, entry, response);
+            return;
+        }
+        
+        final RecordingResponseWrapper responseWrapper = new RecordingResponseWrapper(response);
+        boolean handled = false;
+        try {
+            chain.doFilter(new BufferedBodyRequestWrapper(request, body, body.length), responseWrapper);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new Completion(scopedKey, entry, responseWrapper));
+            } else {
+                complete(scopedKey, entry, responseWrapper);
+            }
+            handled = true;
+        } finally {
+            if (!handled) {
+                this.entries.remove(scopedKey);
+            }
+        }
+    }
+    
+    /*
+     * Caches response of completed request, unless it's a server error.
+     */
+    private void complete(final String scopedKey, final Entry entry, final RecordingResponseWrapper response) {
+        final int status = response.getStatus();
+        if (status >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR) {
+            this.entries.remove(scopedKey);
+            return;
+        }
+        entry.complete(status, response.getContentType(), response.getContent());
+        if (this.entries.get(scopedKey) != entry) {
+            this.evictedInFlight.increment();
+        }
+    }
+    
+    private void replay(final Entry present, final Entry request, final HttpServletResponse response) 
+            throws IOException {
+        if (!present.matches(request)) {
+            response.sendError(UNPROCESSABLE_ENTITY, "Idempotency key is used for other request");
+            return;
+        }
+        final Entry.Response cached = present.response;
+        if (cached == null) {
+            this.conflicts.increment();
+            response.sendError(HttpServletResponse.SC_CONFLICT, "Request is being processed");
+            return;
+        }
+        this.replays.increment();
+        response.setStatus(cached.status);
+        response.setHeader(REPLAYED, "true");
+        if (cached.contentType != null) {
+            response.setHeader(HttpHeaders.CONTENT_TYPE, cached.contentType);
+        }
+        response.setContentLength(cached.body.length);
+        response.getOutputStream().write(cached.body);
+    }
+    
+    /*
+     * Returns the body, or null if it's longer than the limit.
+     */
+    private byte[] readBody(final InputStream in) throws IOException {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+        final byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            body.write(buffer, 0, read);
+            if (body.size() > this.maxBodyBytes) {
+                return null;
+            }
+        }
+        return body.toByteArray();
+    }
+    
+    /**
+     * Request deduplicated by key, and its response, once it's processed.
+     */
+    public static final class Entry {
+        
+        private final String method;
+        
+        private final String uri;
+        
+        private final String query;
+        
+        private final byte[] body;
+        
+        private volatile Response response;
+        
+        Entry(final String method, final String uri, final String query, final byte[] body) {
+            this.method = method;
+            this.uri = uri;
+            this.query = query;
+            this.body = body;
+        }
+        
+        boolean matches(final Entry other) {
+            return this.method.equals(other.method) && this.uri.equals(other.uri) 
+                    && Objects.equals(this.query, other.query) && Arrays.equals(this.body, other.body);
+        }
+        
+        void complete(final int status, final String contentType, final byte[] body) {
+            this.response = new Response(status, contentType, body);
+        }
+        
+        /**
+         * @return whether the request is processed and its response is cached; 
+         *         entries in flight are not.
+         */
+        public boolean isCompleted() {
+            return this.response != null;
+        }
+        
+        private static final class Response {
+            
+            private final int status;
+            
+            private final String contentType;
+            
+            private final byte[] body;
+            
+            Response(final int status, final String contentType, final byte[] body) {
+                this.status = status;
+                this.contentType = contentType;
+                this.body = body;
+            }
+        }
+    }
+    
+    /*
+     * Completes entry of request processed asynchronously.
+     */
+    private final class Completion implements AsyncListener {
+        
+        private final String scopedKey;
+        
+        private final Entry entry;
+        
+        private final RecordingResponseWrapper response;
+        
+        Completion(final String scopedKey, final Entry entry, final RecordingResponseWrapper response) {
+            this.scopedKey = scopedKey;
+            this.entry = entry;
+            this.response = response;
+        }
+        
+        @Override
+        public void onComplete(final AsyncEvent event) {
+            if (!this.entry.isCompleted()) {
+                complete(this.scopedKey, this.entry, this.response);
+            }
+        }
+        
+        @Override
+        public void onTimeout(final AsyncEvent event) {
+            entries.remove(this.scopedKey);
+        }
+        
+        @Override
+        public void onError(final AsyncEvent event) {
+            entries.remove(this.scopedKey);
+        }
+        
+        @Override
+        public void onStartAsync(final AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+    
+    /*
+     * Response, whose body is recorded as it's written through, so that nothing is left 
+     * to copy once an asynchronous request completes.
+     */
+    private static final class RecordingResponseWrapper extends HttpServletResponseWrapper {
+        
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        
+        private final CharArrayWriter chars = new CharArrayWriter();
+        
+        private ServletOutputStream output;
+        
+        private PrintWriter writer;
+        
+        RecordingResponseWrapper(final HttpServletResponse response) {
+            super(response);
+        }
+        
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (this.output == null) {
+                final ServletOutputStream delegate = super.getOutputStream();
+                this.output = new ServletOutputStream() {
+                    
+                    @Override
+                    public void write(final int b) throws IOException {
+                        delegate.write(b);
+                        bytes.write(b);
+                    }
+                    
+                    @Override
+                    public void write(final byte[] b, final int off, final int len) throws IOException {
+                        delegate.write(b, off, len);
+                        bytes.write(b, off, len);
+                    }
+                    
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+                    
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+                    
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+                    
+                    @Override
+                    public void setWriteListener(final WriteListener writeListener) {
+                        delegate.setWriteListener(writeListener);
+                    }
+                };
+            }
+            return this.output;
+        }
+        
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (this.writer == null) {
+                final PrintWriter delegate = super.getWriter();
+                this.writer = new PrintWriter(new Writer() {
+                    
+                    @Override
+                    public void write(final char[] cbuf, final int off, final int len) {
+                        delegate.write(cbuf, off, len);
+                        chars.write(cbuf, off, len);
+                    }
+                    
+                    @Override
+                    public void flush() {
+                        delegate.flush();
+                    }
+                    
+                    @Override
+                    public void close() {
+                        delegate.close();
+                    }
+                });
+            }
+            return this.writer;
+        }
+        
+        @Override
+        public void reset() {
+            super.reset();
+            this.bytes.reset();
+            this.chars.reset();
+        }
+        
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            this.bytes.reset();
+            this.chars.reset();
+        }
+        
+        byte[] getContent() {
+            if (this.chars.size() == 0) {
+                return this.bytes.toByteArray();
+            }
+            final String encoding = getCharacterEncoding();
+            return this.chars.toString().getBytes(encoding != null 
+                    ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1);
+        }
+    }
+}
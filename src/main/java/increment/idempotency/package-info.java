@@ -0,0 +1,8 @@
+/**
+ * Deduplication of retried requests by idempotency keys.
+ * 
+ * @author Grehov
+ *
+ */
+
+package increment.idempotency;
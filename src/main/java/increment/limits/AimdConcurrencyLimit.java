@@ -0,0 +1,91 @@
+package increment.limits;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive limit of concurrent requests, which follows additive increase, multiplicative
+ * decrease: the limit grows by one while requests complete within latency threshold and 
+ * the limit is in use, and it's cut by backoff ratio whenever a request is slower, so 
+ * that the node sheds load before queueing in it makes latency collapse. Both the limit 
+ * and count of requests in flight are lock-free.
+ * 
+ * @author Grehov
+ *
+ */
+public class AimdConcurrencyLimit {
+    
+    private final int minLimit;
+    
+    private final int maxLimit;
+    
+    private final long thresholdNanos;
+    
+    private final double backoffRatio;
+    
+    private final AtomicInteger limit;
+    
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    /**
+     * @param initialLimit limit to start with.
+     * @param minLimit minimal limit, > 0.
+     * @param maxLimit maximal limit, >= minLimit.
+     * @param latencyThreshold latency, above which the limit is decreased, > 0.
+     * @param unit unit of latencyThreshold.
+     * @param backoffRatio ratio the limit is multiplied by on decrease, in (0, 1).
+     * @throws IllegalArgumentException if arguments are out of their ranges.
+     */
+    public AimdConcurrencyLimit(final int initialLimit, final int minLimit, final int maxLimit, 
+            final long latencyThreshold, final TimeUnit unit, final double backoffRatio) {
+        if (minLimit <= 0 || maxLimit < minLimit || latencyThreshold <= 0 
+                || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Limits, threshold or backoff ratio out of range.");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.thresholdNanos = unit.toNanos(latencyThreshold);
+        this.backoffRatio = backoffRatio;
+        this.limit = new AtomicInteger(Math.min(maxLimit, Math.max(minLimit, initialLimit)));
+    }
+    
+    /**
+     * Admits request, if the limit isn't reached. Every admitted request must be 
+     * followed by {@link #release(long)}.
+     * 
+     * @return whether the request is admitted.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            final int current = this.inFlight.get();
+            if (current >= this.limit.get()) {
+                return false;
+            }
+            if (this.inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Completes admitted request and adjusts the limit by its latency.
+     * 
+     * @param latencyNanos latency of the request.
+     */
+    public void release(final long latencyNanos) {
+        final int current = this.inFlight.getAndDecrement();
+        if (latencyNanos > this.thresholdNanos) {
+            this.limit.updateAndGet(limit -> Math.max(this.minLimit, (int) (limit * this.backoffRatio)));
+        } else if (current * 2 >= this.limit.get()) {
+            this.limit.updateAndGet(limit -> Math.min(this.maxLimit, limit + 1));
+        }
+    }
+    
+    public int getLimit() {
+        return this.limit.get();
+    }
+    
+    public int getInFlight() {
+        return this.inFlight.get();
+    }
+}
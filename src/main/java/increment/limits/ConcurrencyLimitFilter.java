@@ -0,0 +1,98 @@
+package increment.limits;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import increment.metrics.Metrics;
+
+/**
+ * Filter, which is put in front of the security filter chain, so that it protects 
+ * the container pool and password hashing as well, and admits requests by 
+ * {@link AimdConcurrencyLimit}. Shed requests get SERVICE_UNAVAILABLE with no body, and 
+ * are counted as 'limits.shed'. Asynchronous requests are in flight until they complete,
+ * except event streams, which are long-lived by design and are released once started.
+ * 
+ * @author Grehov
+ *
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    
+    private static final String TEXT_EVENT_STREAM = "text/event-stream";
+    
+    private final AimdConcurrencyLimit limit;
+    
+    private final LongAdder shed;
+    
+    /**
+     * @param limit limit of concurrent requests.
+     * @param metrics registry of metrics.
+     */
+    public ConcurrencyLimitFilter(final AimdConcurrencyLimit limit, final Metrics metrics) {
+        this.limit = limit;
+        this.shed = metrics.counter("limits.shed");
+    }
+    
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, 
+            final HttpServletResponse response, final FilterChain chain) 
+                    throws ServletException, IOException {
+        if (!this.limit.tryAcquire()) {
+            this.shed.increment();
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        final long start = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted() && !isEventStream(response)) {
+                request.getAsyncContext().addListener(new ReleasingListener(start));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                this.limit.release(System.nanoTime() - start);
+            }
+        }
+    }
+    
+    private static boolean isEventStream(final HttpServletResponse response) {
+        final String contentType = response.getContentType();
+        return contentType != null && contentType.startsWith(TEXT_EVENT_STREAM);
+    }
+    
+    private final class ReleasingListener implements AsyncListener {
+        
+        private final long start;
+        
+        ReleasingListener(final long start) {
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(final AsyncEvent event) {
+            limit.release(System.nanoTime() - this.start);
+        }
+
+        @Override
+        public void onTimeout(final AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(final AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(final AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package increment.limits;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import increment.metrics.Metrics;
+
+/**
+ * Filter, which is put after the security filter chain and admits requests of every 
+ * authenticated principal by its own {@link TokenBucket}, and all requests by the global
+ * one. Rejected requests get TOO_MANY_REQUESTS with no body and 'Retry-After' header, 
+ * and are counted as 'limits.rate_limited'. Buckets of principals are created on demand;
+ * once there are more than maximal count of them, full ones are dropped.
+ * 
+ * @author Grehov
+ *
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+    
+    private static final int TOO_MANY_REQUESTS = 429;
+    
+    private final double clientRate;
+    
+    private final int clientBurst;
+    
+    private final int maxClients;
+    
+    private final TokenBucket global;
+    
+    private final ConcurrentMap<String, TokenBucket> clients = new ConcurrentHashMap<>();
+    
+    private final LongSupplier nanoClock;
+    
+    private final LongAdder rejected;
+    
+    /**
+     * @param clientRate sustained rate of requests of a principal per second.
+     * @param clientBurst burst of requests of a principal.
+     * @param globalRate sustained rate of all requests per second.
+     * @param globalBurst burst of all requests.
+     * @param maxClients count of buckets of principals, above which full ones are dropped.
+     * @param metrics registry of metrics.
+     */
+    public RateLimitFilter(final double clientRate, final int clientBurst, final double globalRate, 
+            final int globalBurst, final int maxClients, final Metrics metrics) {
+        this(clientRate, clientBurst, globalRate, globalBurst, maxClients, metrics, System::nanoTime);
+    }
+    
+    RateLimitFilter(final double clientRate, final int clientBurst, final double globalRate, 
+            final int globalBurst, final int maxClients, final Metrics metrics, final LongSupplier nanoClock) {
+        if (clientRate <= 0 || clientBurst <= 0) {
+            throw new IllegalArgumentException("Rate and burst must be positive.");
+        }
+        this.clientRate = clientRate;
+        this.clientBurst = clientBurst;
+        this.maxClients = maxClients;
+        this.nanoClock = nanoClock;
+        this.global = new TokenBucket(globalRate, globalBurst, nanoClock.getAsLong());
+        this.rejected = metrics.counter("limits.rate_limited");
+    }
+    
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, 
+            final HttpServletResponse response, final FilterChain chain) 
+                    throws ServletException, IOException {
+        final long now = this.nanoClock.getAsLong();
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        long wait = 0L;
+        if (authentication != null && authentication.isAuthenticated()) {
+            wait = bucketOf(authentication.getName(), now).tryAcquire(now);
+        }
+        if (wait == 0L) {
+            wait = this.global.tryAcquire(now);
+        }
+        if (wait != 0L) {
+            this.rejected.increment();
+            response.setStatus(TOO_MANY_REQUESTS);
+            response.setHeader(HttpHeaders.RETRY_AFTER, 
+                    Long.toString((wait + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1)));
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+    
+    private TokenBucket bucketOf(final String principal, final long now) {
+        final TokenBucket bucket = this.clients.get(principal);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (this.clients.size() >= this.maxClients) {
+            this.clients.values().removeIf(idle -> idle.isIdle(now));
+        }
+        return this.clients.computeIfAbsent(principal, 
+                key -> new TokenBucket(this.clientRate, this.clientBurst, now));
+    }
+}
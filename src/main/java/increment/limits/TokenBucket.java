@@ -0,0 +1,66 @@
+package increment.limits;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket implemented as 
+ * <a href="https://en.wikipedia.org/wiki/Generic_cell_rate_algorithm">GCRA</a>: the whole
+ * state is the theoretical arrival time of the next request, which moves by the emission
+ * interval per admitted request and is updated with CAS. Requests are admitted as long 
+ * as it's at most burst intervals ahead of now.
+ * 
+ * @author Grehov
+ *
+ */
+public class TokenBucket {
+    
+    private final long emissionIntervalNanos;
+    
+    private final long toleranceNanos;
+    
+    private final AtomicLong theoreticalArrival;
+    
+    /**
+     * @param ratePerSecond sustained rate of requests, > 0.
+     * @param burst count of requests, which may be admitted at once, > 0.
+     * @param nowNanos current time in nanoseconds.
+     * @throws IllegalArgumentException if rate or burst isn't positive.
+     */
+    public TokenBucket(final double ratePerSecond, final int burst, final long nowNanos) {
+        if (ratePerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate and burst must be positive.");
+        }
+        this.emissionIntervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond));
+        this.toleranceNanos = this.emissionIntervalNanos * burst;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+    
+    /**
+     * Takes token, if there is any.
+     * 
+     * @param nowNanos current time in nanoseconds.
+     * @return 0 if token was taken, otherwise nanoseconds until there is one.
+     */
+    public long tryAcquire(final long nowNanos) {
+        while (true) {
+            final long arrival = this.theoreticalArrival.get();
+            final long next = (arrival - nowNanos > 0 ? arrival : nowNanos) + this.emissionIntervalNanos;
+            final long ahead = next - nowNanos - this.toleranceNanos;
+            if (ahead > 0) {
+                return ahead;
+            }
+            if (this.theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0L;
+            }
+        }
+    }
+    
+    /**
+     * @param nowNanos current time in nanoseconds.
+     * @return whether the bucket is full, i.e. it's the same as new one.
+     */
+    public boolean isIdle(final long nowNanos) {
+        return this.theoreticalArrival.get() - nowNanos <= 0;
+    }
+}
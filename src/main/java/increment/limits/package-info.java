@@ -0,0 +1,8 @@
+/**
+ * Admission control: rate limits of clients and adaptive limit of concurrent requests.
+ * 
+ * @author Grehov
+ *
+ */
+
+package increment.limits;
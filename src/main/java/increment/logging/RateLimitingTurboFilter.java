@@ -0,0 +1,91 @@
+package increment.logging;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Logback filter passing at most given number of events per second from each logger.
+ * Events over the limit are dropped before any formatting and counted. Count of dropped
+ * events is reported by {@link #SUPPRESSED_LOGGER} once the logger's next second starts.
+ * <p>
+ * Configured in 'logback-spring.xml' from 'increment.logging.rate-limit.events-per-second'.
+ * Limit <= 0 disables the filter.
+ * 
+ * @author Grehov
+ *
+ */
+public class RateLimitingTurboFilter extends TurboFilter {
+    
+    /**
+     * Name of logger reporting suppressed events, which isn't limited itself.
+     */
+    public static final String SUPPRESSED_LOGGER = "increment.logging.suppressed";
+    
+    private static final long MILLIS_PER_SECOND = 1000L;
+    
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+    
+    private int eventsPerSecond;
+    
+    private LongSupplier millisClock = System::currentTimeMillis;
+    
+    public void setEventsPerSecond(final int eventsPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+    }
+    
+    void setMillisClock(final LongSupplier millisClock) {
+        this.millisClock = millisClock;
+    }
+
+    @Override
+    public FilterReply decide(final Marker marker, final Logger logger, final Level level, 
+            final String format, final Object[] params, final Throwable t) {
+        if (!isStarted() || this.eventsPerSecond <= 0 || format == null 
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())
+                || SUPPRESSED_LOGGER.equals(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        
+        Window window = this.windows.get(logger.getName());
+        if (window == null) {
+            window = this.windows.computeIfAbsent(logger.getName(), name -> new Window());
+        }
+        
+        final long second = this.millisClock.getAsLong() / MILLIS_PER_SECOND;
+        final long windowSecond = window.second.get();
+        if (windowSecond != second && window.second.compareAndSet(windowSecond, second)) {
+            window.events.set(0);
+            final long suppressed = window.suppressed.getAndSet(0);
+            if (suppressed > 0) {
+                logger.getLoggerContext().getLogger(SUPPRESSED_LOGGER)
+                        .warn("{} events of {} suppressed by rate limit of {} per second.", 
+                                suppressed, logger.getName(), this.eventsPerSecond);
+            }
+        }
+        
+        if (window.events.incrementAndGet() <= this.eventsPerSecond) {
+            return FilterReply.NEUTRAL;
+        }
+        window.suppressed.incrementAndGet();
+        return FilterReply.DENY;
+    }
+    
+    /*
+     * Events passed and suppressed by a logger within current second.
+     */
+    private static final class Window {
+        final AtomicLong second = new AtomicLong();
+        final AtomicInteger events = new AtomicInteger();
+        final AtomicLong suppressed = new AtomicLong();
+    }
+}
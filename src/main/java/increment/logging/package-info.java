@@ -0,0 +1,8 @@
+/**
+ * Logging infrastructure classes. 
+ */
+/**
+ * @author Grehov
+ *
+ */
+package increment.logging;
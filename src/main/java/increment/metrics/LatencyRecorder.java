@@ -0,0 +1,84 @@
+package increment.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Recorder of latencies in nanoseconds, backed by 
+ * <a href="http://hdrhistogram.org/">HDR histograms</a>. Recording is wait-free and 
+ * allocates nothing: it goes to one of several stripes chosen by the current thread, 
+ * so that threads don't contend on the same counts. Latencies above one minute are 
+ * recorded as one minute.
+ * 
+ * @author Grehov
+ *
+ */
+public class LatencyRecorder {
+    
+    static final long MAX_NANOS = TimeUnit.MINUTES.toNanos(1);
+    
+    private static final int SIGNIFICANT_DIGITS = 2;
+    
+    private final Recorder[] stripes;
+    
+    private final int stripeMask;
+    
+    private final LongAdder totalNanos = new LongAdder();
+    
+    private final Histogram interval = new Histogram(MAX_NANOS, SIGNIFICANT_DIGITS);
+    
+    private final Histogram cumulative = new Histogram(MAX_NANOS, SIGNIFICANT_DIGITS);
+    
+    LatencyRecorder() {
+        int stripesCount = 1;
+        while (stripesCount < 2 * Runtime.getRuntime().availableProcessors()) {
+            stripesCount *= 2;
+        }
+        this.stripes = new Recorder[stripesCount];
+        for (int i = 0; i < stripesCount; i++) {
+            this.stripes[i] = new Recorder(MAX_NANOS, SIGNIFICANT_DIGITS);
+        }
+        this.stripeMask = stripesCount - 1;
+    }
+    
+    /**
+     * Records latency.
+     * 
+     * @param nanos latency in nanoseconds.
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(0L, Math.min(nanos, MAX_NANOS));
+        this.stripes[(int) Thread.currentThread().getId() & this.stripeMask].recordValue(value);
+        this.totalNanos.add(value);
+    }
+    
+    /**
+     * Records latency since given start.
+     * 
+     * @param startNanos start in terms of {@link System#nanoTime()}.
+     */
+    public void recordSince(final long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+    
+    /**
+     * @return sum of all recorded latencies in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return this.totalNanos.sum();
+    }
+    
+    /**
+     * @return copy of histogram of all latencies recorded so far.
+     */
+    public synchronized Histogram snapshot() {
+        for (Recorder stripe : this.stripes) {
+            stripe.getIntervalHistogramInto(this.interval);
+            this.cumulative.add(this.interval);
+        }
+        return this.cumulative.copy();
+    }
+}
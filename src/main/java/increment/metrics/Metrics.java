@@ -0,0 +1,133 @@
+package increment.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registry of named latency recorders and counters of the application. 
+ * Names are dot separated, e.g. 'service.increment'.
+ * 
+ * @author Grehov
+ *
+ */
+@Component
+public class Metrics {
+    
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+    
+    private static final String[] QUANTILES = {"0.5", "0.9", "0.99", "0.999"};
+    
+    private static final String PROMETHEUS_PREFIX = "increment_";
+    
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    
+    private static final double NANOS_PER_MICRO = TimeUnit.MICROSECONDS.toNanos(1);
+    
+    private final ConcurrentMap<String, LatencyRecorder> timers = new ConcurrentHashMap<>();
+    
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    
+    /**
+     * Returns latency recorder of given name, creating it on first call.
+     * Callers on hot path should keep the returned recorder.
+     * 
+     * @param name name of recorder.
+     * @return latency recorder.
+     */
+    public LatencyRecorder timer(final String name) {
+        final LatencyRecorder timer = this.timers.get(name);
+        return timer != null ? timer : this.timers.computeIfAbsent(name, n -> new LatencyRecorder());
+    }
+    
+    /**
+     * Returns counter of given name, creating it on first call.
+     * Callers on hot path should keep the returned counter.
+     * 
+     * @param name name of counter.
+     * @return counter.
+     */
+    public LongAdder counter(final String name) {
+        final LongAdder counter = this.counters.get(name);
+        return counter != null ? counter : this.counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+    
+    /**
+     * Returns current values of all metrics. Latencies are given in microseconds.
+     * 
+     * @return map with 'timers' of count, mean, percentiles and max by name 
+     *         and with 'counters' of value by name.
+     */
+    public Map<String, Object> snapshot() {
+        final Map<String, Object> timers = new TreeMap<>();
+        this.timers.forEach((name, timer) -> {
+            final Histogram histogram = timer.snapshot();
+            final Map<String, Object> values = new LinkedHashMap<>();
+            values.put("count", histogram.getTotalCount());
+            values.put("mean", histogram.getMean() / NANOS_PER_MICRO);
+            for (double percentile : PERCENTILES) {
+                values.put("p" + percentileLabel(percentile), 
+                        histogram.getValueAtPercentile(percentile) / NANOS_PER_MICRO);
+            }
+            values.put("max", histogram.getMaxValue() / NANOS_PER_MICRO);
+            timers.put(name, values);
+        });
+        
+        final Map<String, Object> counters = new TreeMap<>();
+        this.counters.forEach((name, counter) -> counters.put(name, counter.sum()));
+        
+        final Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("timers", timers);
+        snapshot.put("counters", counters);
+        return snapshot;
+    }
+    
+    /**
+     * Returns current values of all metrics in 
+     * <a href="https://prometheus.io/docs/instrumenting/exposition_formats/">Prometheus 
+     * text format</a>. Timers are exposed as summaries in seconds, counters as counters.
+     * 
+     * @return metrics in Prometheus text format.
+     */
+    public String prometheus() {
+        final StringBuilder text = new StringBuilder();
+        new TreeMap<>(this.timers).forEach((name, timer) -> {
+            final String metric = PROMETHEUS_PREFIX + prometheusName(name) + "_seconds";
+            final Histogram histogram = timer.snapshot();
+            text.append("# TYPE ").append(metric).append(" summary\n");
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                text.append(metric).append("{quantile=\"").append(QUANTILES[i]).append("\"} ")
+                    .append(seconds(histogram.getValueAtPercentile(PERCENTILES[i]))).append('\n');
+            }
+            text.append(metric).append("_sum ").append(seconds(timer.getTotalNanos())).append('\n');
+            text.append(metric).append("_count ").append(histogram.getTotalCount()).append('\n');
+        });
+        new TreeMap<>(this.counters).forEach((name, counter) -> {
+            final String metric = PROMETHEUS_PREFIX + prometheusName(name) + "_total";
+            text.append("# TYPE ").append(metric).append(" counter\n");
+            text.append(metric).append(' ').append(counter.sum()).append('\n');
+        });
+        return text.toString();
+    }
+    
+    private static String percentileLabel(final double percentile) {
+        return percentile == Math.rint(percentile) ? Long.toString((long) percentile) 
+                : Double.toString(percentile).replace(".", "");
+    }
+    
+    private static String prometheusName(final String name) {
+        return name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_]", "_");
+    }
+    
+    private static String seconds(final long nanos) {
+        return Double.toString(nanos / NANOS_PER_SECOND);
+    }
+}
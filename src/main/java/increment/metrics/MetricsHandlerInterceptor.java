@@ -0,0 +1,66 @@
+package increment.metrics;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+/**
+ * Interceptor recording latency of every handler method as 
+ * 'handler.<i>controller class</i>.<i>method name</i>', so that same-named methods of 
+ * different controllers are told apart. The time includes writing of the response, but not the security filter chain.
+ * 
+ * @author Grehov
+ *
+ */
+public class MetricsHandlerInterceptor extends HandlerInterceptorAdapter {
+    
+    private final StartTime start = new StartTime();
+    
+    private final Metrics metrics;
+    
+    private final ConcurrentMap<Method, LatencyRecorder> timers = new ConcurrentHashMap<>();
+    
+    /**
+     * @param metrics registry of metrics.
+     */
+    public MetricsHandlerInterceptor(final Metrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, 
+            final Object handler) {
+        if (handler instanceof HandlerMethod) {
+            this.start.set(System.nanoTime());
+        }
+        return true;
+    }
+    
+    @Override
+    public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response, 
+            final Object handler, final Exception ex) {
+        final long started = this.start.set(StartTime.NONE);
+        if (started != StartTime.NONE && handler instanceof HandlerMethod) {
+            timer(((HandlerMethod) handler).getMethod()).recordSince(started);
+        }
+    }
+    
+    @Override
+    public void afterConcurrentHandlingStarted(final HttpServletRequest request, 
+            final HttpServletResponse response, final Object handler) {
+        this.start.set(StartTime.NONE);
+    }
+    
+    private LatencyRecorder timer(final Method method) {
+        final LatencyRecorder timer = this.timers.get(method);
+        return timer != null ? timer : this.timers.computeIfAbsent(method, 
+                m -> this.metrics.timer("handler." + m.getDeclaringClass().getSimpleName() 
+                        + "." + m.getName()));
+    }
+}
@@ -0,0 +1,55 @@
+package increment.metrics;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filter, which is put in front of the security filter chain and records latency of
+ * every request as 'http.requests' and count of error responses as 'http.errors'. 
+ * It also marks the start of the request for {@link SecurityMetricsFilter}.
+ * 
+ * @author Grehov
+ *
+ */
+public class RequestMetricsFilter extends OncePerRequestFilter {
+    
+    static final StartTime START = new StartTime();
+    
+    private final LatencyRecorder requests;
+    
+    private final LongAdder errors;
+    
+    /**
+     * @param metrics registry of metrics.
+     */
+    public RequestMetricsFilter(final Metrics metrics) {
+        this.requests = metrics.timer("http.requests");
+        this.errors = metrics.counter("http.errors");
+    }
+    
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, 
+            final HttpServletResponse response, final FilterChain chain) 
+                    throws ServletException, IOException {
+        final long start = System.nanoTime();
+        final long outer = START.set(start);
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = response.getStatus() >= HttpServletResponse.SC_BAD_REQUEST;
+        } finally {
+            START.set(outer);
+            this.requests.recordSince(start);
+            if (failed) {
+                this.errors.increment();
+            }
+        }
+    }
+}
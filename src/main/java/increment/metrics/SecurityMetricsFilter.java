@@ -0,0 +1,42 @@
+package increment.metrics;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filter, which is put right after the security filter chain and records as 'http.security'
+ * the time requests spent since {@link RequestMetricsFilter}, i.e. in authentication 
+ * and authorization. Requests rejected by the chain never reach the filter, so they 
+ * are seen only in 'http.requests' and 'http.errors'.
+ * 
+ * @author Grehov
+ *
+ */
+public class SecurityMetricsFilter extends OncePerRequestFilter {
+    
+    private final LatencyRecorder security;
+    
+    /**
+     * @param metrics registry of metrics.
+     */
+    public SecurityMetricsFilter(final Metrics metrics) {
+        this.security = metrics.timer("http.security");
+    }
+    
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, 
+            final HttpServletResponse response, final FilterChain chain) 
+                    throws ServletException, IOException {
+        final long start = RequestMetricsFilter.START.get();
+        if (start != StartTime.NONE) {
+            this.security.recordSince(start);
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,36 @@
+package increment.metrics;
+
+/**
+ * Start time of a measured section of the current thread, e.g. of a request. It's kept 
+ * in a holder reused by the thread instead of a request attribute, which would box it, 
+ * so that marking allocates nothing per request. Request handling, which moves to 
+ * another thread, e.g. asynchronous dispatch, is not seen as started.
+ * 
+ * @author Grehov
+ *
+ */
+final class StartTime {
+    
+    /** Value of not started section. */
+    static final long NONE = Long.MIN_VALUE;
+    
+    private final ThreadLocal<long[]> starts = ThreadLocal.withInitial(() -> new long[] {NONE});
+    
+    /**
+     * @return start time of the current thread in nanoseconds, or {@link #NONE}.
+     */
+    long get() {
+        return this.starts.get()[0];
+    }
+    
+    /**
+     * @param nanos start time of the current thread in nanoseconds, or {@link #NONE}.
+     * @return replaced start time.
+     */
+    long set(final long nanos) {
+        final long[] start = this.starts.get();
+        final long replaced = start[0];
+        start[0] = nanos;
+        return replaced;
+    }
+}
@@ -0,0 +1,8 @@
+/**
+ * Latency and throughput metrics of endpoints and services.
+ */
+/**
+ * @author Grehov
+ *
+ */
+package increment.metrics;
@@ -0,0 +1,311 @@
+package increment.push;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fan-out of events from a single producer to many subscribers. Every subscriber has 
+ * its own bounded buffer, to which {@link #publish(String)} only offers the event, 
+ * dropping the oldest one when the buffer is full, since a newer event supersedes it. 
+ * Buffers are drained by a small pool of sender threads, at most one per subscriber 
+ * at a time, so that a slow subscriber delays only itself and the producer never blocks. 
+ * A subscriber, whose send fails, is cancelled.
+ * <p>
+ * Sends are blocking, so with a send timeout a watchdog cancels subscribers, whose send
+ * takes longer, and counts them as stalled. Since a blocked send can't be interrupted, 
+ * a sender thread is added for as long as the stalled send lasts, so that other 
+ * subscribers keep all the sender threads however many clients stop reading; once 
+ * the send returns, the stalled subscriber is told to close, see {@link Sink#cancelled()}.
+ * 
+ * @author Grehov
+ *
+ */
+public class Broadcaster implements Closeable {
+    
+    /**
+     * Receiver of events of a subscriber.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        
+        /**
+         * @param event event to be sent.
+         * @throws IOException if the subscriber is gone.
+         */
+        void send(String event) throws IOException;
+        
+        /**
+         * Called once the subscription is cancelled for a send, which took longer than 
+         * the send timeout, after the send returned, so that the subscriber can be 
+         * disconnected and reconnect.
+         */
+        default void cancelled() {
+        }
+    }
+    
+    /*
+     * Marks of subscription, which isn't sending, and of one, whose send has stalled,
+     * in place of start time of send in progress.
+     */
+    private static final long IDLE = Long.MIN_VALUE;
+    
+    private static final long STALLED = Long.MIN_VALUE + 1;
+    
+    private static final long MIN_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    
+    private final ConcurrentHashMap<Subscription, Boolean> subscriptions = new ConcurrentHashMap<>();
+    
+    private final AtomicInteger count = new AtomicInteger();
+    
+    private final int maxSubscribers;
+    
+    private final int bufferSize;
+    
+    private final ThreadPoolExecutor senders;
+    
+    private final long sendTimeoutNanos;
+    
+    private final ScheduledExecutorService watchdog;
+    
+    private final LongAdder dropped = new LongAdder();
+    
+    private final LongAdder stalled = new LongAdder();
+    
+    /**
+     * Creates broadcaster with no send timeout.
+     * 
+     * @param maxSubscribers maximal count of subscribers.
+     * @param bufferSize capacity of buffer of every subscriber, > 0.
+     * @param senderThreads count of threads sending events.
+     */
+    public Broadcaster(final int maxSubscribers, final int bufferSize, final int senderThreads) {
+        this(maxSubscribers, bufferSize, senderThreads, 0L, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * @param maxSubscribers maximal count of subscribers.
+     * @param bufferSize capacity of buffer of every subscriber, > 0.
+     * @param senderThreads count of threads sending events.
+     * @param sendTimeout time, after which subscriber with send in progress is cancelled, 
+     *        0 for none.
+     * @param unit unit of send timeout.
+     */
+    public Broadcaster(final int maxSubscribers, final int bufferSize, final int senderThreads, 
+            final long sendTimeout, final TimeUnit unit) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive.");
+        }
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = bufferSize;
+        final AtomicInteger threads = new AtomicInteger();
+        // threads beyond the core, which is lowered once a stalled send returns, end when idle
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS, 
+                new LinkedBlockingQueue<>(), runnable -> {
+                    final Thread thread = new Thread(runnable, "broadcast-sender-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.sendTimeoutNanos = unit.toNanos(sendTimeout);
+        if (this.sendTimeoutNanos > 0) {
+            this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "broadcast-watchdog");
+                thread.setDaemon(true);
+                return thread;
+            });
+            final long period = Math.max(this.sendTimeoutNanos / 4, MIN_CHECK_NANOS);
+            this.watchdog.scheduleWithFixedDelay(this::cancelStalled, period, period, TimeUnit.NANOSECONDS);
+        } else {
+            this.watchdog = null;
+        }
+    }
+    
+    /**
+     * Subscribes given sink to events published from now on.
+     * 
+     * @param sink receiver of events.
+     * @return subscription, which is to be cancelled once the subscriber is gone.
+     * @throws IllegalStateException if there are maximal count of subscribers already.
+     */
+    public Subscription subscribe(final Sink sink) {
+        if (this.count.incrementAndGet() > this.maxSubscribers) {
+            this.count.decrementAndGet();
+            throw new IllegalStateException("Too many subscribers");
+        }
+        final Subscription subscription = new Subscription(sink);
+        this.subscriptions.put(subscription, Boolean.TRUE);
+        return subscription;
+    }
+    
+    /**
+     * Offers event to every subscriber, never blocking.
+     * 
+     * @param event event to be sent.
+     */
+    public void publish(final String event) {
+        for (final Subscription subscription : this.subscriptions.keySet()) {
+            subscription.offer(event);
+        }
+    }
+    
+    public int getSubscribers() {
+        return this.count.get();
+    }
+    
+    /**
+     * @return count of events dropped from full buffers.
+     */
+    public long getDropped() {
+        return this.dropped.sum();
+    }
+    
+    /**
+     * @return count of subscribers cancelled for a send, which took longer than the timeout.
+     */
+    public long getStalled() {
+        return this.stalled.sum();
+    }
+    
+    /**
+     * Stops sending, subscriptions stay as they are.
+     */
+    @Override
+    public void close() {
+        if (this.watchdog != null) {
+            this.watchdog.shutdownNow();
+        }
+        this.senders.shutdownNow();
+    }
+    
+    private void cancelStalled() {
+        final long now = System.nanoTime();
+        for (final Subscription subscription : this.subscriptions.keySet()) {
+            final long started = subscription.sendStarted.get();
+            if (started != IDLE && started != STALLED && now - started > this.sendTimeoutNanos 
+                    && subscription.sendStarted.compareAndSet(started, STALLED)) {
+                this.stalled.increment();
+                subscription.cancel();
+                resizeSenders(1);
+            }
+        }
+    }
+    
+    /*
+     * Raising the core starts a thread for queued subscriptions, lowering it lets 
+     * a thread end.
+     */
+    private void resizeSenders(final int delta) {
+        synchronized (this.senders) {
+            final int size = this.senders.getCorePoolSize() + delta;
+            if (delta > 0) {
+                this.senders.setMaximumPoolSize(size);
+                this.senders.setCorePoolSize(size);
+            } else {
+                this.senders.setCorePoolSize(size);
+                this.senders.setMaximumPoolSize(size);
+            }
+        }
+    }
+    
+    /**
+     * Subscription of a sink with its buffer of pending events.
+     */
+    public final class Subscription implements Runnable {
+        
+        private final Sink sink;
+        
+        private final Queue<String> buffer = new ArrayBlockingQueue<>(bufferSize);
+        
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        
+        /** Time, at which send in progress started, {@link #IDLE} or {@link #STALLED}. */
+        private final AtomicLong sendStarted = new AtomicLong(IDLE);
+        
+        private Subscription(final Sink sink) {
+            this.sink = sink;
+        }
+        
+        /**
+         * Unsubscribes, further events aren't sent.
+         */
+        public void cancel() {
+            if (this.cancelled.compareAndSet(false, true)) {
+                subscriptions.remove(this);
+                count.decrementAndGet();
+                this.buffer.clear();
+            }
+        }
+        
+        private void offer(final String event) {
+            while (!this.buffer.offer(event)) {
+                if (this.buffer.poll() != null) {
+                    dropped.increment();
+                }
+            }
+            schedule();
+        }
+        
+        private void schedule() {
+            if (this.scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this);
+                } catch (RejectedExecutionException e) {
+                    this.scheduled.set(false);
+                }
+            }
+        }
+        
+        /*
+         * Sends event, unless the watchdog marks it as stalled meanwhile, in which case 
+         * the thread added for it is let go and the subscriber is closed.
+         */
+        private void send(final String event) throws IOException {
+            this.sendStarted.set(System.nanoTime());
+            try {
+                this.sink.send(event);
+            } finally {
+                if (this.sendStarted.getAndSet(IDLE) == STALLED) {
+                    resizeSenders(-1);
+                    try {
+                        this.sink.cancelled();
+                    } catch (RuntimeException e) {
+                        // the subscriber is gone anyway
+                    }
+                }
+            }
+        }
+        
+        @Override
+        public void run() {
+            try {
+                String event;
+                while (!this.cancelled.get() && (event = this.buffer.poll()) != null) {
+                    send(event);
+                }
+            } catch (IOException | RuntimeException e) {
+                cancel();
+                return;
+            } finally {
+                this.scheduled.set(false);
+            }
+            // an event offered after the last poll, but before the flag was cleared
+            if (!this.buffer.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package increment.push;
+
+import java.io.Closeable;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Producer of updates of increments for subscribed dashboards. Increments are only 
+ * recorded, i.e. the latest value and the count, and once per interval a single JSON
+ * update, e.g. <code>{"toIncrement":"41","incremented":"42","count":17}</code>, is 
+ * published through {@link Broadcaster}, if there were increments since the last one.
+ * 
+ * @author Grehov
+ *
+ */
+public class IncrementUpdates implements Closeable {
+    
+    private final Broadcaster broadcaster;
+    
+    private final LongAdder increments = new LongAdder();
+    
+    private volatile int latest;
+    
+    /**
+     * @param broadcaster fan-out to subscribers.
+     */
+    public IncrementUpdates(final Broadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+    
+    /**
+     * Records increment of given value.
+     * 
+     * @param incremented value, which was incremented.
+     */
+    public void record(final int incremented) {
+        this.latest = incremented;
+        this.increments.increment();
+    }
+    
+    /**
+     * Publishes update, if there were increments since the last one.
+     */
+    @Scheduled(fixedRateString = "${increment.push.interval-ms}")
+    public void publish() {
+        final long count = this.increments.sumThenReset();
+        if (count == 0) {
+            return;
+        }
+        final int value = this.latest;
+        this.broadcaster.publish("{\"toIncrement\":\"" + value + "\",\"incremented\":\"" 
+                + ((long) value + 1) + "\",\"count\":" + count + "}");
+    }
+    
+    public Broadcaster getBroadcaster() {
+        return this.broadcaster;
+    }
+    
+    @Override
+    public void close() {
+        this.broadcaster.close();
+    }
+}
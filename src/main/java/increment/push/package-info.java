@@ -0,0 +1,8 @@
+/**
+ * Push of updates to subscribed clients.
+ * 
+ * @author Grehov
+ *
+ */
+
+package increment.push;
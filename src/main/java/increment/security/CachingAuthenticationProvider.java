@@ -0,0 +1,116 @@
+package increment.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+import increment.cache.ClockCache;
+
+/**
+ * Authentication provider remembering successful authentications of its delegate,
+ * so that password hashing runs once per credentials and time to live instead of 
+ * once per request. 
+ * <p>
+ * Credentials are never kept: entries are keyed by HMAC of username and password 
+ * under a key generated per instance.
+ * 
+ * @author Grehov
+ *
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+    
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    
+    private static final int MAC_KEY_LENGTH = 32;
+    
+    private final AuthenticationProvider delegate;
+    
+    private final ClockCache<ByteBuffer, Authentication> cache;
+    
+    private final ThreadLocal<Mac> mac;
+    
+    /**
+     * Creates provider caching at most given number of authentications.
+     * 
+     * @param delegate provider verifying credentials.
+     * @param maxSize maximal number of cached authentications, caching is disabled if <= 0.
+     * @param ttl time after which cached authentication is verified again.
+     * @param unit unit of ttl.
+     */
+    public CachingAuthenticationProvider(final AuthenticationProvider delegate, final int maxSize, 
+            final long ttl, final TimeUnit unit) {
+        this.delegate = delegate;
+        this.cache = maxSize > 0 ? new ClockCache<>(maxSize, ttl, unit) : null;
+        
+        final byte[] key = new byte[MAC_KEY_LENGTH];
+        new SecureRandom().nextBytes(key);
+        final SecretKeySpec keySpec = new SecretKeySpec(key, MAC_ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                final Mac mac = Mac.getInstance(MAC_ALGORITHM);
+                mac.init(keySpec);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @Override
+    public Authentication authenticate(final Authentication authentication) 
+            throws AuthenticationException {
+        if (this.cache == null || authentication.getCredentials() == null) {
+            return this.delegate.authenticate(authentication);
+        }
+        
+        final ByteBuffer key = digest(authentication.getName(), 
+                authentication.getCredentials().toString());
+        final Authentication cached = this.cache.get(key);
+        if (cached != null) {
+            return new UsernamePasswordAuthenticationToken(cached.getPrincipal(), null, 
+                    cached.getAuthorities());
+        }
+        
+        final Authentication authenticated = this.delegate.authenticate(authentication);
+        if (authenticated != null && authenticated.isAuthenticated()) {
+            this.cache.put(key, authenticated);
+        }
+        return authenticated;
+    }
+
+    @Override
+    public boolean supports(final Class<?> authentication) {
+        return this.delegate.supports(authentication);
+    }
+    
+    /**
+     * Drops cached authentications of given user, so that next request of the user
+     * is verified by delegate.
+     * 
+     * @param username name of user.
+     */
+    public void invalidate(final String username) {
+        if (this.cache != null) {
+            this.cache.removeIf((key, authentication) -> username.equals(authentication.getName()));
+        }
+    }
+    
+    private ByteBuffer digest(final String username, final String password) {
+        final Mac mac = this.mac.get();
+        final byte[] name = username.getBytes(StandardCharsets.UTF_8);
+        mac.update(ByteBuffer.allocate(Integer.BYTES).putInt(0, name.length));
+        mac.update(name);
+        mac.update(password.getBytes(StandardCharsets.UTF_8));
+        return ByteBuffer.wrap(mac.doFinal());
+    }
+}
@@ -0,0 +1,77 @@
+package increment.security;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * Authenticates requests carrying bearer token issued by {@link TokenService}.
+ * Requests without bearer token are passed on to the rest of the chain untouched.
+ * 
+ * @author Grehov
+ *
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+    
+    private static final String BEARER_PREFIX = "Bearer ";
+    
+    private final TokenService tokenService;
+    
+    private final AuthenticationEntryPoint authenticationEntryPoint;
+    
+    private final String tokenPath;
+    
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+    
+    /**
+     * @param tokenService service verifying tokens.
+     * @param authenticationEntryPoint entry point commencing invalid token case.
+     * @param tokenPath path issuing tokens, which accepts no token itself, 
+     *        so that a token can't be prolonged by itself.
+     */
+    public TokenAuthenticationFilter(final TokenService tokenService, 
+            final AuthenticationEntryPoint authenticationEntryPoint, final String tokenPath) {
+        this.tokenService = tokenService;
+        this.authenticationEntryPoint = authenticationEntryPoint;
+        this.tokenPath = tokenPath;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return this.tokenPath.equals(this.urlPathHelper.getPathWithinApplication(request));
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, 
+            final HttpServletResponse response, final FilterChain chain) 
+                    throws ServletException, IOException {
+        final String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        final Authentication authentication = 
+                this.tokenService.verify(header.substring(BEARER_PREFIX.length()));
+        if (authentication == null) {
+            SecurityContextHolder.clearContext();
+            this.authenticationEntryPoint.commence(request, response, 
+                    new BadCredentialsException("Invalid or expired token"));
+            return;
+        }
+        
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        chain.doFilter(request, response);
+    }
+}
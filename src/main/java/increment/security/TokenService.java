@@ -0,0 +1,155 @@
+package increment.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Issues and verifies signed, expiring bearer tokens. A token carries username, 
+ * authorities and expiration time signed with HMAC, so that verifying it takes neither
+ * user lookup nor password hashing.
+ * <p>
+ * Enabled with 'increment.security.token.enabled'. Tokens are signed with
+ * 'increment.security.token.secret', which must be shared by all nodes; if it is empty,
+ * a random secret is generated and tokens don't survive restart.
+ * 
+ * @author Grehov
+ *
+ */
+@Component
+@ConditionalOnProperty(prefix = "increment.security.token", name = "enabled")
+public class TokenService {
+    
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    
+    private static final int RANDOM_SECRET_LENGTH = 32;
+    
+    private static final char SIGNATURE_SEPARATOR = '.';
+    
+    private static final String FIELD_SEPARATOR = "\n";
+    
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    
+    private final ThreadLocal<Mac> mac;
+    
+    private final long ttlSeconds;
+    
+    private final Clock clock;
+    
+    /**
+     * Injection constructor.
+     * 
+     * @param secret secret signing tokens, random one is generated if empty.
+     * @param ttlSeconds time to live of issued tokens in seconds.
+     */
+    @Autowired
+    public TokenService(@Value("${increment.security.token.secret:}") final String secret,
+            @Value("${increment.security.token.ttl-seconds:3600}") final long ttlSeconds) {
+        this(secret, ttlSeconds, Clock.systemUTC());
+    }
+    
+    TokenService(final String secret, final long ttlSeconds, final Clock clock) {
+        final byte[] keyBytes;
+        if (StringUtils.hasText(secret)) {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        } else {
+            keyBytes = new byte[RANDOM_SECRET_LENGTH];
+            new SecureRandom().nextBytes(keyBytes);
+        }
+        final SecretKeySpec key = new SecretKeySpec(keyBytes, MAC_ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                final Mac mac = Mac.getInstance(MAC_ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        this.ttlSeconds = ttlSeconds;
+        this.clock = clock;
+    }
+    
+    /**
+     * @return time to live of issued tokens in seconds.
+     */
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+    
+    /**
+     * Issues token for given authenticated user.
+     * 
+     * @param authentication authentication of user.
+     * @return token valid for {@link #getTtlSeconds()}.
+     */
+    public String issue(final Authentication authentication) {
+        final String payload = (this.clock.instant().getEpochSecond() + this.ttlSeconds)
+                + FIELD_SEPARATOR + authentication.getName() 
+                + FIELD_SEPARATOR + authentication.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .collect(Collectors.joining(","));
+        final byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payloadBytes) + SIGNATURE_SEPARATOR 
+                + ENCODER.encodeToString(sign(payloadBytes));
+    }
+    
+    /**
+     * Verifies given token. Signature is compared in constant time.
+     * 
+     * @param token token issued by {@link #issue(Authentication)}.
+     * @return authentication of token owner or null, if token is malformed, forged or expired.
+     */
+    public Authentication verify(final String token) {
+        final int separator = token.indexOf(SIGNATURE_SEPARATOR);
+        if (separator <= 0) {
+            return null;
+        }
+        
+        final byte[] payloadBytes;
+        final byte[] signature;
+        try {
+            payloadBytes = DECODER.decode(token.substring(0, separator));
+            signature = DECODER.decode(token.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(signature, sign(payloadBytes))) {
+            return null;
+        }
+        
+        final String[] fields = new String(payloadBytes, StandardCharsets.UTF_8)
+                .split(FIELD_SEPARATOR, -1);
+        if (fields.length != 3 
+                || Long.parseLong(fields[0]) <= this.clock.instant().getEpochSecond()) {
+            return null;
+        }
+        final List<GrantedAuthority> authorities = 
+                AuthorityUtils.commaSeparatedStringToAuthorityList(fields[2]);
+        return new PreAuthenticatedAuthenticationToken(fields[1], null, authorities);
+    }
+    
+    private byte[] sign(final byte[] payload) {
+        return this.mac.get().doFinal(payload);
+    }
+}
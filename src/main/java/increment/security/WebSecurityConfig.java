@@ -2,6 +2,8 @@ package increment.security;
 
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
 import javax.annotation.PostConstruct;
 
 import org.slf4j.Logger;
@@ -11,19 +13,34 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.header.writers.CacheControlHeadersWriter;
+import org.springframework.security.web.header.writers.DelegatingRequestMatcherHeaderWriter;
+import org.springframework.security.web.savedrequest.NullRequestCache;
+import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
+import org.springframework.security.web.util.matcher.RegexRequestMatcher;
 
+import increment.api.IncrementController;
+import increment.api.IncrementResourceController;
+import increment.api.IncrementUpdatesController;
 import increment.api.RestWideExceptionHandler;
+import increment.api.TokenController;
 
 /**
  * Configuration of web level security.
@@ -43,6 +60,21 @@ public class WebSecurityConfig extends  WebSecurityConfigurerAdapter  {
     @Value("${increment.client-password}")
     private String clientPassword ;
     
+    @Value("${increment.security.auth-cache.max-size:10000}")
+    private int authCacheMaxSize;
+    
+    @Value("${increment.security.auth-cache.ttl-seconds:300}")
+    private long authCacheTtlSeconds;
+    
+    @Value("${increment.security.stateless:false}")
+    private boolean stateless;
+    
+    @Value("${increment.security.anonymous-dashboard:false}")
+    private boolean anonymousDashboard;
+    
+    @Value("${increment.limits.rate.enabled:false}")
+    private boolean rateLimited;
+    
     private static final String REST_CLIENT_ROLE = "USER";
     
     private static final String API_SUBPATH = "/api/**";
@@ -53,35 +85,104 @@ public class WebSecurityConfig extends  WebSecurityConfigurerAdapter  {
     @Autowired
     private IncrementApiSavedRequestAwareAuthenticationSuccessHandler
       authenticationSuccessHandler;
+    
+    @Autowired(required = false)
+    private TokenService tokenService;
 
     @Override
     protected void configure(AuthenticationManagerBuilder auth) throws Exception {   
-        auth.userDetailsService(userDetailsService())
-        .passwordEncoder(new BCryptPasswordEncoder());
+        auth.authenticationProvider(cachingAuthenticationProvider());
     }
     
+    /**
+     * Provider verifying credentials with BCrypt, fronted by cache of verified credentials.
+     * Cache size and time to live are set with 'increment.security.auth-cache.*'.
+     * 
+     * @return authentication provider of the application.
+     */
+    @Bean
+    protected CachingAuthenticationProvider cachingAuthenticationProvider() {
+        final DaoAuthenticationProvider daoProvider = new DaoAuthenticationProvider();
+        daoProvider.setUserDetailsService(userDetailsService());
+        daoProvider.setPasswordEncoder(new BCryptPasswordEncoder());
+        return new CachingAuthenticationProvider(daoProvider, authCacheMaxSize, 
+                authCacheTtlSeconds, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Configures HTTP Basic for '/api/**'. If 'increment.security.token.enabled' is set,
+     * bearer tokens issued at {@link TokenController#TOKEN} are accepted as well. 
+     * If 'increment.security.stateless' is set, neither sessions nor saved requests are 
+     * used, and form login, which depends on them, is off. CORS preflight requests are
+     * answered before authentication by the configuration of Spring MVC. Responses of
+     * {@link IncrementResourceController#INCREMENT_RESOURCE} are left without the default 
+     * no-cache headers, since the controller sets their Cache-Control.
+     * <p>
+     * Browsers can't send credentials with JSONP and EventSource requests, so if 
+     * 'increment.security.anonymous-dashboard' is set, reads of dashboards are public: 
+     * GET {@link IncrementController#INCREMENT} with 'value' parameter and 
+     * GET {@link IncrementUpdatesController#UPDATES}. Since anonymous requests are limited 
+     * only by the global rate limit, the property requires 'increment.limits.rate.enabled';
+     * by default both are off and the whole of '/api/**' is authenticated.
+     * 
+     * @throws IllegalStateException if anonymous dashboards are set without rate limit.
+     */
     @Override
     protected void configure(HttpSecurity http) throws Exception { 
         http
-            .csrf().disable()
-            .exceptionHandling()
+            .cors()
         .and()
-            .httpBasic().authenticationEntryPoint(restAuthenticationEntryPoint)
-        .and()
-            .authorizeRequests()
-            .antMatchers(API_SUBPATH).authenticated()
+            .csrf().disable()
+            .headers()
+                .cacheControl().disable()
+                .addHeaderWriter(new DelegatingRequestMatcherHeaderWriter(
+                        new NegatedRequestMatcher(new RegexRequestMatcher(
+                                IncrementResourceController.INCREMENT_RESOURCE_REGEX, "GET")), 
+                        new CacheControlHeadersWriter()))
         .and()
-            .formLogin()
-            .successHandler(authenticationSuccessHandler)
-            .failureHandler(new SimpleUrlAuthenticationFailureHandler())
+            .exceptionHandling()
         .and()
-            .logout();
+            .httpBasic().authenticationEntryPoint(restAuthenticationEntryPoint);
+        
+        if (anonymousDashboard) {
+            if (!rateLimited) {
+                throw new IllegalStateException("increment.security.anonymous-dashboard "
+                        + "requires increment.limits.rate.enabled");
+            }
+            http.authorizeRequests()
+                .antMatchers(HttpMethod.GET, IncrementController.INCREMENT, 
+                        IncrementUpdatesController.UPDATES).permitAll();
+        }
+        http.authorizeRequests()
+            .antMatchers(API_SUBPATH).authenticated();
+        
+        if (tokenService != null) {
+            http.addFilterBefore(new TokenAuthenticationFilter(tokenService, 
+                    restAuthenticationEntryPoint, TokenController.TOKEN), 
+                    BasicAuthenticationFilter.class);
+        }
+        
+        if (stateless) {
+            http
+                .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+            .and()
+                .requestCache().requestCache(new NullRequestCache());
+        } else {
+            http
+                .formLogin()
+                .successHandler(authenticationSuccessHandler)
+                .failureHandler(new SimpleUrlAuthenticationFailureHandler())
+            .and()
+                .logout();
+        }
     }
     
     @Bean
     protected UserDetailsService userDetailsService() {   
         return (username) -> { 
-            LOG.info("Authentication attempt with username {}", username);           
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Authentication attempt with username {}", username);
+            }
             return Optional.ofNullable(userDeatailsManager()
                 .loadUserByUsername(username))
                 .orElseThrow(() -> new UsernameNotFoundException("Could not find the user '"
@@ -89,9 +190,34 @@ public class WebSecurityConfig extends  WebSecurityConfigurerAdapter  {
             };
     } 
     
+    /**
+     * Users of the application. Any change of a user drops its cached authentications.
+     * 
+     * @return users manager.
+     */
     @Bean
     protected InMemoryUserDetailsManager userDeatailsManager() {           
-        return new InMemoryUserDetailsManager();
+        return new InMemoryUserDetailsManager() {
+            
+            @Override
+            public void updateUser(final UserDetails user) {
+                super.updateUser(user);
+                cachingAuthenticationProvider().invalidate(user.getUsername());
+            }
+            
+            @Override
+            public void deleteUser(final String username) {
+                super.deleteUser(username);
+                cachingAuthenticationProvider().invalidate(username);
+            }
+            
+            @Override
+            public void changePassword(final String oldPassword, final String newPassword) {
+                super.changePassword(oldPassword, newPassword);
+                cachingAuthenticationProvider().invalidate(SecurityContextHolder.getContext()
+                        .getAuthentication().getName());
+            }
+        };
     } 
     
     
@@ -0,0 +1,223 @@
+package increment.services;
+
+import java.io.Closeable;
+import java.math.BigInteger;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decorator of {@link IncrementService}, which coalesces concurrent single value increments 
+ * into calls of {@link IncrementService#incrementAll(long[])}. Callers put their values
+ * into a lock-free queue, from which a worker thread drains batches of at most maximal 
+ * size, waiting at most maximal wait since the first value of a batch for more to come. 
+ * Every caller gets its result through {@link CompletableFuture}, either as returned by 
+ * {@link #submit(int)} and {@link #incrementAsync(int)} or waited for by 
+ * {@link #incrementAsLong(int)}. Incremented values of every batch are recorded by 
+ * {@link IncrementSummary}, since the bulk operation doesn't record them. Other operations 
+ * go straight to the decorated service.
+ * 
+ * @author Grehov
+ *
+ */
+public class BatchingIncrementService implements IncrementService, Closeable {
+    
+    private static final class Pending {
+        final int value;
+        final CompletableFuture<Long> result = new CompletableFuture<>();
+        
+        Pending(final int value) {
+            this.value = value;
+        }
+    }
+    
+    private final IncrementService delegate;
+    
+    private final IncrementSummary summary;
+    
+    private final int maxBatchSize;
+    
+    private final long maxWaitNanos;
+    
+    private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+    
+    private final AtomicBoolean sleeping = new AtomicBoolean();
+    
+    private final Thread worker;
+    
+    private volatile boolean closed;
+    
+    /**
+     * Creates service with summary of its own, which isn't logged.
+     * 
+     * @param delegate decorated service.
+     * @param maxBatchSize maximal count of values in one batch.
+     * @param maxWait maximal wait for more values since the first value of batch; 
+     *        with zero a batch is whatever is queued when the worker gets to it.
+     * @param unit unit of maximal wait.
+     */
+    public BatchingIncrementService(final IncrementService delegate, final int maxBatchSize, 
+            final long maxWait, final TimeUnit unit) {
+        this(delegate, new IncrementSummary(), maxBatchSize, maxWait, unit);
+    }
+    
+    /**
+     * @param delegate decorated service.
+     * @param summary summary recording every incremented value.
+     * @param maxBatchSize maximal count of values in one batch.
+     * @param maxWait maximal wait for more values since the first value of batch; 
+     *        with zero a batch is whatever is queued when the worker gets to it.
+     * @param unit unit of maximal wait.
+     */
+    public BatchingIncrementService(final IncrementService delegate, final IncrementSummary summary,
+            final int maxBatchSize, final long maxWait, final TimeUnit unit) {
+        this.delegate = delegate;
+        this.summary = summary;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = unit.toNanos(maxWait);
+        this.worker = new Thread(this::work, "increment-batcher");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+    
+    /**
+     * Queues value to be incremented in the next batch.
+     * 
+     * @param incremented value to be incremented.
+     * @return future of incremented value.
+     */
+    public CompletableFuture<Long> submit(final int incremented) {
+        final Pending pending = new Pending(incremented);
+        if (this.closed) {
+            pending.result.completeExceptionally(new IllegalStateException("Batching is closed"));
+            return pending.result;
+        }
+        this.queue.offer(pending);
+        if (this.sleeping.compareAndSet(true, false)) {
+            LockSupport.unpark(this.worker);
+        }
+        // the worker may have stopped before it could see the value
+        if (this.closed && this.queue.remove(pending)) {
+            pending.result.completeExceptionally(new IllegalStateException("Batching is closed"));
+        }
+        return pending.result;
+    }
+    
+    @Override
+    public BigInteger increment(final int incremented) {
+        return BigInteger.valueOf(incrementAsLong(incremented));
+    }
+    
+    @Override
+    public CompletableFuture<Long> incrementAsync(final int incremented) {
+        return submit(incremented);
+    }
+
+    @Override
+    public boolean isAsync() {
+        return true;
+    }
+
+    @Override
+    public long incrementAsLong(final int incremented) {
+        try {
+            return submit(incremented).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    @Override
+    public BigInteger increment(final long incremented) {
+        return this.delegate.increment(incremented);
+    }
+
+    @Override
+    public BigInteger increment(final BigInteger incremented) {
+        return this.delegate.increment(incremented);
+    }
+
+    @Override
+    public int[] incrementAll(final long[] incremented) {
+        return this.delegate.incrementAll(incremented);
+    }
+    
+    /**
+     * Stops the worker, once it has completed everything queued.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        LockSupport.unpark(this.worker);
+        try {
+            this.worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /*
+     * Loop of the worker thread. Batch array is reused, since the worker is single.
+     */
+    private void work() {
+        final Pending[] batch = new Pending[this.maxBatchSize];
+        while (true) {
+            int size = 0;
+            long deadline = 0L;
+            while (size < this.maxBatchSize) {
+                final Pending pending = this.queue.poll();
+                if (pending != null) {
+                    if (size == 0) {
+                        deadline = System.nanoTime() + this.maxWaitNanos;
+                    }
+                    batch[size++] = pending;
+                    continue;
+                }
+                final long remaining = size == 0 ? Long.MAX_VALUE : deadline - System.nanoTime();
+                if (remaining <= 0L || (this.closed && size > 0)) {
+                    break;
+                }
+                if (this.closed) {
+                    return;
+                }
+                this.sleeping.set(true);
+                if (this.queue.isEmpty()) {
+                    if (size == 0) {
+                        LockSupport.park(this);
+                    } else {
+                        LockSupport.parkNanos(this, remaining);
+                    }
+                }
+                this.sleeping.set(false);
+            }
+            complete(batch, size);
+        }
+    }
+    
+    private void complete(final Pending[] batch, final int size) {
+        try {
+            final long[] incremented = new long[size];
+            for (int i = 0; i < size; i++) {
+                incremented[i] = batch[i].value;
+            }
+            // no int overflows a long when incremented
+            this.delegate.incrementAll(incremented);
+            for (int i = 0; i < size; i++) {
+                this.summary.record(incremented[i]);
+                batch[i].result.complete(incremented[i]);
+            }
+        } catch (RuntimeException e) {
+            for (int i = 0; i < size; i++) {
+                batch[i].result.completeExceptionally(e);
+            }
+        } finally {
+            for (int i = 0; i < size; i++) {
+                batch[i] = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package increment.services;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import increment.cluster.GossipMessage;
+import increment.cluster.GossipTransport;
+import increment.cluster.PnCounterStore;
+import increment.counters.CounterLimitException;
+import increment.counters.CounterNameException;
+import increment.counters.CounterNames;
+
+/**
+ * Implementation of {@link CounterService} sharing counters among instances of the 
+ * application as PN-Counters of {@link PnCounterStore}. Increments are local, with no 
+ * coordination, and changed counters are gossiped to every peer every round, full state
+ * every given count of rounds. Values are eventually consistent: a counter read at a node
+ * includes all increments made at it, and increments at other nodes once they have been 
+ * gossiped. It's enabled by 'increment.counters.store' of 'clustered'.
+ * 
+ * @author Grehov
+ *
+ */
+public class ClusteredCounterService implements CounterService {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(ClusteredCounterService.class);
+    
+    private final PnCounterStore store;
+    
+    private final GossipTransport transport;
+    
+    private final List<String> peers;
+    
+    private final int fullSyncEvery;
+    
+    private final LongAdder failures;
+    
+    private long round;
+    
+    /**
+     * @param store state of this node.
+     * @param transport transport to peers.
+     * @param peers addresses of peers.
+     * @param fullSyncEvery count of rounds between gossips of full state.
+     * @param failures counter of messages not delivered.
+     */
+    public ClusteredCounterService(final PnCounterStore store, final GossipTransport transport, 
+            final List<String> peers, final int fullSyncEvery, final LongAdder failures) {
+        if (fullSyncEvery < 1) {
+            throw new IllegalArgumentException("Full sync must be every 1 or more rounds");
+        }
+        this.store = store;
+        this.transport = transport;
+        this.peers = peers;
+        this.fullSyncEvery = fullSyncEvery;
+        this.failures = failures;
+    }
+
+    @Override
+    public long increment(final String name) throws CounterLimitException, CounterNameException {
+        return this.store.add(CounterNames.check(name), 1L);
+    }
+
+    @Override
+    public OptionalLong value(final String name) throws CounterNameException {
+        return this.store.value(CounterNames.check(name));
+    }
+    
+    /**
+     * Merges state gossiped by peer.
+     * 
+     * @param message state of peer.
+     * @throws IllegalArgumentException if the message is malformed, nothing is merged then.
+     */
+    public void receive(final GossipMessage message) throws IllegalArgumentException {
+        this.store.merge(message);
+    }
+    
+    /**
+     * Gossips one round to every peer. Rounds aren't run concurrently.
+     */
+    @Scheduled(fixedDelayString = "${increment.cluster.gossip-interval-ms}")
+    public synchronized void gossip() {
+        final boolean full = this.round++ % this.fullSyncEvery == 0;
+        final GossipMessage message = full ? this.store.full() : this.store.delta();
+        if (message.getCounters().isEmpty()) {
+            return;
+        }
+        for (final String peer : this.peers) {
+            try {
+                this.transport.send(peer, message);
+            } catch (RuntimeException e) {
+                this.failures.increment();
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Gossip to {} failed: {}", peer, e.toString());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package increment.services;
+
+import java.util.OptionalLong;
+
+import increment.counters.CounterLimitException;
+import increment.counters.CounterNameException;
+import increment.counters.CounterNames;
+
+/**
+ * Representation of service providing named counters shared by all clients. Every
+ * implementation accepts the same names, no longer than {@value CounterNames#MAX_BYTES} 
+ * bytes in UTF-8, whichever store keeps counters.
+ * 
+ * @author Grehov
+ *
+ */
+public interface CounterService {
+    
+    /**
+     * Increments counter of given name, which starts at zero. The increment itself is 
+     * atomic, but under concurrent increments of the same counter the returned value is 
+     * its sum at some moment after the increment, i.e. it includes the increment, but 
+     * several callers may see the same value.
+     * 
+     * @param name name of counter.
+     * @return value of counter after incrementing.
+     * @throws CounterLimitException if the counter is new and there are already maximal
+     *         count of counters.
+     * @throws CounterNameException if name is longer than {@value CounterNames#MAX_BYTES} 
+     *         bytes in UTF-8.
+     */
+    long increment(String name) throws CounterLimitException, CounterNameException;
+    
+    /**
+     * @param name name of counter.
+     * @return value of counter, empty if it has never been incremented.
+     * @throws CounterNameException if name is longer than {@value CounterNames#MAX_BYTES} 
+     *         bytes in UTF-8.
+     */
+    OptionalLong value(String name) throws CounterNameException;
+}
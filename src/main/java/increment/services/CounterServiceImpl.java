@@ -0,0 +1,68 @@
+package increment.services;
+
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import increment.counters.CounterJournal;
+import increment.counters.CounterLimitException;
+import increment.counters.CounterMap;
+import increment.counters.CounterNameException;
+import increment.counters.CounterNames;
+
+/**
+ * Implementation of {@link CounterService} keeping counters in memory as {@link LongAdder}s,
+ * so that increments of a hot counter from many cores go to different cells instead of
+ * contending on one CAS. If {@link CounterJournal} is configured, counters are recovered
+ * from it and every increment is appended to it before it's applied. It's the default
+ * store, 'increment.counters.store' of 'heap'.
+ * 
+ * @author Grehov
+ *
+ */
+@Service
+@ConditionalOnProperty(prefix = "increment.counters", name = "store", havingValue = "heap", 
+        matchIfMissing = true)
+public class CounterServiceImpl implements CounterService {
+    
+    private final CounterMap counters;
+    
+    private final CounterJournal journal;
+    
+    /**
+     * Injection constructor.
+     * 
+     * @param maxCount maximal count of counters.
+     * @param journal journal of counters, if configured.
+     */
+    @Autowired
+    public CounterServiceImpl(@Value("${increment.counters.max-count:100000}") final int maxCount, 
+            final ObjectProvider<CounterJournal> journal) {
+        this.counters = new CounterMap(maxCount);
+        this.journal = journal.getIfAvailable();
+        if (this.journal != null) {
+            this.journal.forEachRecovered((name, value) -> this.counters.getOrCreate(name).add(value));
+        }
+    }
+
+    @Override
+    public long increment(final String name) throws CounterLimitException, CounterNameException {
+        final LongAdder counter = this.counters.getOrCreate(CounterNames.check(name));
+        if (this.journal != null) {
+            this.journal.append(name, 1L);
+        }
+        counter.increment();
+        return counter.sum();
+    }
+
+    @Override
+    public OptionalLong value(final String name) throws CounterNameException {
+        final LongAdder counter = this.counters.get(CounterNames.check(name));
+        return counter != null ? OptionalLong.of(counter.sum()) : OptionalLong.empty();
+    }
+}
@@ -1,6 +1,7 @@
 package increment.services;
 
 import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Representation of service directly providing incrementing operation.
@@ -21,4 +22,62 @@ public interface IncrementService {
      * 
      */
     BigInteger increment( int incremented);
+    
+    /**
+     * Primitive form of {@link #increment(int)}. Incremented value of any {@code int} 
+     * always fits in {@code long}, so no {@link BigInteger} is allocated.
+     * 
+     * @param incremented value to be incremented.
+     * @return incremented value.
+     */
+    long incrementAsLong(int incremented);
+    
+    /**
+     * Asynchronous form of {@link #incrementAsLong(int)}, for services which queue 
+     * increments, so that callers needn't hold a thread while waiting. By default 
+     * the value is incremented at once and the returned future is completed already.
+     * 
+     * @param incremented value to be incremented.
+     * @return future of incremented value.
+     */
+    default CompletableFuture<Long> incrementAsync(final int incremented) {
+        return CompletableFuture.completedFuture(incrementAsLong(incremented));
+    }
+    
+    /**
+     * Tells whether increments are queued, e.g. by batching, so that callers should use 
+     * {@link #incrementAsync(int)}; otherwise {@link #incrementAsLong(int)} returns at once 
+     * and no future needs to be allocated. {@code false} by default.
+     * 
+     * @return {@code true} if single value increments complete asynchronously.
+     */
+    default boolean isAsync() {
+        return false;
+    }
+    
+    /**
+     * Wide range form of {@link #increment(int)}.
+     * 
+     * @param incremented value to be incremented.
+     * @return incremented value, which is {@code 2^63} for {@link Long#MAX_VALUE}.
+     */
+    BigInteger increment(long incremented);
+    
+    /**
+     * Arbitrary precision form of {@link #increment(int)}.
+     * 
+     * @param incremented value to be incremented.
+     * @return incremented value.
+     */
+    BigInteger increment(BigInteger incremented);
+    
+    /**
+     * Bulk form of {@link #increment(long)}, which increments every value of given array 
+     * in place. Lanes holding {@link Long#MAX_VALUE} overflow to {@link Long#MIN_VALUE},
+     * their indexes are returned, so that the caller can take them as {@code 2^63}.
+     * 
+     * @param incremented values to be incremented, replaced by incremented values.
+     * @return ascending indexes of overflowed lanes, usually empty.
+     */
+    int[] incrementAll(long[] incremented);
 }
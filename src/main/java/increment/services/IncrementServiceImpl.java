@@ -4,17 +4,92 @@ import java.math.BigInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
 public class IncrementServiceImpl implements IncrementService {
     
     private static final Logger LOG = LoggerFactory.getLogger(IncrementServiceImpl.class);
+    
+    private static final int[] NO_LANES = new int[0];
+    
+    private final IncrementSummary summary;
+    
+    /**
+     * Creates service with summary of its own, which isn't logged.
+     */
+    public IncrementServiceImpl() {
+        this(new IncrementSummary());
+    }
+    
+    /**
+     * Injection constructor.
+     * 
+     * @param summary summary recording every incremented value.
+     */
+    @Autowired
+    public IncrementServiceImpl(final IncrementSummary summary) {
+        this.summary = summary;
+    }
 
     @Override
     public BigInteger increment(int toIncrement) {
-        final BigInteger incremented = BigInteger.valueOf(toIncrement).add(BigInteger.ONE);
-        LOG.info("Value after incrementing: {}", incremented);
+        return BigInteger.valueOf(incrementAsLong(toIncrement));
+    }
+    
+    @Override
+    public long incrementAsLong(int toIncrement) {
+        final long incremented = (long) toIncrement + 1L;
+        this.summary.record(incremented);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Value after incrementing: {}", incremented);
+        }
         return incremented;
     }
+    
+    @Override
+    public BigInteger increment(final long toIncrement) {
+        return toIncrement != Long.MAX_VALUE ? BigInteger.valueOf(toIncrement + 1L) 
+                : BigInteger.valueOf(toIncrement).add(BigInteger.ONE);
+    }
+    
+    @Override
+    public BigInteger increment(final BigInteger toIncrement) {
+        return toIncrement.add(BigInteger.ONE);
+    }
+    
+    /*
+     * The main loop is branch free, so that the JIT can vectorize it. A lane overflows 
+     * iff its sign goes from 0 to 1, which is gathered by or-ing of the signs. Only if
+     * any lane overflowed, the array is scanned again for Long.MIN_VALUE, which is 
+     * the result of overflow only.
+     */
+    @Override
+    public int[] incrementAll(final long[] toIncrement) {
+        long overflow = 0L;
+        for (int i = 0; i < toIncrement.length; i++) {
+            final long value = toIncrement[i];
+            final long incremented = value + 1L;
+            toIncrement[i] = incremented;
+            overflow |= ~value & incremented;
+        }
+        if (overflow >= 0L) {
+            return NO_LANES;
+        }
+        
+        int count = 0;
+        for (long incremented : toIncrement) {
+            if (incremented == Long.MIN_VALUE) {
+                count++;
+            }
+        }
+        final int[] lanes = new int[count];
+        for (int i = 0, lane = 0; lane < count; i++) {
+            if (toIncrement[i] == Long.MIN_VALUE) {
+                lanes[lane++] = i;
+            }
+        }
+        return lanes;
+    }
 }
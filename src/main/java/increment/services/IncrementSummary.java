@@ -0,0 +1,53 @@
+package increment.services;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aggregate of incremented values, logged as one line per interval in place of a line
+ * per value. Interval is set with 'increment.logging.summary-interval-ms'.
+ * Recording is lock-free and allocates nothing.
+ * 
+ * @author Grehov
+ *
+ */
+@Component
+public class IncrementSummary {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(IncrementSummary.class);
+    
+    private final LongAdder count = new LongAdder();
+    
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    
+    private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+    
+    /**
+     * Records value after incrementing.
+     * 
+     * @param incremented value after incrementing.
+     */
+    public void record(final long incremented) {
+        this.count.increment();
+        this.min.accumulate(incremented);
+        this.max.accumulate(incremented);
+    }
+    
+    /**
+     * Logs values recorded since previous call, if any, and starts new interval.
+     */
+    @Scheduled(fixedRateString = "${increment.logging.summary-interval-ms:1000}")
+    public void log() {
+        final long count = this.count.sumThenReset();
+        final long min = this.min.getThenReset();
+        final long max = this.max.getThenReset();
+        if (count > 0) {
+            LOG.info("Values after incrementing: count {}, min {}, max {}", count, min, max);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package increment.services;
+
+import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
+
+import increment.metrics.LatencyRecorder;
+import increment.metrics.Metrics;
+
+/**
+ * Decorator of {@link IncrementService}, which records latency of every call 
+ * as 'service.increment', or as 'service.increment_all' for bulk calls. Latency of 
+ * asynchronous calls lasts until their results are completed.
+ * 
+ * @author Grehov
+ *
+ */
+public class MeteredIncrementService implements IncrementService {
+    
+    private final IncrementService delegate;
+    
+    private final LatencyRecorder timer;
+    
+    private final LatencyRecorder bulkTimer;
+    
+    /**
+     * @param delegate decorated service.
+     * @param metrics registry of metrics.
+     */
+    public MeteredIncrementService(final IncrementService delegate, final Metrics metrics) {
+        this.delegate = delegate;
+        this.timer = metrics.timer("service.increment");
+        this.bulkTimer = metrics.timer("service.increment_all");
+    }
+
+    @Override
+    public BigInteger increment(final int incremented) {
+        final long start = System.nanoTime();
+        try {
+            return this.delegate.increment(incremented);
+        } finally {
+            this.timer.recordSince(start);
+        }
+    }
+
+    @Override
+    public long incrementAsLong(final int incremented) {
+        final long start = System.nanoTime();
+        try {
+            return this.delegate.incrementAsLong(incremented);
+        } finally {
+            this.timer.recordSince(start);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Long> incrementAsync(final int incremented) {
+        final long start = System.nanoTime();
+        final CompletableFuture<Long> result;
+        try {
+            result = this.delegate.incrementAsync(incremented);
+        } catch (RuntimeException e) {
+            this.timer.recordSince(start);
+            throw e;
+        }
+        if (result.isDone()) {
+            this.timer.recordSince(start);
+            return result;
+        }
+        return result.whenComplete((value, failure) -> this.timer.recordSince(start));
+    }
+
+    @Override
+    public boolean isAsync() {
+        return this.delegate.isAsync();
+    }
+
+    @Override
+    public BigInteger increment(final long incremented) {
+        final long start = System.nanoTime();
+        try {
+            return this.delegate.increment(incremented);
+        } finally {
+            this.timer.recordSince(start);
+        }
+    }
+
+    @Override
+    public BigInteger increment(final BigInteger incremented) {
+        final long start = System.nanoTime();
+        try {
+            return this.delegate.increment(incremented);
+        } finally {
+            this.timer.recordSince(start);
+        }
+    }
+
+    @Override
+    public int[] incrementAll(final long[] incremented) {
+        final long start = System.nanoTime();
+        try {
+            return this.delegate.incrementAll(incremented);
+        } finally {
+            this.bulkTimer.recordSince(start);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package increment.services;
+
+import java.util.OptionalLong;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import increment.counters.CounterJournal;
+import increment.counters.CounterLimitException;
+import increment.counters.CounterNameException;
+import increment.counters.OffHeapCounterMap;
+
+/**
+ * Implementation of {@link CounterService} keeping counters off the heap in 
+ * {@link OffHeapCounterMap}, for key spaces so large, that objects per counter would 
+ * make pauses of the garbage collector too long. Increments of the same counter are 
+ * serialized by lock of its segment, so the returned value is exactly the value after 
+ * the increment. If {@link CounterJournal} is configured, counters are recovered from it 
+ * and every increment is appended to it before it's applied. It's enabled by 
+ * 'increment.counters.store' of 'off-heap'.
+ * 
+ * @author Grehov
+ *
+ */
+@Service
+@ConditionalOnProperty(prefix = "increment.counters", name = "store", havingValue = "off-heap")
+public class OffHeapCounterService implements CounterService {
+    
+    private final OffHeapCounterMap counters;
+    
+    private final CounterJournal journal;
+    
+    /**
+     * Injection constructor.
+     * 
+     * @param maxCount maximal count of counters.
+     * @param journal journal of counters, if configured.
+     */
+    @Autowired
+    public OffHeapCounterService(@Value("${increment.counters.max-count:100000}") final int maxCount, 
+            final ObjectProvider<CounterJournal> journal) {
+        this.counters = new OffHeapCounterMap(maxCount);
+        this.journal = journal.getIfAvailable();
+        if (this.journal != null) {
+            this.journal.forEachRecovered(this.counters::add);
+        }
+    }
+
+    @Override
+    public long increment(final String name) throws CounterLimitException, CounterNameException {
+        if (this.journal != null) {
+            // the counter is created first, so that no increment beyond the limit is journaled
+            this.counters.add(name, 0L);
+            this.journal.append(name, 1L);
+        }
+        return this.counters.add(name, 1L);
+    }
+
+    @Override
+    public OptionalLong value(final String name) throws CounterNameException {
+        return this.counters.get(name);
+    }
+}
@@ -0,0 +1,78 @@
+package increment.services;
+
+import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
+
+import increment.push.IncrementUpdates;
+
+/**
+ * Decorator of {@link IncrementService}, which records increments of {@code int} values
+ * for {@link IncrementUpdates}. Wider and bulk increments aren't shown on dashboards.
+ * 
+ * @author Grehov
+ *
+ */
+public class PublishingIncrementService implements IncrementService {
+    
+    private final IncrementService delegate;
+    
+    private final IncrementUpdates updates;
+    
+    /**
+     * @param delegate decorated service.
+     * @param updates producer of updates.
+     */
+    public PublishingIncrementService(final IncrementService delegate, final IncrementUpdates updates) {
+        this.delegate = delegate;
+        this.updates = updates;
+    }
+
+    @Override
+    public BigInteger increment(final int incremented) {
+        final BigInteger result = this.delegate.increment(incremented);
+        this.updates.record(incremented);
+        return result;
+    }
+
+    @Override
+    public long incrementAsLong(final int incremented) {
+        final long result = this.delegate.incrementAsLong(incremented);
+        this.updates.record(incremented);
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Long> incrementAsync(final int incremented) {
+        final CompletableFuture<Long> result = this.delegate.incrementAsync(incremented);
+        if (result.isDone()) {
+            if (!result.isCompletedExceptionally()) {
+                this.updates.record(incremented);
+            }
+            return result;
+        }
+        return result.thenApply(value -> {
+            this.updates.record(incremented);
+            return value;
+        });
+    }
+
+    @Override
+    public boolean isAsync() {
+        return this.delegate.isAsync();
+    }
+
+    @Override
+    public BigInteger increment(final long incremented) {
+        return this.delegate.increment(incremented);
+    }
+
+    @Override
+    public BigInteger increment(final BigInteger incremented) {
+        return this.delegate.increment(incremented);
+    }
+
+    @Override
+    public int[] incrementAll(final long[] incremented) {
+        return this.delegate.incrementAll(incremented);
+    }
+}
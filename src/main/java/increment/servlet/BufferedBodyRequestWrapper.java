@@ -0,0 +1,122 @@
+package increment.servlet;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * Request, whose body was read by a filter already and is served from memory. 
+ * The body is always ready, so both blocking reads and Servlet 3.1 non-blocking reads 
+ * are supported: a {@link ReadListener} is called back at once with all of the body 
+ * available and then with all of it read.
+ * <p>
+ * The wrapper may be reused for another request with {@link #reset(HttpServletRequest, int)}
+ * once the previous request is done with it, so that a filter needn't allocate per request.
+ * 
+ * @author Grehov
+ *
+ */
+public class BufferedBodyRequestWrapper extends HttpServletRequestWrapper {
+    
+    private final byte[] body;
+    
+    private int position;
+    
+    private int length;
+    
+    private final ServletInputStream input = new ServletInputStream() {
+        
+        @Override
+        public int read() {
+            return position < length ? body[position++] & 0xFF : -1;
+        }
+        
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (position >= length) {
+                return -1;
+            }
+            final int read = Math.min(len, length - position);
+            System.arraycopy(body, position, b, off, read);
+            position += read;
+            return read;
+        }
+        
+        @Override
+        public int available() {
+            return length - position;
+        }
+        
+        @Override
+        public boolean isFinished() {
+            return position >= length;
+        }
+        
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+        
+        @Override
+        public void setReadListener(final ReadListener readListener) {
+            try {
+                if (!isFinished()) {
+                    readListener.onDataAvailable();
+                }
+                readListener.onAllDataRead();
+            } catch (IOException | RuntimeException e) {
+                readListener.onError(e);
+            }
+        }
+    };
+    
+    /**
+     * @param request wrapped request.
+     * @param body buffer holding the body.
+     * @param length length of the body at the start of the buffer.
+     */
+    public BufferedBodyRequestWrapper(final HttpServletRequest request, final byte[] body, final int length) {
+        super(request);
+        this.body = body;
+        this.length = length;
+    }
+    
+    /**
+     * @return buffer holding the body, into which body of the next request may be read 
+     *         before {@link #reset(HttpServletRequest, int)}.
+     */
+    public byte[] getBuffer() {
+        return this.body;
+    }
+    
+    /**
+     * Reuses the wrapper for another request, whose body is in the buffer already.
+     * 
+     * @param request wrapped request.
+     * @param length length of the body at the start of the buffer.
+     */
+    public void reset(final HttpServletRequest request, final int length) {
+        setRequest(request);
+        this.position = 0;
+        this.length = length;
+    }
+    
+    @Override
+    public ServletInputStream getInputStream() {
+        return this.input;
+    }
+    
+    @Override
+    public BufferedReader getReader() {
+        final String encoding = getCharacterEncoding();
+        return new BufferedReader(new InputStreamReader(this.input, 
+                encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1));
+    }
+}
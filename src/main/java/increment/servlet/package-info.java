@@ -0,0 +1,8 @@
+/**
+ * Servlet API helpers shared by the filters of other layers.
+ * 
+ * @author Grehov
+ *
+ */
+
+package increment.servlet;
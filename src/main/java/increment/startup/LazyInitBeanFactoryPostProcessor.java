@@ -0,0 +1,74 @@
+package increment.startup;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Marks application beans lazy, so that the context starts with what the embedded 
+ * container and the security filter chain need, and the rest, e.g. controllers and
+ * services, are created on first use. Infrastructure beans and beans with 
+ * {@link Scheduled} methods stay eager, since nothing else would create them; 
+ * so do beans, whose class can't be told from their definition.
+ * <p>
+ * First requests pay for the creation of what they use, which is traded for time to
+ * accept connections.
+ * 
+ * @author Grehov
+ *
+ */
+public class LazyInitBeanFactoryPostProcessor implements BeanFactoryPostProcessor {
+    
+    @Override
+    public void postProcessBeanFactory(final ConfigurableListableBeanFactory beanFactory) 
+            throws BeansException {
+        for (final String name : beanFactory.getBeanDefinitionNames()) {
+            final BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            if (definition.isSingleton() && !definition.isLazyInit() 
+                    && definition.getRole() == BeanDefinition.ROLE_APPLICATION
+                    && !isScheduled(beanClassName(definition), beanFactory.getBeanClassLoader())) {
+                definition.setLazyInit(true);
+            }
+        }
+    }
+    
+    /*
+     * Class name of bean of given definition, the return type of its factory method if it has one.
+     */
+    private static String beanClassName(final BeanDefinition definition) {
+        if (definition instanceof AnnotatedBeanDefinition) {
+            final MethodMetadata factoryMethod = ((AnnotatedBeanDefinition) definition).getFactoryMethodMetadata();
+            if (factoryMethod != null) {
+                return factoryMethod.getReturnTypeName();
+            }
+        }
+        return definition.getFactoryMethodName() == null ? definition.getBeanClassName() : null;
+    }
+    
+    /*
+     * Whether given class has scheduled methods, true if it's unknown.
+     */
+    private static boolean isScheduled(final String className, final ClassLoader classLoader) {
+        if (className == null) {
+            return true;
+        }
+        final Class<?> type;
+        try {
+            type = ClassUtils.forName(className, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return true;
+        }
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(type, method -> scheduled.set(true), 
+                method -> method.isAnnotationPresent(Scheduled.class));
+        return scheduled.get();
+    }
+}
@@ -0,0 +1,8 @@
+/**
+ * Startup time: lazy initialization of beans for instances started under load.
+ * 
+ * @author Grehov
+ *
+ */
+
+package increment.startup;
@@ -0,0 +1,67 @@
+package increment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import increment.api.IncrementController;
+
+/**
+ * Tests of 'fast-start' profile: beans are created on first use, except scheduled ones, 
+ * and auto-configuration unused by the API is excluded.
+ *  
+ * @author Grehov
+ *
+ */
+@ActiveProfiles({"dev", "fast-start"})
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = {Increment.class}, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class FastStartIntTest {
+    
+    @Value("${increment.client-username}")
+    private String clientUsername;
+    
+    @Value("${increment.client-password}")
+    private String clientPassword;
+    
+    @Autowired
+    private ConfigurableApplicationContext context;
+    
+    @Autowired
+    private TestRestTemplate restTemplate;
+    
+    /*
+     * Testing strategy for the application started with 'fast-start' profile
+     * 
+     * Partitions:
+     *    bean: controller, scheduled, excluded auto-configuration;
+     *    request: none yet, served;
+     *    
+     *    # bean is created on first request, at startup or never
+     */
+    
+    @Test
+    public void testFastStart_FirstRequest_ControllerCreatedOnUse() {
+        assertThat(this.context.getBeanFactory().containsSingleton("incrementResourceController")).isFalse();
+        assertThat(this.context.getBeanFactory().containsSingleton("incrementSummary")).isTrue();
+        assertThat(this.context.containsBean("mbeanExporter")).isFalse();
+        
+        final ResponseEntity<String> response = this.restTemplate
+                .withBasicAuth(this.clientUsername, this.clientPassword)
+                .getForEntity(IncrementController.INCREMENT + "/41", String.class);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo("{\"incremented\":\"42\"}");
+        assertThat(this.context.getBeanFactory().containsSingleton("incrementResourceController")).isTrue();
+    }
+}
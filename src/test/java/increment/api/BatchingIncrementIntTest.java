@@ -0,0 +1,100 @@
+package increment.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import increment.Increment;
+import increment.idempotency.IdempotencyFilter;
+
+/**
+ * Tests of the endpoints with batching enabled, run against the embedded container, 
+ * since their results are completed asynchronously.
+ *  
+ * @author Grehov
+ *
+ */
+@ActiveProfiles("dev")
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = {Increment.class}, properties = "increment.batching.enabled=true",
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class BatchingIncrementIntTest {
+    
+    @Value("${increment.client-username}")
+    private String clientUsername;
+    
+    @Value("${increment.client-password}")
+    private String clientPassword;
+    
+    @Autowired
+    private TestRestTemplate restTemplate;
+    
+    private ResponseEntity<String> patch(final String content) {
+        return patch(content, "");
+    }
+    
+    private ResponseEntity<String> patch(final String content, final String key) {
+        final TestRestTemplate restTemplate = this.restTemplate.withBasicAuth(clientUsername, clientPassword);
+        return restTemplate.exchange(RequestEntity.method(HttpMethod.PATCH, 
+                restTemplate.getRestTemplate().getUriTemplateHandler().expand(IncrementController.INCREMENT))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                .body(content), String.class);
+    }
+    
+    /*
+     * Testing strategy for IncrementController with BatchingIncrementService:
+     * 
+     * Partitions:
+     *    request: null, Integer.Max, query, repeated with idempotency key;
+     *    
+     *    # responds: NO_CONTENT, OK with incremented value, replayed;
+     */
+    
+    @Test
+    public void testIncrement_Null_NoContent() {
+        assertThat(patch("null").getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+    }
+    
+    @Test
+    public void testIncrement_IntegerMax_IntegerMaxPlusOne() {
+        final ResponseEntity<String> response = patch(Integer.toString(Integer.MAX_VALUE));
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(Long.toString((long) Integer.MAX_VALUE + 1L));
+    }
+    
+    @Test
+    public void testIncrement_RepeatedIdempotencyKey_Replayed() {
+        final String key = "batching-" + System.nanoTime();
+        final ResponseEntity<String> first = patch("41", key);
+        final ResponseEntity<String> second = patch("41", key);
+        
+        assertThat(first.getBody()).isEqualTo("42");
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getBody()).isEqualTo("42");
+        assertThat(second.getHeaders().getFirst(IdempotencyFilter.REPLAYED)).isEqualTo("true");
+    }
+    
+    @Test
+    public void testIncrementQuery_Value_Incremented() {
+        final ResponseEntity<String> response = restTemplate.withBasicAuth(clientUsername, clientPassword)
+                .getForEntity(IncrementController.INCREMENT + "?value=41", String.class);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo("{\"incremented\":\"42\"}");
+    }
+}
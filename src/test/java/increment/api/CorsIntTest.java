@@ -0,0 +1,111 @@
+package increment.api;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.options;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import increment.Increment;
+
+/**
+ * CORS tests of the API with the security filter chain.
+ *  
+ * @author Grehov
+ *
+ */
+@ActiveProfiles("dev")
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = {Increment.class}, 
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"increment.cors.allowed-origins=https://dashboard.example.com", 
+            "increment.cors.max-age-seconds=600", "increment.security.anonymous-dashboard=true",
+            "increment.limits.rate.enabled=true"})
+public class CorsIntTest {
+    
+    private static final String ORIGIN = "https://dashboard.example.com";
+    
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    
+    @Autowired
+    private FilterChainProxy springSecurityFilterChain;
+    
+    private MockMvc mockMvc;
+
+    @Before
+    public void before() {
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .addFilters(this.springSecurityFilterChain).build();
+    }
+    
+    /*
+     * Testing strategy for CORS of '/api/**':
+     * 
+     * Partitions:
+     *    request: preflight, actual unauthenticated dashboard read, JSONP unauthenticated,
+     *        actual unauthenticated other;
+     *    origin: allowed, other, none;
+     *    
+     *    # preflight is answered before authentication with max age, or FORBIDDEN;
+     *      dashboard reads are served anonymously, other requests are UNAUTHORIZED
+     */
+    
+    @Test
+    public void testPreflight_AllowedOrigin_AnsweredWithMaxAge() throws Exception {
+        mockMvc.perform(options(IncrementController.INCREMENT)
+                .header(HttpHeaders.ORIGIN, ORIGIN)
+                .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "PATCH")
+                .header(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS, "authorization, content-type"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, ORIGIN))
+                .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true"))
+                .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_MAX_AGE, "600"));
+    }
+    
+    @Test
+    public void testPreflight_OtherOrigin_Forbidden() throws Exception {
+        mockMvc.perform(options(IncrementController.INCREMENT)
+                .header(HttpHeaders.ORIGIN, "https://evil.example.com")
+                .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "PATCH"))
+                .andExpect(status().isForbidden());
+    }
+    
+    @Test
+    public void testGet_AllowedOriginUnauthenticated_Unauthorized() throws Exception {
+        mockMvc.perform(get(IncrementResourceController.INCREMENT_RESOURCE, 1)
+                .header(HttpHeaders.ORIGIN, ORIGIN))
+                .andExpect(status().isUnauthorized());
+    }
+    
+    @Test
+    public void testGet_AllowedOriginUnauthenticatedDashboardRead_Served() throws Exception {
+        mockMvc.perform(get(IncrementController.INCREMENT).param(IncrementController.VALUE_PARAM, "1")
+                .header(HttpHeaders.ORIGIN, ORIGIN))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, ORIGIN))
+                .andExpect(content().string("{\"incremented\":\"2\"}"));
+    }
+    
+    @Test
+    public void testGet_JsonpUnauthenticated_Served() throws Exception {
+        mockMvc.perform(get(IncrementController.INCREMENT).param(IncrementController.VALUE_PARAM, "41")
+                .param(JsonpAdvice.CALLBACK_PARAM, "__gwt_jsonp__.P0.onSuccess"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "/**/__gwt_jsonp__.P0.onSuccess({\"incremented\":\"42\"});"));
+    }
+}
@@ -0,0 +1,72 @@
+package increment.api;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.WebApplicationContext;
+
+import increment.Increment;
+
+@ActiveProfiles("dev")
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = {Increment.class},
+webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class CounterControllerIntegrationTest {
+    
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    
+    private MockMvc mockMvc;
+    
+    @Before
+    public void setUp() {
+        this.mockMvc = webAppContextSetup(webApplicationContext).build();
+    }
+    
+    /*
+     * Testing strategy for:
+     *   public ResponseEntity<Long> increment(@PathVariable final String name)
+     *   public ResponseEntity<Long> value(@PathVariable final String name)
+     * 
+     * Partitions:
+     *    name: valid never incremented, valid incremented, invalid;
+     *    
+     *    # returns value with according http status: OK, NOT_FOUND;
+     */
+    
+    @Test
+    public void testIncrement_NewCounter_OneThenTwo() throws Exception {
+        mockMvc.perform(post(CounterController.COUNTERS + "/visits/increment"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("1"));
+        mockMvc.perform(post(CounterController.COUNTERS + "/visits/increment"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2"));
+        mockMvc.perform(get(CounterController.COUNTERS + "/visits"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2"));
+    }
+    
+    @Test
+    public void testValue_NeverIncremented_NotFound() throws Exception {
+        mockMvc.perform(get(CounterController.COUNTERS + "/unknown"))
+                .andExpect(status().isNotFound());
+    }
+    
+    @Test
+    public void testIncrement_InvalidName_NotFound() throws Exception {
+        mockMvc.perform(post(CounterController.COUNTERS + "/a$b/increment"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,84 @@
+package increment.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.embedded.LocalServerPort;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.client.HttpClientErrorException;
+
+import increment.Increment;
+import increment.cluster.GossipMessage;
+import increment.cluster.HttpGossipTransport;
+import increment.services.ClusteredCounterService;
+import increment.services.CounterService;
+
+@ActiveProfiles("dev")
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = {Increment.class},
+webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+properties = {"increment.counters.store=clustered", "increment.cluster.node-id=a", 
+        "increment.cluster.secret=secret"})
+public class GossipControllerIntTest {
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private CounterService counterService;
+    
+    /*
+     * Testing strategy for:
+     *   public ResponseEntity<Void> gossip(String secret, GossipMessage message)
+     * 
+     * Partitions:
+     *    secret: matching, not matching;
+     *    message: valid, malformed;
+     *    
+     *    # merges message, or responds FORBIDDEN, or BAD_REQUEST merging nothing
+     */
+    
+    @Test
+    public void testGossip_MatchingSecret_Merged() {
+        assertThat(this.counterService).isInstanceOf(ClusteredCounterService.class);
+        this.counterService.increment("visits");
+        
+        new HttpGossipTransport("secret", 1000).send("http://localhost:" + this.port, message("b", 41));
+        
+        assertThat(this.counterService.value("visits")).isEqualTo(OptionalLong.of(42));
+    }
+    
+    @Test(expected = HttpClientErrorException.class)
+    public void testGossip_WrongSecret_Forbidden() {
+        new HttpGossipTransport("wrong", 1000).send("http://localhost:" + this.port, message("c", 1));
+    }
+    
+    @Test
+    public void testGossip_MalformedComponent_BadRequestNothingMerged() {
+        final Map<String, Map<String, long[]>> counters = new LinkedHashMap<>();
+        counters.put("pages", Collections.singletonMap("d", new long[] {7, 0}));
+        counters.put("visits", Collections.singletonMap("d", new long[] {1}));
+        
+        assertThatThrownBy(() -> new HttpGossipTransport("secret", 1000).send("http://localhost:" + this.port, 
+                new GossipMessage("d", counters)))
+            .isInstanceOf(HttpClientErrorException.class)
+            .hasMessageStartingWith(Integer.toString(HttpStatus.BAD_REQUEST.value()));
+        assertThat(this.counterService.value("pages")).isEqualTo(OptionalLong.empty());
+    }
+    
+    private static GossipMessage message(final String node, final long increments) {
+        return new GossipMessage(node, Collections.singletonMap("visits", 
+                Collections.singletonMap(node, new long[] {increments, 0})));
+    }
+}
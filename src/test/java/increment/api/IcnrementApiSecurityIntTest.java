@@ -21,6 +21,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.web.FilterChainProxy;
@@ -34,7 +35,10 @@ import org.springframework.web.context.WebApplicationContext;
 import increment.Increment;
 import increment.security.WebSecurityConfig;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
  * Web security tests.
@@ -90,4 +94,20 @@ public class IcnrementApiSecurityIntTest {
                 .andExpect(r -> 
                 Assert.assertNull(r.getRequest().getSession().getAttribute(SEC_CONTEXT_ATTR)));
     }	
+    
+    @Test
+    public void dashboardReadsAuthenticatedByDefault() throws Exception {
+        mockMvc.perform(get(IncrementController.INCREMENT).param(IncrementController.VALUE_PARAM, "1"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get(IncrementUpdatesController.UPDATES))
+                .andExpect(status().isUnauthorized());
+    }
+    
+    @Test
+    public void anonymousDashboardWithoutRateLimitFailsStartup() {
+        assertThatThrownBy(() -> new SpringApplicationBuilder(Increment.class)
+                .profiles("dev")
+                .run("--server.port=0", "--increment.security.anonymous-dashboard=true").close())
+                .hasStackTraceContaining("increment.security.anonymous-dashboard requires");
+    }
 }
@@ -2,12 +2,16 @@ package increment.api;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup;
 
 import java.io.IOException;
+import java.math.BigInteger;
 import java.nio.charset.Charset;
 import java.util.Arrays;
 
@@ -27,6 +31,8 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.context.WebApplicationContext;
 
 import increment.Increment;
+import increment.codec.Varint;
+import increment.codec.VarintHttpMessageConverter;
 import static increment.api.IncrementController.*;
 
 
@@ -126,6 +132,275 @@ public class IncrementControllerIntegrationTest  {
                 .andExpect(jsonPath("$", is((long)Integer.MAX_VALUE + 1L)));
     }
     
+    /*
+     * Testing strategy for:
+     *   public void incrementBatch(final InputStream body, 
+     *              final HttpServletResponse response) throws IllegalArgumentException, IOException
+     * 
+     * Partitions:
+     *    body: empty, not an array, array with not integer, = [], 
+     *          array with Integer.Min, < 0, = 0, Integer.Max;
+     *    
+     *    # writes array of incremented values with according http status: OK;
+     *          response.content: = [], Integer.Min + 1, < 0, = 0, Integer.Max + 1;
+     *          throws IllegalArgumentException
+     */
+    
+    @Test
+    public void testIncrementBatch_EmptyBody_Exception() throws Exception {         
+        mockMvc.perform(patch(INCREMENT_BATCH)
+                .content("")
+                .contentType(contentType))
+                .andExpect(status().isNoContent());
+    }
+    
+    @Test
+    public void testIncrementBatch_NotArray_Exception() throws Exception {         
+        mockMvc.perform(patch(INCREMENT_BATCH)
+                .content(this.json(0))
+                .contentType(contentType))
+                .andExpect(status().isNoContent());
+    }
+    
+    @Test
+    public void testIncrementBatch_NotIntegerElement_Exception() throws Exception {         
+        mockMvc.perform(patch(INCREMENT_BATCH)
+                .content(this.json(Arrays.asList(0, (long) Integer.MAX_VALUE + 1L)))
+                .contentType(contentType))
+                .andExpect(status().isNoContent());
+    }
+    
+    @Test
+    public void testIncrementBatch_EmptyArray_EmptyArray() throws Exception {         
+        mockMvc.perform(patch(INCREMENT_BATCH)
+                .content(this.json(new int[0]))
+                .contentType(contentType))
+                .andExpect(status().isOk())
+                .andExpect(content().string("[]"));
+    }
+    
+    @Test
+    public void testIncrementBatch_Values_IncrementedValues() throws Exception {         
+        mockMvc.perform(patch(INCREMENT_BATCH)
+                .content(this.json(new int[] {Integer.MIN_VALUE, NEGATIVE_VAL, 0, Integer.MAX_VALUE}))
+                .contentType(contentType))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]", is(Integer.MIN_VALUE + 1)))
+                .andExpect(jsonPath("$[1]", is(NEGATIVE_VAL + 1)))
+                .andExpect(jsonPath("$[2]", is(1)))
+                .andExpect(jsonPath("$[3]", is((long)Integer.MAX_VALUE + 1L)));
+    }
+    
+    /*
+     * Testing strategy for varint content of:
+     *   public ResponseEntity<BigInteger> increment(@RequestBody 
+     *              final Optional<Integer> optIncremented) throws IllegalArgumentException 
+     *   public void incrementBatchVarint(final InputStream body, 
+     *              final HttpServletResponse response) throws IllegalArgumentException, IOException
+     * 
+     * Partitions:
+     *    body: empty, truncated varint, varint out of int range, 
+     *          varints of Integer.Min, < 0, = 0, Integer.Max;
+     *    
+     *    # writes varints of incremented values with according http status: OK;
+     *          response.content: Integer.Min + 1, < 0, = 0, Integer.Max + 1;
+     *          bad request for malformed single value;
+     *          throws IllegalArgumentException for malformed batch
+     */
+    
+    @Test
+    public void testIncrement_VarintEmpty_Exception() throws Exception {         
+        mockMvc.perform(patch(INCREMENT)
+                .content(new byte[0])
+                .contentType(VarintHttpMessageConverter.APPLICATION_VARINT))
+                .andExpect(status().isNoContent());
+    }
+    
+    @Test
+    public void testIncrement_VarintOutOfIntRange_BadRequest() throws Exception {         
+        mockMvc.perform(patch(INCREMENT)
+                .content(this.varints((long) Integer.MAX_VALUE + 1L))
+                .contentType(VarintHttpMessageConverter.APPLICATION_VARINT))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    public void testIncrement_VarintIntegerMax_VarintIntegerMaxPlusOne() throws Exception {         
+        mockMvc.perform(patch(INCREMENT)
+                .content(this.varints(Integer.MAX_VALUE))
+                .contentType(VarintHttpMessageConverter.APPLICATION_VARINT)
+                .accept(VarintHttpMessageConverter.APPLICATION_VARINT))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", VarintHttpMessageConverter.APPLICATION_VARINT_VALUE))
+                .andExpect(content().bytes(this.varints((long) Integer.MAX_VALUE + 1L)));
+    }
+    
+    @Test
+    public void testIncrement_VarintAcceptJson_Json() throws Exception {         
+        mockMvc.perform(patch(INCREMENT)
+                .content(this.varints(NEGATIVE_VAL))
+                .contentType(VarintHttpMessageConverter.APPLICATION_VARINT)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", is(NEGATIVE_VAL + 1)));
+    }
+    
+    @Test
+    public void testIncrementBatch_VarintEmpty_Exception() throws Exception {         
+        mockMvc.perform(patch(INCREMENT_BATCH)
+                .content(new byte[0])
+                .contentType(VarintHttpMessageConverter.APPLICATION_VARINT))
+                .andExpect(status().isNoContent());
+    }
+    
+    @Test
+    public void testIncrementBatch_VarintTruncated_Exception() throws Exception {         
+        final byte[] varints = this.varints(0, Integer.MAX_VALUE);
+        mockMvc.perform(patch(INCREMENT_BATCH)
+                .content(Arrays.copyOf(varints, varints.length - 1))
+                .contentType(VarintHttpMessageConverter.APPLICATION_VARINT))
+                .andExpect(status().isNoContent());
+    }
+    
+    @Test
+    public void testIncrementBatch_VarintValues_IncrementedVarints() throws Exception {         
+        mockMvc.perform(patch(INCREMENT_BATCH)
+                .content(this.varints(Integer.MIN_VALUE, NEGATIVE_VAL, 0, Integer.MAX_VALUE))
+                .contentType(VarintHttpMessageConverter.APPLICATION_VARINT)
+                .accept(VarintHttpMessageConverter.APPLICATION_VARINT))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(this.varints(Integer.MIN_VALUE + 1, NEGATIVE_VAL + 1, 1, 
+                        (long) Integer.MAX_VALUE + 1L)));
+    }
+    
+    /*
+     * Testing strategy for:
+     *   public ResponseEntity<BigInteger> incrementLong(@RequestBody 
+     *              final Optional<Long> optIncremented) throws IllegalArgumentException 
+     *   public ResponseEntity<String> incrementBigDecimalString(@RequestBody 
+     *              final Optional<String> optIncremented) throws IllegalArgumentException 
+     *   public ResponseEntity<byte[]> incrementBigBytes(@RequestBody 
+     *              final Optional<byte[]> optIncremented) throws IllegalArgumentException 
+     *   public void incrementBulk(@RequestBody final long[] incremented, 
+     *              final HttpServletResponse response) throws IOException
+     * 
+     * Partitions:
+     *    value: Long.Max, decimal > Long.Max, not decimal, too long, two's-complement bytes;
+     *    bulk: with and without Long.Max lanes;
+     *    
+     *    # returns incremented values with according http status: OK;
+     *          response.content: 2^63, decimal + 1, bytes of value + 1;
+     *          throws IllegalArgumentException
+     */
+    
+    @Test
+    public void testIncrementLong_LongMax_TwoToSixtyThree() throws Exception {         
+        mockMvc.perform(patch(INCREMENT_LONG)
+                .content(this.json(Long.MAX_VALUE))
+                .contentType(contentType))
+                .andExpect(status().isOk())
+                .andExpect(content().string(BigInteger.ONE.shiftLeft(63).toString()));
+    }
+    
+    @Test
+    public void testIncrementBig_Decimal_DecimalPlusOne() throws Exception {         
+        final BigInteger big = BigInteger.TEN.pow(40);
+        mockMvc.perform(patch(INCREMENT_BIG)
+                .content(big.toString())
+                .contentType(MediaType.TEXT_PLAIN))
+                .andExpect(status().isOk())
+                .andExpect(content().string(big.add(BigInteger.ONE).toString()));
+    }
+    
+    @Test
+    public void testIncrementBig_NotDecimal_Exception() throws Exception {         
+        mockMvc.perform(patch(INCREMENT_BIG)
+                .content("12a")
+                .contentType(MediaType.TEXT_PLAIN))
+                .andExpect(status().isNoContent());
+    }
+    
+    @Test
+    public void testIncrementBig_TooLong_Exception() throws Exception {         
+        final char[] digits = new char[MAX_BIG_LENGTH + 1];
+        Arrays.fill(digits, '9');
+        mockMvc.perform(patch(INCREMENT_BIG)
+                .content(new String(digits))
+                .contentType(MediaType.TEXT_PLAIN))
+                .andExpect(status().isNoContent());
+    }
+    
+    @Test
+    public void testIncrementBig_Bytes_BytesPlusOne() throws Exception {         
+        final BigInteger big = BigInteger.ONE.shiftLeft(100).negate();
+        mockMvc.perform(patch(INCREMENT_BIG)
+                .content(big.toByteArray())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(big.add(BigInteger.ONE).toByteArray()));
+    }
+    
+    @Test
+    public void testIncrementBulk_LongMaxLane_OverflowedAsBig() throws Exception {         
+        mockMvc.perform(patch(INCREMENT_BULK)
+                .content(this.json(new long[] {Long.MIN_VALUE, Long.MAX_VALUE, 0L}))
+                .contentType(contentType))
+                .andExpect(status().isOk())
+                .andExpect(content().string("[" + (Long.MIN_VALUE + 1L) + "," 
+                        + BigInteger.ONE.shiftLeft(63) + ",1]"));
+    }
+    
+    /*
+     * Testing strategy for:
+     *   public ResponseEntity<Incremented> incrementQuery(final int value)
+     * 
+     * Partitions:
+     *    value: Integer.Max, not integer;
+     *    callback: absent, present, invalid;
+     *    
+     *    # returns JSON, or JSONP of given callback, with according http status: OK, NO_CONTENT
+     */
+    
+    @Test
+    public void testIncrementQuery_IntegerMax_IntegerMaxPlusOneAsString() throws Exception {         
+        mockMvc.perform(get(INCREMENT).param(VALUE_PARAM, Integer.toString(Integer.MAX_VALUE)))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"incremented\":\"" + (Integer.MAX_VALUE + 1L) + "\"}"));
+    }
+    
+    @Test
+    public void testIncrementQuery_Callback_Jsonp() throws Exception {         
+        mockMvc.perform(get(INCREMENT).param(VALUE_PARAM, "41")
+                .param(JsonpAdvice.CALLBACK_PARAM, "__gwt_jsonp__.P0.onSuccess"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/javascript"))
+                .andExpect(content().string(
+                        "/**/__gwt_jsonp__.P0.onSuccess({\"incremented\":\"42\"});"));
+    }
+    
+    @Test
+    public void testIncrementQuery_InvalidCallback_PlainJson() throws Exception {         
+        mockMvc.perform(get(INCREMENT).param(VALUE_PARAM, "41")
+                .param(JsonpAdvice.CALLBACK_PARAM, "alert(1)"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"incremented\":\"42\"}"));
+    }
+    
+    @Test
+    public void testIncrementQuery_NotInteger_NoContent() throws Exception {         
+        mockMvc.perform(get(INCREMENT).param(VALUE_PARAM, "x"))
+                .andExpect(status().isNoContent());
+    }
+    
+    protected byte[] varints(long... values) {
+        final byte[] buffer = new byte[values.length * Varint.MAX_BYTES];
+        int length = 0;
+        for (long value : values) {
+            length += Varint.write(value, buffer, length);
+        }
+        return Arrays.copyOf(buffer, length);
+    }
+    
     protected String json(Object o) throws IOException {
         MockHttpOutputMessage mockHttpOutputMessage = new MockHttpOutputMessage();
         this.mappingJackson2HttpMessageConverter.write(
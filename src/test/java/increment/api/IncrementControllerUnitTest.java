@@ -1,10 +1,14 @@
 package increment.api;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import java.math.BigInteger;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -14,6 +18,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
 
 import increment.services.IncrementService;
 
@@ -34,15 +40,22 @@ public class IncrementControllerUnitTest  {
     public IncrementControllerUnitTest() {
     }
     
+    @SuppressWarnings("unchecked")
+    private static long body(final Object response) {
+        return ((ResponseEntity<Long>) response).getBody();
+    }
+    
     /*
      * Testing strategy for:
-     *   public ResponseEntity<BigInteger> increment(@RequestBody 
+     *   public Object increment(@RequestBody 
      *              final Optional<Integer> optIncremented) throws IllegalArgumentException 
      * 
      * Partitions:
      *    optIncremented.content: = null, = Integer.Min, < 0, = 0, Integer.Max;
+     *    service: synchronous, asynchronous with completed result, with pending result;
      *    
-     *    # returns ResponseEntity with according http status: OK;
+     *    # returns ResponseEntity with according http status: OK, or future of it;
+     *          no future is requested of synchronous service;
      *          response.content: = Integer.Min + 1, < 0, = 0, Integer.Max, Integer.Max + 1;
      *          throws IllegalArgumentException
      */
@@ -52,46 +65,94 @@ public class IncrementControllerUnitTest  {
     public void testIncrement_NullContent_Exception() throws Exception {                 
         thrown.expect(IllegalArgumentException.class);
 
-        when(incrementServiceMock.increment(Matchers.anyInt()))
-                .thenReturn(null);
+        when(incrementServiceMock.incrementAsLong(Matchers.anyInt()))
+                .thenReturn(0L);
         controller.increment(Optional.ofNullable(null));
     }
     
     @Test
     public void testIncrement_InegerMin_IntegerMinPluseOne() throws Exception {         
-        when(incrementServiceMock.increment(Integer.MIN_VALUE))
-                .thenReturn(BigInteger.valueOf(Integer.MIN_VALUE + 1));
-        final BigInteger incremented = 
-                controller.increment(Optional.of(Integer.MIN_VALUE)).getBody();
-        assertThat(incremented).isEqualTo(BigInteger.valueOf(Integer.MIN_VALUE + 1));
+        when(incrementServiceMock.incrementAsLong(Integer.MIN_VALUE))
+                .thenReturn((long) (Integer.MIN_VALUE + 1));
+        final long incremented = 
+                body(controller.increment(Optional.of(Integer.MIN_VALUE)));
+        assertThat(incremented).isEqualTo((long) (Integer.MIN_VALUE + 1));
     }
     
     final static int NEGATIVE_VAL = -1;
     
     @Test
     public void testIncrement_NegativeVal_NegativeValPlusOne() throws Exception {                
-        when(incrementServiceMock.increment(NEGATIVE_VAL))
-                .thenReturn(BigInteger.valueOf(NEGATIVE_VAL + 1));
-        final BigInteger incremented = 
-                controller.increment(Optional.of(NEGATIVE_VAL)).getBody();
-        assertThat(incremented).isEqualTo(BigInteger.valueOf(NEGATIVE_VAL + 1));
+        when(incrementServiceMock.incrementAsLong(NEGATIVE_VAL))
+                .thenReturn((long) (NEGATIVE_VAL + 1));
+        final long incremented = 
+                body(controller.increment(Optional.of(NEGATIVE_VAL)));
+        assertThat(incremented).isEqualTo((long) (NEGATIVE_VAL + 1));
     }
     
     @Test
     public void testIncrement_ZeroVal_One() throws Exception {         
-        when(incrementServiceMock.increment(0))
-                .thenReturn(BigInteger.valueOf(1));
-        final BigInteger incremented = 
-                controller.increment(Optional.of(0)).getBody();
-        assertThat(incremented).isEqualTo(BigInteger.valueOf(1));
+        when(incrementServiceMock.incrementAsLong(0))
+                .thenReturn(1L);
+        final long incremented = 
+                body(controller.increment(Optional.of(0)));
+        assertThat(incremented).isEqualTo(1L);
     }
     
     @Test
     public void testIncrement_InegerMax_IntegerMaxPluseOne() throws Exception {         
-        when(incrementServiceMock.increment(Integer.MAX_VALUE))
-                .thenReturn(BigInteger.valueOf((long)Integer.MAX_VALUE + 1L));
-        final BigInteger incremented = 
-                controller.increment(Optional.of(Integer.MAX_VALUE)).getBody();
-        assertThat(incremented).isEqualTo(BigInteger.valueOf((long)Integer.MAX_VALUE + 1L));
+        when(incrementServiceMock.incrementAsLong(Integer.MAX_VALUE))
+                .thenReturn((long) Integer.MAX_VALUE + 1L);
+        final long incremented = 
+                body(controller.increment(Optional.of(Integer.MAX_VALUE)));
+        assertThat(incremented).isEqualTo((long) Integer.MAX_VALUE + 1L);
+    }
+    
+    @Test
+    public void testIncrement_Synchronous_NoFuture() throws Exception {
+        when(incrementServiceMock.incrementAsLong(0)).thenReturn(1L);
+        assertThat(body(controller.increment(Optional.of(0)))).isEqualTo(1L);
+        verify(incrementServiceMock, never()).incrementAsync(Matchers.anyInt());
+    }
+    
+    @Test
+    public void testIncrement_AsyncCompleted_Response() throws Exception {
+        when(incrementServiceMock.isAsync()).thenReturn(true);
+        when(incrementServiceMock.incrementAsync(0)).thenReturn(CompletableFuture.completedFuture(1L));
+        assertThat(body(controller.increment(Optional.of(0)))).isEqualTo(1L);
+    }
+    
+    @Test
+    public void testIncrement_Pending_FutureOfResponse() throws Exception {
+        final CompletableFuture<Long> pending = new CompletableFuture<>();
+        when(incrementServiceMock.isAsync()).thenReturn(true);
+        when(incrementServiceMock.incrementAsync(0)).thenReturn(pending);
+        final Object response = controller.increment(Optional.of(0));
+        assertThat(response).isInstanceOf(CompletableFuture.class);
+        
+        pending.complete(1L);
+        assertThat(body(((CompletableFuture<?>) response).get())).isEqualTo(1L);
+    }
+    
+    @Test
+    public void testIncrementBatch_Values_IncrementedValues() throws Exception {         
+        when(incrementServiceMock.incrementAsLong(NEGATIVE_VAL))
+                .thenReturn((long) NEGATIVE_VAL + 1L);
+        when(incrementServiceMock.incrementAsLong(Integer.MAX_VALUE))
+                .thenReturn((long)Integer.MAX_VALUE + 1L);
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        controller.incrementBatch(new ByteArrayInputStream(("[" + NEGATIVE_VAL + ", " 
+                + Integer.MAX_VALUE + "]").getBytes(StandardCharsets.UTF_8)), response);
+        assertThat(response.getContentAsString())
+                .isEqualTo("[" + (NEGATIVE_VAL + 1) + "," + ((long)Integer.MAX_VALUE + 1L) + "]");
+    }
+    
+    @Test
+    public void testIncrementBatch_NotArray_Exception() throws Exception {                 
+        thrown.expect(IllegalArgumentException.class);
+        
+        controller.incrementBatch(new ByteArrayInputStream("0".getBytes(StandardCharsets.UTF_8)), 
+                new MockHttpServletResponse());
     }
 }
@@ -0,0 +1,71 @@
+package increment.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import increment.metrics.Metrics;
+
+public class IncrementNotModifiedFilterUnitTest {
+    
+    private static final String CACHE_CONTROL = "max-age=60, public";
+    
+    private final Metrics metrics = new Metrics();
+    
+    private final IncrementNotModifiedFilter filter = new IncrementNotModifiedFilter(CACHE_CONTROL, metrics);
+    
+    /*
+     * Testing strategy for:
+     *   void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+     * 
+     * Partitions:
+     *    method: GET, other;
+     *    path: value in range, value out of range, not a value, other resource;
+     *    If-None-Match: strong, weak, list, '*', other ETag;
+     *    
+     *    # responds NOT_MODIFIED with ETag and Cache-Control, or passes request on
+     */
+    
+    @Test
+    public void testDoFilter_MatchingETag_NotModified() throws Exception {
+        for (final String ifNoneMatch : new String[] {"\"42\"", "W/\"42\"", "\"1\", \"42\"", "*"}) {
+            final MockFilterChain chain = new MockFilterChain();
+            final MockHttpServletResponse response = new MockHttpServletResponse();
+            this.filter.doFilter(request("GET", "/api/increment/41", ifNoneMatch), response, chain);
+            
+            assertThat(response.getStatus()).as(ifNoneMatch).isEqualTo(304);
+            assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"42\"");
+            assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo(CACHE_CONTROL);
+            assertThat(chain.getRequest()).isNull();
+        }
+        assertThat(this.metrics.counter("http.not_modified").sum()).isEqualTo(4);
+    }
+    
+    @Test
+    public void testDoFilter_NotMatching_PassedOn() throws Exception {
+        for (final String[] request : new String[][] {
+                {"GET", "/api/increment/41", "\"41\""}, 
+                {"PATCH", "/api/increment/41", "\"42\""}, 
+                {"GET", "/api/increment/-", "*"}, 
+                {"GET", "/api/increment/2147483648", "*"}, 
+                {"GET", "/api/increment/updates", "*"}, 
+                {"GET", "/api/counter/41", "\"42\""}}) {
+            final MockFilterChain chain = new MockFilterChain();
+            this.filter.doFilter(request(request[0], request[1], request[2]), 
+                    new MockHttpServletResponse(), chain);
+            
+            assertThat(chain.getRequest()).as(String.join(" ", request)).isNotNull();
+        }
+    }
+    
+    private static MockHttpServletRequest request(final String method, final String uri, 
+            final String ifNoneMatch) {
+        final MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        return request;
+    }
+}
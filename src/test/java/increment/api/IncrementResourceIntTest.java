@@ -0,0 +1,103 @@
+package increment.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import increment.Increment;
+
+/**
+ * Tests of {@link IncrementResourceController}, run against the embedded container, 
+ * so that {@link IncrementNotModifiedFilter} and the security filter chain take part.
+ *  
+ * @author Grehov
+ *
+ */
+@ActiveProfiles("dev")
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = {Increment.class}, 
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "increment.http-cache.result-cache-size=16")
+public class IncrementResourceIntTest {
+    
+    @Value("${increment.client-username}")
+    private String clientUsername;
+    
+    @Value("${increment.client-password}")
+    private String clientPassword;
+    
+    @Autowired
+    private TestRestTemplate restTemplate;
+    
+    private ResponseEntity<String> get(final TestRestTemplate template, final String value, 
+            final String ifNoneMatch) {
+        final RequestEntity.HeadersBuilder<?> request = RequestEntity.get(template.getRestTemplate()
+                .getUriTemplateHandler().expand(IncrementController.INCREMENT + "/" + value));
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return template.exchange(request.build(), String.class);
+    }
+    
+    /*
+     * Testing strategy for:
+     *   public ResponseEntity<Incremented> increment(final int value)
+     * 
+     * Partitions:
+     *    value: Integer.Min, Integer.Max; repeated;
+     *    If-None-Match: absent, matching, not matching;
+     *    authentication: present, absent;
+     *    
+     *    # returns incremented value with ETag and Cache-Control and according http status:
+     *          OK, NOT_MODIFIED, UNAUTHORIZED or FOUND (form login)
+     */
+    
+    @Test
+    public void testIncrement_Authenticated_ETagAndCacheControl() {
+        final TestRestTemplate authenticated = restTemplate.withBasicAuth(clientUsername, clientPassword);
+        for (int i = 0; i < 2; i++) {
+            final ResponseEntity<String> response = get(authenticated, Integer.toString(Integer.MAX_VALUE), null);
+            
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).isEqualTo("{\"incremented\":\"2147483648\"}");
+            assertThat(response.getHeaders().getETag()).isEqualTo("\"2147483648\"");
+            assertThat(response.getHeaders().getCacheControl()).isEqualTo("max-age=31536000, public");
+        }
+    }
+    
+    @Test
+    public void testIncrement_MatchingETagUnauthenticated_NotModified() {
+        final ResponseEntity<String> response = get(restTemplate, Integer.toString(Integer.MIN_VALUE), 
+                "\"x\", \"" + (Integer.MIN_VALUE + 1) + "\"");
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"" + (Integer.MIN_VALUE + 1) + "\"");
+    }
+    
+    @Test
+    public void testIncrement_MatchingETagAuthenticated_NotModified() {
+        final ResponseEntity<String> response = get(restTemplate.withBasicAuth(clientUsername, clientPassword), 
+                "41", "\"42\"");
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+    
+    @Test
+    public void testIncrement_OtherETagUnauthenticated_NotServed() {
+        final ResponseEntity<String> response = get(restTemplate, "41", "\"41\"");
+        
+        assertThat(response.getStatusCode()).isIn(HttpStatus.UNAUTHORIZED, HttpStatus.FOUND);
+        assertThat(response.getHeaders().getETag()).isNull();
+    }
+}
@@ -0,0 +1,115 @@
+package increment.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.embedded.LocalServerPort;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import increment.Increment;
+import increment.push.IncrementUpdates;
+import increment.services.IncrementService;
+
+/**
+ * Tests of {@link IncrementUpdatesController}, run against the embedded container, 
+ * so that events are streamed as they are sent.
+ *  
+ * @author Grehov
+ *
+ */
+@ActiveProfiles("dev")
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = {Increment.class}, 
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, 
+    properties = {"increment.push.interval-ms=3600000", "increment.security.anonymous-dashboard=true",
+            "increment.limits.rate.enabled=true"})
+public class IncrementUpdatesIntTest {
+    
+    @Value("${increment.client-username}")
+    private String clientUsername;
+    
+    @Value("${increment.client-password}")
+    private String clientPassword;
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private IncrementService incrementService;
+    
+    @Autowired
+    private IncrementUpdates incrementUpdates;
+    
+    private HttpURLConnection open(final boolean authorized) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + this.port 
+                + IncrementUpdatesController.UPDATES).openConnection();
+        if (authorized) {
+            connection.setRequestProperty(HttpHeaders.AUTHORIZATION, "Basic " + Base64.getEncoder()
+                    .encodeToString((clientUsername + ":" + clientPassword).getBytes(StandardCharsets.UTF_8)));
+        }
+        connection.setReadTimeout(5000);
+        return connection;
+    }
+    
+    /*
+     * Testing strategy for:
+     *   public ResponseEntity<SseEmitter> updates()
+     * 
+     * Partitions:
+     *    increments: since last update;
+     *    authorization: present, absent as with EventSource;
+     *    
+     *    # streams update with latest increment and count
+     */
+    
+    @Test
+    public void testUpdates_Increments_LatestWithCount() throws Exception {
+        final HttpURLConnection connection = open(true);
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        assertThat(connection.getContentType()).startsWith("text/event-stream");
+        
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+            this.incrementService.increment(40);
+            this.incrementService.incrementAsLong(41);
+            this.incrementUpdates.publish();
+            
+            assertThat(reader.readLine()).isEqualTo("event:" + IncrementUpdatesController.EVENT);
+            assertThat(reader.readLine())
+                    .isEqualTo("data:{\"toIncrement\":\"41\",\"incremented\":\"42\",\"count\":2}");
+        } finally {
+            connection.disconnect();
+        }
+    }
+    
+    @Test
+    public void testUpdates_NoAuthorization_Streamed() throws Exception {
+        final HttpURLConnection connection = open(false);
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        assertThat(connection.getContentType()).startsWith("text/event-stream");
+        
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+            this.incrementService.increment(1);
+            this.incrementUpdates.publish();
+            
+            assertThat(reader.readLine()).isEqualTo("event:" + IncrementUpdatesController.EVENT);
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
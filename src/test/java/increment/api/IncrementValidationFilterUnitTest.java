@@ -0,0 +1,110 @@
+package increment.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import increment.codec.VarintHttpMessageConverter;
+import increment.metrics.Metrics;
+
+public class IncrementValidationFilterUnitTest {
+    
+    private final Metrics metrics = new Metrics();
+    
+    private final IncrementValidationFilter filter = new IncrementValidationFilter(metrics);
+    
+    /*
+     * Testing strategy for:
+     *   void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+     * 
+     * Partitions:
+     *    body: empty, whitespace, null, integer in range, integer out of range, fraction, 
+     *          string, object, garbage, integer followed by garbage, longer than limit;
+     *    content type: JSON, varint, other;
+     *    requests of thread: subsequent, after asynchronous one;
+     *    
+     *    # responds NO_CONTENT or BAD_REQUEST, or passes the same body on; wrapper of 
+     *      the body is reused by subsequent requests unless the request went asynchronous
+     */
+    
+    @Test
+    public void testDoFilter_EmptyOrNull_NoContent() throws Exception {
+        for (final String body : new String[] {"", " \r\n\t", "null", " null "}) {
+            assertThat(perform(MediaType.APPLICATION_JSON_VALUE, body).getStatus()).as(body).isEqualTo(204);
+        }
+        assertThat(perform(VarintHttpMessageConverter.APPLICATION_VARINT_VALUE, "").getStatus()).isEqualTo(204);
+        assertThat(this.metrics.counter("validation.empty_body").sum()).isEqualTo(5);
+    }
+    
+    @Test
+    public void testDoFilter_NotInteger_BadRequest() throws Exception {
+        for (final String body : new String[] {"{}", "[1]", "true", "nul", "x", "-", "2147483648", 
+                "-2147483649", "99999999999999999999", new String(new char[300]).replace('\0', ' ') + "1",
+                "12abc", "1 x", "-1-"}) {
+            assertThat(perform(MediaType.APPLICATION_JSON_VALUE, body).getStatus()).as(body).isEqualTo(400);
+        }
+        assertThat(this.metrics.counter("validation.invalid_body").sum()).isEqualTo(13);
+    }
+    
+    @Test
+    public void testDoFilter_IntegerOrUndecided_PassedOnWithBody() throws Exception {
+        for (final String body : new String[] {"0", " -2147483648 ", "2147483647", "1.5", "1e3", "\"5\""}) {
+            final MockFilterChain chain = new MockFilterChain();
+            final MockHttpServletResponse response = new MockHttpServletResponse();
+            this.filter.doFilter(request(MediaType.APPLICATION_JSON_UTF8_VALUE, body), response, chain);
+            
+            assertThat(chain.getRequest()).as(body).isNotNull();
+            assertThat(StreamUtils.copyToString(chain.getRequest().getInputStream(), StandardCharsets.UTF_8))
+                    .isEqualTo(body);
+        }
+    }
+    
+    @Test
+    public void testDoFilter_SubsequentRequests_WrapperReusedUnlessAsync() throws Exception {
+        final MockFilterChain first = new MockFilterChain();
+        this.filter.doFilter(request(MediaType.APPLICATION_JSON_VALUE, "1"), new MockHttpServletResponse(), first);
+        final MockFilterChain second = new MockFilterChain();
+        final MockHttpServletRequest async = request(MediaType.APPLICATION_JSON_VALUE, "22");
+        async.setAsyncStarted(true);
+        this.filter.doFilter(async, new MockHttpServletResponse(), second);
+        final MockFilterChain third = new MockFilterChain();
+        this.filter.doFilter(request(MediaType.APPLICATION_JSON_VALUE, "333"), new MockHttpServletResponse(), third);
+        
+        assertThat(second.getRequest()).isSameAs(first.getRequest());
+        assertThat(third.getRequest()).isNotSameAs(second.getRequest());
+        assertThat(StreamUtils.copyToString(second.getRequest().getInputStream(), StandardCharsets.UTF_8))
+                .isEqualTo("22");
+        assertThat(StreamUtils.copyToString(third.getRequest().getInputStream(), StandardCharsets.UTF_8))
+                .isEqualTo("333");
+    }
+    
+    @Test
+    public void testDoFilter_OtherContentType_PassedOn() throws Exception {
+        final MockFilterChain chain = new MockFilterChain();
+        this.filter.doFilter(request(MediaType.TEXT_PLAIN_VALUE, ""), new MockHttpServletResponse(), chain);
+        
+        assertThat(chain.getRequest()).isNotNull();
+    }
+    
+    private static MockHttpServletRequest request(final String contentType, final String body) {
+        final MockHttpServletRequest request = new MockHttpServletRequest("PATCH", IncrementController.INCREMENT);
+        request.setContentType(contentType);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+    
+    private MockHttpServletResponse perform(final String contentType, final String body) throws Exception {
+        final MockFilterChain chain = new MockFilterChain();
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        this.filter.doFilter(request(contentType, body), response, chain);
+        assertThat(chain.getRequest()).isNull();
+        return response;
+    }
+}
@@ -0,0 +1,146 @@
+package increment.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.embedded.LocalServerPort;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+
+import increment.Increment;
+import increment.codec.Varint;
+
+/**
+ * Tests of {@link IncrementWebSocketHandler}, run against the embedded container.
+ *  
+ * @author Grehov
+ *
+ */
+@ActiveProfiles("dev")
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = {Increment.class}, 
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class IncrementWebSocketIntTest {
+    
+    private static final long TIMEOUT_SECONDS = 5;
+    
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+    
+    @Value("${increment.client-username}")
+    private String clientUsername;
+    
+    @Value("${increment.client-password}")
+    private String clientPassword;
+    
+    @LocalServerPort
+    private int port;
+    
+    private final BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+    
+    private WebSocketSession connect(final boolean authenticated) throws Exception {
+        final WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+        if (authenticated) {
+            headers.add(HttpHeaders.AUTHORIZATION, "Basic " + Base64.getEncoder().encodeToString(
+                    (clientUsername + ":" + clientPassword).getBytes(StandardCharsets.UTF_8)));
+        }
+        return new StandardWebSocketClient().doHandshake(new AbstractWebSocketHandler() {
+            @Override
+            public void handleMessage(final WebSocketSession session, final WebSocketMessage<?> message) {
+                received.add(message instanceof BinaryMessage 
+                        ? ((BinaryMessage) message).getPayload() : message.getPayload());
+            }
+            
+            @Override
+            public void afterConnectionClosed(final WebSocketSession session, final CloseStatus status) {
+                received.add(status);
+            }
+        }, headers, URI.create("ws://localhost:" + port + IncrementWebSocketHandler.INCREMENT_WS))
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+    
+    private Object receive() throws InterruptedException {
+        return received.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+    
+    private static byte[] varints(final long... values) {
+        final byte[] buffer = new byte[values.length * Varint.MAX_BYTES];
+        int length = 0;
+        for (long value : values) {
+            length += Varint.write(value, buffer, length);
+        }
+        return Arrays.copyOf(buffer, length);
+    }
+    
+    /*
+     * Testing strategy for IncrementWebSocketHandler:
+     * 
+     * Partitions:
+     *    handshake: unauthenticated, authenticated;
+     *    frames: text with single line without id, text with lines with ids and invalid value,
+     *            pipelined frames, binary with varints, malformed binary;
+     *    
+     *    # answers frames in order, tagged with ids; closes connection on malformed binary;
+     *          handshake fails.
+     */
+    
+    @Test
+    public void testHandshake_Unauthenticated_Exception() throws Exception {
+        thrown.expect(ExecutionException.class);
+        connect(false);
+    }
+    
+    @Test
+    public void testText_LinesWithIds_TaggedIncrementedValues() throws Exception {
+        final WebSocketSession session = connect(true);
+        session.sendMessage(new TextMessage("41"));
+        session.sendMessage(new TextMessage("a " + Integer.MAX_VALUE + "\nb x\nc -1"));
+        assertThat(receive()).isEqualTo("42");
+        assertThat(receive()).isEqualTo("a " + ((long) Integer.MAX_VALUE + 1L) + "\nb " 
+                + IncrementWebSocketHandler.ERROR + "\nc 0");
+        session.close();
+    }
+    
+    @Test
+    public void testBinary_PipelinedVarints_IncrementedVarintsInOrder() throws Exception {
+        final WebSocketSession session = connect(true);
+        for (int i = 0; i < 100; i++) {
+            session.sendMessage(new BinaryMessage(varints(i, Integer.MIN_VALUE)));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertThat(receive()).isEqualTo(ByteBuffer.wrap(varints(i + 1, Integer.MIN_VALUE + 1)));
+        }
+        session.close();
+    }
+    
+    @Test
+    public void testBinary_Malformed_Closed() throws Exception {
+        final WebSocketSession session = connect(true);
+        session.sendMessage(new BinaryMessage(new byte[] {(byte) 0x80}));
+        assertThat(receive()).isEqualTo(CloseStatus.BAD_DATA);
+    }
+}
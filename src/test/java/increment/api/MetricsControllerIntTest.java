@@ -0,0 +1,89 @@
+package increment.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import increment.Increment;
+
+/**
+ * Tests of {@link MetricsController}, run against the embedded container, 
+ * so that the whole filter chain is metered.
+ *  
+ * @author Grehov
+ *
+ */
+@ActiveProfiles("dev")
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = {Increment.class}, 
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class MetricsControllerIntTest {
+    
+    @Value("${increment.client-username}")
+    private String clientUsername;
+    
+    @Value("${increment.client-password}")
+    private String clientPassword;
+    
+    @Autowired
+    private TestRestTemplate restTemplate;
+    
+    private void increment(final String content) {
+        final TestRestTemplate authenticated = restTemplate.withBasicAuth(clientUsername, clientPassword);
+        authenticated.exchange(RequestEntity.method(HttpMethod.PATCH, 
+                authenticated.getRestTemplate().getUriTemplateHandler().expand(IncrementController.INCREMENT))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(content), String.class);
+    }
+    
+    private ResponseEntity<String> metrics(final MediaType accept) {
+        return restTemplate.exchange(RequestEntity.get(restTemplate.getRestTemplate()
+                .getUriTemplateHandler().expand(MetricsController.METRICS))
+                .accept(accept).build(), String.class);
+    }
+    
+    /*
+     * Testing strategy for MetricsController:
+     * 
+     * Partitions:
+     *    accept: JSON, Prometheus text;
+     *    requests before: valid increment, increment without content;
+     *    
+     *    # returns metrics of requests, security, handler, service and errors without authentication.
+     */
+    
+    @Test
+    public void testMetrics_Json_AllLayersMetered() {
+        increment("1");
+        increment("");
+        final ResponseEntity<String> response = metrics(MediaType.APPLICATION_JSON);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+            .contains("\"http.requests\"", "\"http.security\"", "\"handler.IncrementController.increment\"", 
+                    "\"service.increment\"", "\"errors.illegal_argument\"", "\"p99\"");
+    }
+    
+    @Test
+    public void testMetrics_Prometheus_TextFormat() {
+        increment("1");
+        final ResponseEntity<String> response = metrics(MediaType.parseMediaType("text/plain"));
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType().isCompatibleWith(MediaType.TEXT_PLAIN)).isTrue();
+        assertThat(response.getBody())
+            .contains("# TYPE increment_http_requests_seconds summary")
+            .contains("increment_service_increment_seconds_count ")
+            .contains("increment_http_security_seconds{quantile=\"0.99\"} ");
+    }
+}
@@ -0,0 +1,138 @@
+package increment.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import increment.Increment;
+import increment.idempotency.IdempotencyFilter;
+
+/**
+ * Tests of 'non-blocking' profile, run against the embedded container, since
+ * non-blocking I/O isn't supported by mock requests.
+ *  
+ * @author Grehov
+ *
+ */
+@ActiveProfiles({"dev", "non-blocking"})
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = {Increment.class}, 
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class NonBlockingIncrementIntTest {
+    
+    @Value("${increment.client-username}")
+    private String clientUsername;
+    
+    @Value("${increment.client-password}")
+    private String clientPassword;
+    
+    @Autowired
+    private TestRestTemplate restTemplate;
+    
+    private ResponseEntity<String> patch(final TestRestTemplate restTemplate, final String path, 
+            final String content) {
+        return restTemplate.exchange(RequestEntity.method(HttpMethod.PATCH, 
+                restTemplate.getRestTemplate().getUriTemplateHandler().expand(path))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(content), String.class);
+    }
+    
+    private ResponseEntity<String> patch(final String path, final String content) {
+        return patch(restTemplate.withBasicAuth(clientUsername, clientPassword), path, content);
+    }
+    
+    private ResponseEntity<String> patch(final String path, final String content, final String key) {
+        final TestRestTemplate restTemplate = this.restTemplate.withBasicAuth(clientUsername, clientPassword);
+        return restTemplate.exchange(RequestEntity.method(HttpMethod.PATCH, 
+                restTemplate.getRestTemplate().getUriTemplateHandler().expand(path))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY, key)
+                .body(content), String.class);
+    }
+    
+    /*
+     * Testing strategy for NonBlockingIncrementServlet:
+     * 
+     * Partitions:
+     *    request: unauthenticated, empty body, null, not an integer, Integer.Max, 
+     *        repeated with idempotency key, GET with value;
+     *    path: single, batch;
+     *    
+     *    # responds: not served, NO_CONTENT, BAD_REQUEST, OK with incremented value, 
+     *          replayed; other methods are served by the controller
+     */
+    
+    @Test
+    public void testIncrement_Unauthenticated_NotServed() {
+        assertThat(patch(restTemplate, IncrementController.INCREMENT, "1").getStatusCode()
+                .is2xxSuccessful()).isFalse();
+    }
+    
+    @Test
+    public void testIncrement_EmptyBody_NoContent() {
+        assertThat(patch(IncrementController.INCREMENT, "").getStatusCode())
+                .isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(patch(IncrementController.INCREMENT, "null").getStatusCode())
+                .isEqualTo(HttpStatus.NO_CONTENT);
+    }
+    
+    @Test
+    public void testIncrement_NotInteger_BadRequest() {
+        assertThat(patch(IncrementController.INCREMENT, "\"one\"").getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(patch(IncrementController.INCREMENT, "{").getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+    
+    @Test
+    public void testIncrement_IntegerMax_IntegerMaxPlusOne() {
+        final ResponseEntity<String> response = 
+                patch(IncrementController.INCREMENT, Integer.toString(Integer.MAX_VALUE));
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(Long.toString((long) Integer.MAX_VALUE + 1L));
+    }
+    
+    @Test
+    public void testIncrement_RepeatedIdempotencyKey_Replayed() {
+        final String key = "non-blocking-" + System.nanoTime();
+        final ResponseEntity<String> first = patch(IncrementController.INCREMENT, "41", key);
+        final ResponseEntity<String> second = patch(IncrementController.INCREMENT, "41", key);
+        
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getBody()).isEqualTo("42");
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getBody()).isEqualTo("42");
+        assertThat(second.getHeaders().getFirst(IdempotencyFilter.REPLAYED)).isEqualTo("true");
+    }
+    
+    @Test
+    public void testIncrementQuery_Get_ServedByController() {
+        final ResponseEntity<String> response = restTemplate.withBasicAuth(clientUsername, clientPassword)
+                .getForEntity(IncrementController.INCREMENT + "?value=41&callback=f", String.class);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo("/**/f({\"incremented\":\"42\"});");
+    }
+    
+    @Test
+    public void testIncrementBatch_Values_ServedByController() {
+        final ResponseEntity<String> response = 
+                patch(IncrementController.INCREMENT_BATCH, "[0, 1]");
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo("[1,2]");
+    }
+}
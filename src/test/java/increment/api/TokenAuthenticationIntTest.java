@@ -0,0 +1,102 @@
+package increment.api;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.jayway.jsonpath.JsonPath;
+
+import increment.Increment;
+
+/**
+ * Token authentication tests of 'api' profile.
+ *  
+ * @author Grehov
+ *
+ */
+@ActiveProfiles({"dev", "api"})
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = {Increment.class}, 
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class TokenAuthenticationIntTest {
+    
+    @Value("${increment.client-username}")
+    private String clientUsername;
+    
+    @Value("${increment.client-password}")
+    private String clientPassword;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    
+    @Autowired
+    private FilterChainProxy springSecurityFilterChain;
+    
+    private MockMvc mockMvc;
+
+    @Before
+    public void before() {
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .addFilters(this.springSecurityFilterChain).build();
+    }
+    
+    private String token() throws Exception {
+        final MvcResult result = mockMvc.perform(post(TokenController.TOKEN)
+                .header(HttpHeaders.AUTHORIZATION, "Basic " + Base64.getEncoder().encodeToString(
+                        (clientUsername + ":" + clientPassword).getBytes(StandardCharsets.UTF_8))))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertNull(result.getRequest().getSession(false));
+        return JsonPath.read(result.getResponse().getContentAsString(), "$.token");
+    }
+    
+    @Test
+    public void testIncrement_ValidToken_Incremented() throws Exception {
+        final MvcResult result = mockMvc.perform(patch(IncrementController.INCREMENT)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", is(2)))
+                .andReturn();
+        assertNull(result.getRequest().getSession(false));
+    }
+    
+    @Test
+    public void testIncrement_InvalidToken_Unauthorized() throws Exception {
+        mockMvc.perform(patch(IncrementController.INCREMENT)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token() + "A")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("1"))
+                .andExpect(status().isUnauthorized());
+    }
+    
+    @Test
+    public void testToken_WithToken_Unauthorized() throws Exception {
+        mockMvc.perform(post(TokenController.TOKEN)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token()))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,153 @@
+package increment.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+
+public class ClockCacheUnitTest {
+    
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+    
+    private static final long TTL_NANOS = 1000L;
+    
+    private final AtomicLong now = new AtomicLong();
+    
+    private ClockCache<String, Integer> cache(final int maxSize) {
+        return new ClockCache<>(maxSize, TTL_NANOS, TimeUnit.NANOSECONDS, now::get);
+    }
+    
+    /*
+     * Testing strategy for:
+     *   ClockCache(int maxSize, long ttl, TimeUnit unit);
+     *   ClockCache(int maxSize, long ttl, TimeUnit unit, Predicate<? super V> pinned);
+     *   V get(K key); void put(K key, V value); V putIfAbsent(K key, V value); void remove(K key); 
+     *   void removeIf(BiPredicate<? super K, ? super V> predicate);
+     *   
+     * Partitions:
+     *    maxSize: <= 0, > 0;
+     *    key: absent, present, expired, removed;
+     *    size: < maxSize, = maxSize with referenced entry, with pinned entries, all pinned;
+     *    
+     *    # returns: null, cached value;
+     *          throws IllegalArgumentException
+     */
+    
+    @Test
+    public void testConstructor_ZeroSize_Exception() {
+        thrown.expect(IllegalArgumentException.class);
+        
+        cache(0);
+    }
+    
+    @Test
+    public void testGet_Absent_Null() {
+        assertThat(cache(4).get("absent")).isNull();
+    }
+    
+    @Test
+    public void testGet_Present_Value() {
+        final ClockCache<String, Integer> cache = cache(4);
+        cache.put("one", 1);
+        cache.put("one", 2);
+        
+        assertThat(cache.get("one")).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+    
+    @Test
+    public void testPutIfAbsent_PresentThenExpired_PresentThenPut() {
+        final ClockCache<String, Integer> cache = cache(4);
+        assertThat(cache.putIfAbsent("one", 1)).isNull();
+        assertThat(cache.putIfAbsent("one", 2)).isEqualTo(1);
+        assertThat(cache.get("one")).isEqualTo(1);
+        
+        now.addAndGet(TTL_NANOS);
+        
+        assertThat(cache.putIfAbsent("one", 3)).isNull();
+        assertThat(cache.get("one")).isEqualTo(3);
+    }
+    
+    @Test
+    public void testGet_Expired_Null() {
+        final ClockCache<String, Integer> cache = cache(4);
+        cache.put("one", 1);
+        now.addAndGet(TTL_NANOS);
+        
+        assertThat(cache.get("one")).isNull();
+        assertThat(cache.size()).isEqualTo(0);
+    }
+    
+    @Test
+    public void testGet_Removed_Null() {
+        final ClockCache<String, Integer> cache = cache(4);
+        cache.put("one", 1);
+        cache.put("two", 2);
+        cache.put("three", 3);
+        cache.remove("one");
+        cache.removeIf((key, value) -> value == 2);
+        
+        assertThat(cache.get("one")).isNull();
+        assertThat(cache.get("two")).isNull();
+        assertThat(cache.get("three")).isEqualTo(3);
+    }
+    
+    @Test
+    public void testPut_Full_UnreferencedEvicted() {
+        final ClockCache<String, Integer> cache = cache(3);
+        cache.put("one", 1);
+        cache.put("two", 2);
+        cache.put("three", 3);
+        cache.get("one");
+        cache.put("four", 4);
+        
+        assertThat(cache.get("one")).isEqualTo(1);
+        assertThat(cache.get("two")).isNull();
+        assertThat(cache.get("three")).isEqualTo(3);
+        assertThat(cache.get("four")).isEqualTo(4);
+    }
+    
+    @Test
+    public void testPut_ManyKeys_SizeBounded() {
+        final ClockCache<String, Integer> cache = cache(100);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(Integer.toString(i), i);
+        }
+        
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        assertThat(cache.get("999")).isEqualTo(999);
+    }
+    
+    @Test
+    public void testPut_FullWithPinned_UnpinnedEvicted() {
+        final ClockCache<String, Integer> cache = 
+                new ClockCache<>(3, TTL_NANOS, TimeUnit.NANOSECONDS, value -> value < 0, now::get);
+        cache.put("one", -1);
+        cache.put("two", -2);
+        cache.put("three", 3);
+        cache.put("four", 4);
+        
+        assertThat(cache.get("one")).isEqualTo(-1);
+        assertThat(cache.get("two")).isEqualTo(-2);
+        assertThat(cache.get("three")).isNull();
+        assertThat(cache.get("four")).isEqualTo(4);
+    }
+    
+    @Test
+    public void testPut_FullAllPinned_Evicted() {
+        final ClockCache<String, Integer> cache = 
+                new ClockCache<>(2, TTL_NANOS, TimeUnit.NANOSECONDS, value -> true, now::get);
+        cache.put("one", 1);
+        cache.put("two", 2);
+        cache.put("three", 3);
+        
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("three")).isEqualTo(3);
+    }
+}
@@ -0,0 +1,212 @@
+package increment.cluster;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import increment.services.ClusteredCounterService;
+
+public class PnCounterClusterUnitTest {
+    
+    private static final String[] NODES = {"a", "b", "c"};
+    
+    private InMemoryGossipTransport transport;
+    
+    private Map<String, PnCounterStore> stores;
+    
+    private Map<String, ClusteredCounterService> services;
+    
+    @Before
+    public void setUp() {
+        this.transport = new InMemoryGossipTransport();
+        this.stores = new HashMap<>();
+        this.services = new HashMap<>();
+        for (final String node : NODES) {
+            start(node, 5);
+        }
+    }
+    
+    /*
+     * Testing strategy for:
+     *   ClusteredCounterService: long increment(String name), OptionalLong value(String name), 
+     *       void gossip()
+     *   PnCounterStore: long add(String name, long delta), void merge(GossipMessage message)
+     * 
+     * Partitions:
+     *    nodes: one, many incrementing concurrently;
+     *    messages: delivered, lost, duplicated, reordered, malformed, with too long name;
+     *    node: restarted with same id, incrementing before or after its former state comes back;
+     *    delta: positive, negative;
+     *    
+     *    # values converge to sum of deltas at all nodes; malformed messages change nothing
+     */
+    
+    @Test
+    public void testGossip_ConcurrentIncrementsAtAllNodes_Converge() throws Exception {
+        final int increments = 10000;
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        for (final String node : NODES) {
+            for (int t = 0; t < 2; t++) {
+                final Thread thread = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < increments; i++) {
+                        this.services.get(node).increment(i % 2 == 0 ? "even" : "odd");
+                        if (i % 1000 == 0) {
+                            this.services.get(node).gossip();
+                        }
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+        }
+        start.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        gossipRounds(1);
+        
+        for (final String node : NODES) {
+            assertThat(this.services.get(node).value("even")).isEqualTo(OptionalLong.of(increments * 3));
+            assertThat(this.services.get(node).value("odd")).isEqualTo(OptionalLong.of(increments * 3));
+        }
+    }
+    
+    @Test
+    public void testIncrement_NotGossiped_OnlyLocal() {
+        this.services.get("a").increment("visits");
+        assertThat(this.services.get("a").value("visits")).isEqualTo(OptionalLong.of(1));
+        assertThat(this.services.get("b").value("visits")).isEqualTo(OptionalLong.empty());
+    }
+    
+    @Test
+    public void testGossip_LostDelta_ConvergeOnFullSync() {
+        gossipRounds(1);
+        this.transport.unregister("b");
+        this.services.get("a").increment("visits");
+        this.services.get("a").gossip();
+        this.transport.register("b", this.stores.get("b"));
+        assertThat(this.services.get("b").value("visits")).isEqualTo(OptionalLong.empty());
+        assertThat(this.services.get("c").value("visits")).isEqualTo(OptionalLong.of(1));
+        
+        gossipRounds(5);
+        
+        assertThat(this.services.get("b").value("visits")).isEqualTo(OptionalLong.of(1));
+    }
+    
+    @Test
+    public void testMerge_DuplicatedAndReordered_Idempotent() {
+        final PnCounterStore a = this.stores.get("a");
+        final PnCounterStore b = this.stores.get("b");
+        a.add("visits", 2);
+        final GossipMessage first = a.delta();
+        a.add("visits", 3);
+        final GossipMessage second = a.delta();
+        
+        b.merge(second);
+        b.merge(first);
+        b.merge(second);
+        
+        assertThat(b.value("visits")).isEqualTo(OptionalLong.of(5));
+    }
+    
+    @Test
+    public void testAdd_Negative_Decremented() {
+        this.stores.get("a").add("stock", 5);
+        this.stores.get("b").add("stock", -2);
+        gossipRounds(1);
+        assertThat(this.services.get("c").value("stock")).isEqualTo(OptionalLong.of(3));
+    }
+    
+    @Test
+    public void testGossip_RestartedWithSameId_CatchesUp() {
+        this.services.get("a").increment("visits");
+        this.services.get("a").increment("visits");
+        gossipRounds(1);
+        
+        start("a", 5);
+        assertThat(this.services.get("a").value("visits")).isEqualTo(OptionalLong.empty());
+        gossipRounds(5);
+        this.services.get("a").increment("visits");
+        gossipRounds(1);
+        
+        for (final String node : NODES) {
+            assertThat(this.services.get(node).value("visits")).isEqualTo(OptionalLong.of(3));
+        }
+    }
+    
+    @Test
+    public void testMerge_RestartedIncrementsBeforeCatchUp_NoIncrementLost() {
+        final PnCounterStore a = this.stores.get("a");
+        final PnCounterStore b = this.stores.get("b");
+        a.add("visits", 5);
+        b.merge(a.full());
+        
+        start("a", 5);
+        final PnCounterStore restarted = this.stores.get("a");
+        assertThat(restarted.getComponentId()).isNotEqualTo(a.getComponentId());
+        restarted.add("visits", 3);
+        restarted.merge(b.full());
+        b.merge(restarted.full());
+        
+        assertThat(restarted.value("visits")).isEqualTo(OptionalLong.of(8));
+        assertThat(b.value("visits")).isEqualTo(OptionalLong.of(8));
+    }
+    
+    @Test
+    public void testMerge_MalformedComponent_NothingMerged() {
+        final PnCounterStore b = this.stores.get("b");
+        final Map<String, Map<String, long[]>> counters = new LinkedHashMap<>();
+        counters.put("visits", Collections.singletonMap("a", new long[] {2, 0}));
+        counters.put("stock", Collections.singletonMap("a", new long[] {1}));
+        
+        assertThatThrownBy(() -> b.merge(new GossipMessage("a", counters)))
+            .isInstanceOf(IllegalArgumentException.class);
+        counters.put("stock", Collections.singletonMap("a", new long[] {-1, 0}));
+        assertThatThrownBy(() -> b.merge(new GossipMessage("a", counters)))
+            .isInstanceOf(IllegalArgumentException.class);
+        counters.remove("stock");
+        counters.put(new String(new char[256]).replace('\0', 'a'), Collections.singletonMap("a", new long[] {1, 0}));
+        assertThatThrownBy(() -> b.merge(new GossipMessage("a", counters)))
+            .isInstanceOf(IllegalArgumentException.class);
+        
+        assertThat(b.value("visits")).isEqualTo(OptionalLong.empty());
+        assertThat(b.full().getCounters()).isEmpty();
+    }
+    
+    private void start(final String node, final int fullSyncEvery) {
+        final List<String> peers = new ArrayList<>(Arrays.asList(NODES));
+        peers.remove(node);
+        final PnCounterStore store = new PnCounterStore(node, 100);
+        this.stores.put(node, store);
+        this.services.put(node, new ClusteredCounterService(store, this.transport, 
+                Collections.unmodifiableList(peers), fullSyncEvery, new LongAdder()));
+        this.transport.register(node, store);
+    }
+    
+    private void gossipRounds(final int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            for (final String node : NODES) {
+                this.services.get(node).gossip();
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package increment.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class VarintUnitTest {
+    
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+    
+    /*
+     * Testing strategy for:
+     *   static int write(long value, byte[] buffer, int offset)
+     *   static long read(int first, InputStream in) throws IOException
+     *   static int readInt(int first, InputStream in) throws IOException
+     * 
+     * Partitions:
+     *    value: Long.Min, Integer.Min, -65, -64, -1, 0, 63, 64, Integer.Max, Long.Max;
+     *    input: complete, truncated, longer than MAX_BYTES, out of int range;
+     *    
+     *    # round trip returns same value, small magnitudes take one byte;
+     *          throws EOFException, IllegalArgumentException
+     */
+    
+    private static long roundTrip(final long value) throws IOException {
+        final byte[] buffer = new byte[Varint.MAX_BYTES];
+        final int length = Varint.write(value, buffer, 0);
+        final ByteArrayInputStream in = new ByteArrayInputStream(buffer, 0, length);
+        final long read = Varint.read(in.read(), in);
+        assertThat(in.read()).isEqualTo(-1);
+        return read;
+    }
+    
+    @Test
+    public void testRoundTrip_Boundaries_SameValues() throws IOException {
+        for (long value : new long[] {Long.MIN_VALUE, Integer.MIN_VALUE, -65, -64, -1, 0, 63, 64, 
+                Integer.MAX_VALUE, Long.MAX_VALUE}) {
+            assertThat(roundTrip(value)).isEqualTo(value);
+        }
+    }
+    
+    @Test
+    public void testWrite_SmallMagnitudes_OneByte() {
+        final byte[] buffer = new byte[Varint.MAX_BYTES];
+        assertThat(Varint.write(-64, buffer, 0)).isEqualTo(1);
+        assertThat(Varint.write(63, buffer, 0)).isEqualTo(1);
+        assertThat(Varint.write(64, buffer, 0)).isEqualTo(2);
+        assertThat(Varint.write(Integer.MIN_VALUE, buffer, 0)).isEqualTo(5);
+        assertThat(Varint.write(Long.MIN_VALUE, buffer, 0)).isEqualTo(Varint.MAX_BYTES);
+    }
+    
+    @Test
+    public void testRead_Truncated_Exception() throws IOException {
+        thrown.expect(EOFException.class);
+        final ByteArrayInputStream in = new ByteArrayInputStream(new byte[] {(byte) 0x80});
+        Varint.read(in.read(), in);
+    }
+    
+    @Test
+    public void testRead_TooLong_Exception() throws IOException {
+        thrown.expect(IllegalArgumentException.class);
+        final byte[] bytes = new byte[Varint.MAX_BYTES + 1];
+        Arrays.fill(bytes, (byte) 0x80);
+        final ByteArrayInputStream in = new ByteArrayInputStream(bytes);
+        Varint.read(in.read(), in);
+    }
+    
+    @Test
+    public void testReadInt_OutOfRange_Exception() throws IOException {
+        thrown.expect(IllegalArgumentException.class);
+        final byte[] buffer = new byte[Varint.MAX_BYTES];
+        final int length = Varint.write((long) Integer.MAX_VALUE + 1L, buffer, 0);
+        final ByteArrayInputStream in = new ByteArrayInputStream(buffer, 0, length);
+        Varint.readInt(in.read(), in);
+    }
+}
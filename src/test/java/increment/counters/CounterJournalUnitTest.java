@@ -0,0 +1,270 @@
+package increment.counters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CounterJournalUnitTest {
+    
+    private static final long HOUR_MS = TimeUnit.HOURS.toMillis(1);
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private CounterJournal open(final Path directory, final FsyncPolicy policy, final int segmentSize, 
+            final long snapshotIntervalMs) throws IOException {
+        return new CounterJournal(directory, policy, 10, segmentSize, snapshotIntervalMs, 1024, 
+                TimeUnit.MILLISECONDS);
+    }
+    
+    private static Map<String, Long> recovered(final CounterJournal journal) {
+        final Map<String, Long> recovered = new HashMap<>();
+        journal.forEachRecovered(recovered::put);
+        return recovered;
+    }
+    
+    private static List<String> files(final Path directory, final String glob) throws IOException {
+        final List<String> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, glob)) {
+            stream.forEach(file -> files.add(file.getFileName().toString()));
+        }
+        Collections.sort(files);
+        return files;
+    }
+    
+    /*
+     * Testing strategy for:
+     *   CounterJournal(...), void append(String name, long delta), void close(),
+     *   void forEachRecovered(ObjLongConsumer<String> action)
+     * 
+     * Partitions:
+     *    values: on heap, off heap;
+     *    directory: empty, with snapshot and log, with torn tail record, 
+     *        with latest snapshot corrupted, with every snapshot corrupted;
+     *    policy: ALWAYS, INTERVAL, NEVER;
+     *    segments: one, several rolled over;
+     *    snapshot: smaller, larger than buffer;
+     *    appends: before close, racing with close, after close;
+     *    
+     *    # recovers sums of all appended deltas; keeps only the previous snapshot and 
+     *      segments since it; fails if segments not covered by a valid snapshot are missing;
+     *      every append returns, appends after close throw IllegalStateException;
+     *      recovered values are visited until the first append.
+     */
+    
+    @Test
+    public void testRecover_EmptyDirectory_NoCounters() throws IOException {
+        try (CounterJournal journal = open(folder.getRoot().toPath(), FsyncPolicy.ALWAYS, 
+                CounterJournal.MIN_SEGMENT_SIZE, HOUR_MS)) {
+            assertThat(recovered(journal)).isEmpty();
+        }
+    }
+    
+    @Test
+    public void testRecover_EveryPolicy_Replayed() throws IOException {
+        final Path directory = folder.getRoot().toPath();
+        for (FsyncPolicy policy : FsyncPolicy.values()) {
+            final CounterJournal journal = open(directory, policy, CounterJournal.MIN_SEGMENT_SIZE, HOUR_MS);
+            journal.append("a", 1L);
+            journal.append("a", 1L);
+            journal.append("b", -5L);
+            journal.close();
+        }
+        try (CounterJournal journal = open(directory, FsyncPolicy.NEVER, CounterJournal.MIN_SEGMENT_SIZE, 
+                HOUR_MS)) {
+            assertThat(recovered(journal)).containsEntry("a", 6L).containsEntry("b", -15L);
+            journal.append("a", 1L);
+            assertThatThrownBy(() -> recovered(journal)).isInstanceOf(IllegalStateException.class);
+        }
+    }
+    
+    @Test
+    public void testRecover_OffHeapValues_SnapshotAndTail() throws IOException {
+        final Path directory = folder.getRoot().toPath();
+        final int increments = 20000;
+        try (CounterJournal journal = new CounterJournal(directory, FsyncPolicy.NEVER, 10, 
+                CounterJournal.MIN_SEGMENT_SIZE, HOUR_MS, 1024, TimeUnit.MILLISECONDS, true)) {
+            for (int i = 0; i < increments; i++) {
+                journal.append("c" + (i % 100), 1L);
+            }
+        }
+        assertThat(files(directory, "snapshot-*.snap").size()).isBetween(1, 2);
+        
+        try (CounterJournal journal = new CounterJournal(directory, FsyncPolicy.NEVER, 10, 
+                CounterJournal.MIN_SEGMENT_SIZE, HOUR_MS, 1024, TimeUnit.MILLISECONDS, true)) {
+            assertThat(recovered(journal)).hasSize(100).containsEntry("c0", (long) increments / 100);
+        }
+        try (CounterJournal journal = open(directory, FsyncPolicy.NEVER, CounterJournal.MIN_SEGMENT_SIZE, 
+                HOUR_MS)) {
+            assertThat(recovered(journal)).hasSize(100).containsEntry("c99", (long) increments / 100);
+        }
+    }
+    
+    @Test
+    public void testRecover_RolledSegments_SnapshotAndTail() throws IOException {
+        final Path directory = folder.getRoot().toPath();
+        final int increments = 20000;
+        try (CounterJournal journal = open(directory, FsyncPolicy.NEVER, CounterJournal.MIN_SEGMENT_SIZE, 
+                HOUR_MS)) {
+            for (int i = 0; i < increments; i++) {
+                journal.append("c" + (i % 100), 1L);
+            }
+        }
+        final List<String> snapshots = files(directory, "snapshot-*.snap");
+        assertThat(snapshots.size()).isBetween(1, 2);
+        // segments before the previous snapshot are deleted
+        if (snapshots.size() == 2) {
+            assertThat(files(directory, "journal-*.log").get(0))
+                .isEqualTo(snapshots.get(0).replace("snapshot-", "journal-").replace(".snap", ".log"));
+        }
+        
+        try (CounterJournal journal = open(directory, FsyncPolicy.NEVER, CounterJournal.MIN_SEGMENT_SIZE, 
+                HOUR_MS)) {
+            assertThat(recovered(journal)).hasSize(100).containsEntry("c0", (long) increments / 100);
+        }
+    }
+    
+    @Test
+    public void testRecover_TornTail_ValidPrefixReplayed() throws IOException {
+        final Path directory = folder.getRoot().toPath();
+        // never closed, as if the process crashed
+        final CounterJournal journal = open(directory, FsyncPolicy.ALWAYS, CounterJournal.MIN_SEGMENT_SIZE, 
+                HOUR_MS);
+        journal.append("a", 1L);
+        journal.append("a", 2L);
+        
+        // damage delta of the second record, as if it was torn
+        final Path segment = directory.resolve(files(directory, "journal-*.log").get(0));
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            final int recordSize = Integer.BYTES + Short.BYTES + 1 + Long.BYTES + Integer.BYTES;
+            channel.write(ByteBuffer.wrap(new byte[] {0x7F}), recordSize + Integer.BYTES + Short.BYTES + 2);
+        }
+        
+        try (CounterJournal recovered = open(directory, FsyncPolicy.ALWAYS, CounterJournal.MIN_SEGMENT_SIZE, 
+                HOUR_MS)) {
+            assertThat(recovered(recovered)).containsEntry("a", 1L);
+            recovered.append("a", 10L);
+        }
+        try (CounterJournal recovered = open(directory, FsyncPolicy.ALWAYS, CounterJournal.MIN_SEGMENT_SIZE, 
+                HOUR_MS)) {
+            assertThat(recovered(recovered)).containsEntry("a", 11L);
+        }
+    }
+    
+    @Test
+    public void testRecover_SnapshotLargerThanBuffer_EveryCounter() throws IOException {
+        final Path directory = folder.getRoot().toPath();
+        final String padding = String.join("", Collections.nCopies(64, "x"));
+        final int counters = 30000;
+        try (CounterJournal journal = open(directory, FsyncPolicy.NEVER, 8 << 20, HOUR_MS)) {
+            for (int i = 0; i < counters; i++) {
+                journal.append(padding + i, i);
+            }
+        }
+        
+        try (CounterJournal journal = open(directory, FsyncPolicy.NEVER, 8 << 20, HOUR_MS)) {
+            assertThat(recovered(journal)).hasSize(counters).containsEntry(padding + (counters - 1), 
+                    (long) counters - 1);
+        }
+    }
+    
+    @Test
+    public void testRecover_LatestSnapshotCorrupted_PreviousSnapshotAndSegmentsReplayed() throws IOException {
+        final Path directory = folder.getRoot().toPath();
+        for (long delta = 1L; delta <= 2L; delta++) {
+            try (CounterJournal journal = open(directory, FsyncPolicy.ALWAYS, CounterJournal.MIN_SEGMENT_SIZE, 
+                    HOUR_MS)) {
+                journal.append("a", delta);
+            }
+        }
+        final List<String> snapshots = files(directory, "snapshot-*.snap");
+        assertThat(snapshots).hasSize(2);
+        corrupt(directory.resolve(snapshots.get(1)));
+        
+        try (CounterJournal journal = open(directory, FsyncPolicy.ALWAYS, CounterJournal.MIN_SEGMENT_SIZE, 
+                HOUR_MS)) {
+            assertThat(recovered(journal)).containsEntry("a", 3L);
+        }
+    }
+    
+    @Test
+    public void testRecover_EverySnapshotCorruptedSegmentsMissing_Exception() throws IOException {
+        final Path directory = folder.getRoot().toPath();
+        for (long delta = 1L; delta <= 2L; delta++) {
+            try (CounterJournal journal = open(directory, FsyncPolicy.ALWAYS, CounterJournal.MIN_SEGMENT_SIZE, 
+                    HOUR_MS)) {
+                journal.append("a", delta);
+            }
+        }
+        for (String snapshot : files(directory, "snapshot-*.snap")) {
+            corrupt(directory.resolve(snapshot));
+        }
+        
+        assertThatThrownBy(() -> open(directory, FsyncPolicy.ALWAYS, CounterJournal.MIN_SEGMENT_SIZE, HOUR_MS))
+            .isInstanceOf(IOException.class).hasMessageContaining("missing");
+    }
+    
+    private static void corrupt(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, channel.size() - 1);
+            last.flip();
+            last.put(0, (byte) ~last.get(0));
+            channel.write(last, channel.size() - 1);
+        }
+    }
+    
+    @Test(timeout = 30000)
+    public void testAppend_RacingWithClose_EveryAppendReturns() throws Exception {
+        final Path directory = folder.getRoot().toPath();
+        final CounterJournal journal = open(directory, FsyncPolicy.ALWAYS, CounterJournal.MIN_SEGMENT_SIZE, 
+                HOUR_MS);
+        final AtomicLong appended = new AtomicLong();
+        final List<Thread> appenders = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final Thread appender = new Thread(() -> {
+                try {
+                    while (true) {
+                        journal.append("a", 1L);
+                        appended.incrementAndGet();
+                    }
+                } catch (IllegalStateException | UncheckedIOException e) {
+                    // closed
+                }
+            });
+            appender.start();
+            appenders.add(appender);
+        }
+        while (appended.get() < 100) {
+            Thread.sleep(1);
+        }
+        journal.close();
+        for (Thread appender : appenders) {
+            appender.join();
+        }
+        
+        try (CounterJournal recovered = open(directory, FsyncPolicy.ALWAYS, CounterJournal.MIN_SEGMENT_SIZE, 
+                HOUR_MS)) {
+            assertThat(recovered(recovered).get("a")).isGreaterThanOrEqualTo(appended.get());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package increment.counters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class CounterMapUnitTest {
+    
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+    
+    /*
+     * Testing strategy for:
+     *   LongAdder get(String name), LongAdder getOrCreate(String name), int size()
+     * 
+     * Partitions:
+     *    name: new, existing, colliding hash;
+     *    size: below, at maximal size; causing resize;
+     *    threads: one, many on same and different names;
+     *    
+     *    # returns same counter for same name, null for unknown name;
+     *          throws CounterLimitException
+     */
+    
+    @Test
+    public void testGet_Unknown_Null() {
+        assertThat(new CounterMap(10).get("a")).isNull();
+    }
+    
+    @Test
+    public void testGetOrCreate_SameName_SameCounter() {
+        final CounterMap counters = new CounterMap(10);
+        final LongAdder counter = counters.getOrCreate("a");
+        assertThat(counters.getOrCreate("a")).isSameAs(counter);
+        assertThat(counters.get("a")).isSameAs(counter);
+        assertThat(counters.size()).isEqualTo(1);
+    }
+    
+    @Test
+    public void testGetOrCreate_CollidingHashes_DifferentCounters() {
+        // "Aa" and "BB" have the same hash code
+        final CounterMap counters = new CounterMap(10);
+        assertThat(counters.getOrCreate("Aa")).isNotSameAs(counters.getOrCreate("BB"));
+        assertThat(counters.get("Aa")).isNotSameAs(counters.get("BB"));
+    }
+    
+    @Test
+    public void testGetOrCreate_ManyNames_ResizedAndFound() {
+        final CounterMap counters = new CounterMap(10000);
+        final List<LongAdder> created = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            created.add(counters.getOrCreate("c" + i));
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertThat(counters.get("c" + i)).isSameAs(created.get(i));
+        }
+        assertThat(counters.size()).isEqualTo(10000);
+    }
+    
+    @Test
+    public void testGetOrCreate_MaxSize_Exception() {
+        thrown.expect(CounterLimitException.class);
+        final CounterMap counters = new CounterMap(1);
+        counters.getOrCreate("a");
+        counters.getOrCreate("b");
+    }
+    
+    @Test
+    public void testGetOrCreate_ConcurrentIncrements_NoneLost() throws Exception {
+        final CounterMap counters = new CounterMap(1000);
+        final int threadsCount = 8;
+        final int increments = 10000;
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadsCount; t++) {
+            final Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < increments; i++) {
+                    counters.getOrCreate("hot").increment();
+                    counters.getOrCreate("c" + (i % 500)).increment();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(counters.get("hot").sum()).isEqualTo((long) threadsCount * increments);
+        assertThat(counters.get("c0").sum()).isEqualTo((long) threadsCount * increments / 500);
+        assertThat(counters.size()).isEqualTo(501);
+    }
+}
@@ -0,0 +1,63 @@
+package increment.counters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class CounterNamesUnitTest {
+    
+    /*
+     * Testing strategy for:
+     *   boolean isValid(String name), String check(String name)
+     * 
+     * Partitions:
+     *    name: short, at and just over limit of UTF-8 bytes;
+     *          of 1, 2, 3 byte chars, surrogate pairs;
+     *    
+     *    # valid if no longer than 255 bytes in UTF-8, as encoded by String.getBytes(); 
+     *          throws CounterNameException
+     */
+    
+    @Test
+    public void testIsValid_AtLimit_True() {
+        assertValid(repeat("a", 255), true);
+        assertValid(repeat("\u00e9", 127) + "a", true);
+        assertValid(repeat("\u20ac", 85), true);
+        assertValid(repeat("\ud83d\ude00", 63) + "abc", true);
+    }
+    
+    @Test
+    public void testIsValid_OverLimit_False() {
+        assertValid(repeat("a", 256), false);
+        assertValid(repeat("\u00e9", 128), false);
+        assertValid(repeat("\u20ac", 85) + "a", false);
+        assertValid(repeat("\ud83d\ude00", 64), false);
+    }
+    
+    @Test
+    public void testCheck_Short_Name() {
+        assertThat(CounterNames.check("visits")).isEqualTo("visits");
+    }
+    
+    @Test
+    public void testCheck_OverLimit_Exception() {
+        assertThatThrownBy(() -> CounterNames.check(repeat("\u00e9", 128)))
+            .isInstanceOf(CounterNameException.class);
+    }
+    
+    private static void assertValid(final String name, final boolean valid) {
+        assertThat(name.getBytes(StandardCharsets.UTF_8).length <= CounterNames.MAX_BYTES).isEqualTo(valid);
+        assertThat(CounterNames.isValid(name)).isEqualTo(valid);
+    }
+    
+    private static String repeat(final String s, final int count) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.append(s);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,103 @@
+package increment.counters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class OffHeapCounterMapUnitTest {
+    
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+    
+    /*
+     * Testing strategy for:
+     *   long add(String name, long delta), OptionalLong get(String name),
+     *   void forEach(ObjLongConsumer<String> action), int size()
+     * 
+     * Partitions:
+     *    name: new, existing, non ASCII, longer than 255 bytes;
+     *    size: below, at maximal size; causing growth of tables and arenas;
+     *    threads: one, many on same and different names;
+     *    
+     *    # returns value after adding, empty for unknown name;
+     *          throws CounterLimitException, CounterNameException
+     */
+    
+    @Test
+    public void testGet_Unknown_Empty() {
+        assertThat(new OffHeapCounterMap(10).get("a")).isEqualTo(OptionalLong.empty());
+    }
+    
+    @Test
+    public void testAdd_ExistingName_Accumulated() {
+        final OffHeapCounterMap counters = new OffHeapCounterMap(10);
+        assertThat(counters.add("a", 1L)).isEqualTo(1L);
+        assertThat(counters.add("a", 5L)).isEqualTo(6L);
+        assertThat(counters.add("\u00e9t\u00e9", -1L)).isEqualTo(-1L);
+        assertThat(counters.get("a")).isEqualTo(OptionalLong.of(6L));
+        assertThat(counters.get("\u00e9t\u00e9")).isEqualTo(OptionalLong.of(-1L));
+        assertThat(counters.size()).isEqualTo(2);
+    }
+    
+    @Test
+    public void testAdd_ManyNames_GrownAndFound() {
+        final int count = 200000;
+        final OffHeapCounterMap counters = new OffHeapCounterMap(count);
+        for (int i = 0; i < count; i++) {
+            counters.add("counter-" + i, i);
+        }
+        for (int i = 0; i < count; i++) {
+            assertThat(counters.get("counter-" + i).getAsLong()).isEqualTo(i);
+        }
+        final Map<String, Long> all = new HashMap<>();
+        counters.forEach(all::put);
+        assertThat(all).hasSize(count).containsEntry("counter-7", 7L);
+        assertThat(counters.offHeapBytes()).isGreaterThan(count * 16L);
+    }
+    
+    @Test
+    public void testAdd_MaxSize_Exception() {
+        thrown.expect(CounterLimitException.class);
+        final OffHeapCounterMap counters = new OffHeapCounterMap(1);
+        counters.add("a", 1L);
+        counters.add("b", 1L);
+    }
+    
+    @Test
+    public void testAdd_TooLongName_Exception() {
+        thrown.expect(CounterNameException.class);
+        new OffHeapCounterMap(1).add(new String(new char[256]).replace('\0', 'a'), 1L);
+    }
+    
+    @Test
+    public void testAdd_ConcurrentIncrements_NoneLost() throws Exception {
+        final OffHeapCounterMap counters = new OffHeapCounterMap(1000);
+        final int threadsCount = 8;
+        final int increments = 10000;
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadsCount; t++) {
+            final Thread thread = new Thread(() -> {
+                for (int i = 0; i < increments; i++) {
+                    counters.add("hot", 1L);
+                    counters.add("c" + (i % 500), 1L);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(counters.get("hot").getAsLong()).isEqualTo((long) threadsCount * increments);
+        assertThat(counters.get("c0").getAsLong()).isEqualTo((long) threadsCount * increments / 500);
+        assertThat(counters.size()).isEqualTo(501);
+    }
+}
@@ -0,0 +1,186 @@
+package increment.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StreamUtils;
+
+import increment.cache.ClockCache;
+import increment.metrics.Metrics;
+
+public class IdempotencyFilterUnitTest {
+    
+    private static final String URI = "/api/counters/visits/increment";
+    
+    private final AtomicInteger calls = new AtomicInteger();
+    
+    private IdempotencyFilter filter;
+    
+    private FilterChain chain;
+    
+    @Before
+    public void setUp() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken("demo", "demo", "ROLE_USER"));
+        this.filter = new IdempotencyFilter(new ClockCache<>(100, 1, TimeUnit.HOURS), 16, new Metrics());
+        this.chain = (request, response) -> {
+            final String body = StreamUtils.copyToString(request.getInputStream(), StandardCharsets.UTF_8);
+            response.setContentType("application/json");
+            response.getWriter().write(body + this.calls.incrementAndGet());
+        };
+    }
+    
+    @After
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    /*
+     * Testing strategy for:
+     *   void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+     * 
+     * Partitions:
+     *    key: absent, new, repeated, repeated while in flight, repeated for other request;
+     *    response: success, server error; completed synchronously, asynchronously;
+     *    body: read blocking, with ReadListener;
+     *    body: within, above limit;
+     *    
+     *    # calls chain once per key and replays its response, responds CONFLICT or
+     *          UNPROCESSABLE_ENTITY
+     */
+    
+    @Test
+    public void testDoFilter_RepeatedKey_Replayed() throws Exception {
+        final MockHttpServletResponse first = perform("k1", "1", this.chain);
+        final MockHttpServletResponse second = perform("k1", "1", this.chain);
+        
+        assertThat(this.calls.get()).isEqualTo(1);
+        assertThat(first.getContentAsString()).isEqualTo("11");
+        assertThat(second.getContentAsString()).isEqualTo("11");
+        assertThat(second.getContentType()).isEqualTo("application/json");
+        assertThat(second.getHeader(IdempotencyFilter.REPLAYED)).isEqualTo("true");
+    }
+    
+    @Test
+    public void testDoFilter_NoKey_NotDeduplicated() throws Exception {
+        perform(null, "1", this.chain);
+        perform(null, "1", this.chain);
+        
+        assertThat(this.calls.get()).isEqualTo(2);
+    }
+    
+    @Test
+    public void testDoFilter_RepeatedInFlight_Conflict() throws Exception {
+        final MockHttpServletResponse[] duplicate = new MockHttpServletResponse[1];
+        perform("k1", "1", (request, response) -> {
+            duplicate[0] = perform("k1", "1", this.chain);
+            this.chain.doFilter(request, response);
+        });
+        
+        assertThat(duplicate[0].getStatus()).isEqualTo(HttpServletResponse.SC_CONFLICT);
+        assertThat(this.calls.get()).isEqualTo(1);
+    }
+    
+    @Test
+    public void testDoFilter_KeyOfOtherBody_Unprocessable() throws Exception {
+        perform("k1", "1", this.chain);
+        
+        assertThat(perform("k1", "2", this.chain).getStatus()).isEqualTo(422);
+    }
+    
+    @Test
+    public void testDoFilter_ServerError_NotCached() throws Exception {
+        perform("k1", "1", (request, response) -> {
+            this.calls.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        });
+        
+        assertThat(perform("k1", "1", this.chain).getContentAsString()).isEqualTo("12");
+    }
+    
+    @Test
+    public void testDoFilter_BodyAboveLimit_NotDeduplicated() throws Exception {
+        perform("k1", "12345678901234567", this.chain);
+        perform("k1", "12345678901234567", this.chain);
+        
+        assertThat(this.calls.get()).isEqualTo(2);
+    }
+    
+    @Test
+    public void testDoFilter_RepeatedAfterAsyncCompletion_Replayed() throws Exception {
+        final AsyncContext[] asyncContext = new AsyncContext[1];
+        final MockHttpServletResponse first = perform("k1", "1", (request, response) -> {
+            asyncContext[0] = request.startAsync(request, response);
+            this.chain.doFilter(request, response);
+        });
+        assertThat(perform("k1", "1", this.chain).getStatus()).isEqualTo(HttpServletResponse.SC_CONFLICT);
+        
+        asyncContext[0].complete();
+        final MockHttpServletResponse second = perform("k1", "1", this.chain);
+        
+        assertThat(this.calls.get()).isEqualTo(1);
+        assertThat(first.getContentAsString()).isEqualTo("11");
+        assertThat(second.getContentAsString()).isEqualTo("11");
+        assertThat(second.getHeader(IdempotencyFilter.REPLAYED)).isEqualTo("true");
+    }
+    
+    @Test
+    public void testDoFilter_BodyReadWithListener_Passed() throws Exception {
+        final StringBuilder read = new StringBuilder();
+        perform("k1", "12", (request, response) -> {
+            final ServletInputStream input = request.getInputStream();
+            input.setReadListener(new ReadListener() {
+                
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (input.isReady() && !input.isFinished()) {
+                        read.append((char) input.read());
+                    }
+                }
+                
+                @Override
+                public void onAllDataRead() {
+                    read.append('.');
+                }
+                
+                @Override
+                public void onError(final Throwable t) {
+                    read.append('!');
+                }
+            });
+        });
+        
+        assertThat(read.toString()).isEqualTo("12.");
+    }
+    
+    private MockHttpServletResponse perform(final String key, final String body, final FilterChain chain) 
+            throws IOException, ServletException {
+        final MockHttpServletRequest request = new MockHttpServletRequest("POST", URI);
+        request.setAsyncSupported(true);
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY, key);
+        }
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        this.filter.doFilter(request, response, chain);
+        return response;
+    }
+}
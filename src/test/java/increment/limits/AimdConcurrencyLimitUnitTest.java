@@ -0,0 +1,75 @@
+package increment.limits;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class AimdConcurrencyLimitUnitTest {
+    
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+    
+    private AimdConcurrencyLimit limit(final int initial) {
+        return new AimdConcurrencyLimit(initial, 2, 20, 100, TimeUnit.MILLISECONDS, 0.5);
+    }
+    
+    /*
+     * Testing strategy for:
+     *   boolean tryAcquire(), void release(long latencyNanos), int getLimit()
+     * 
+     * Partitions:
+     *    in flight: below, at limit;
+     *    latency: within, above threshold;
+     *    limit: at minimum, between, at maximum;
+     *    
+     *    # admits requests up to limit, which increases by one or decreases by ratio
+     */
+    
+    @Test
+    public void testTryAcquire_AtLimit_Rejected() {
+        final AimdConcurrencyLimit limit = limit(2);
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(2);
+    }
+    
+    @Test
+    public void testRelease_FastAtLimit_IncreasedByOneUpToMax() {
+        final AimdConcurrencyLimit limit = limit(19);
+        for (int i = 0; i < 19; i++) {
+            limit.tryAcquire();
+        }
+        limit.release(FAST);
+        assertThat(limit.getLimit()).isEqualTo(20);
+        limit.release(FAST);
+        assertThat(limit.getLimit()).isEqualTo(20);
+    }
+    
+    @Test
+    public void testRelease_FastMostlyIdle_Unchanged() {
+        final AimdConcurrencyLimit limit = limit(10);
+        limit.tryAcquire();
+        limit.release(FAST);
+        
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+    
+    @Test
+    public void testRelease_Slow_DecreasedByRatioDownToMin() {
+        final AimdConcurrencyLimit limit = limit(10);
+        limit.tryAcquire();
+        limit.release(SLOW);
+        assertThat(limit.getLimit()).isEqualTo(5);
+        for (int i = 0; i < 3; i++) {
+            limit.tryAcquire();
+            limit.release(SLOW);
+        }
+        assertThat(limit.getLimit()).isEqualTo(2);
+        assertThat(limit.getInFlight()).isZero();
+    }
+}
@@ -0,0 +1,81 @@
+package increment.limits;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.FilterChain;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import increment.metrics.Metrics;
+
+public class RateLimitFilterUnitTest {
+    
+    private final AtomicLong now = new AtomicLong();
+    
+    private final RateLimitFilter filter = new RateLimitFilter(1, 2, 100, 3, 10, new Metrics(), now::get);
+    
+    @After
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    /*
+     * Testing strategy for:
+     *   void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+     * 
+     * Partitions:
+     *    principal: authenticated, anonymous, other;
+     *    limit: client, global; within, exceeded, refilled;
+     *    
+     *    # passes request or responds TOO_MANY_REQUESTS with Retry-After
+     */
+    
+    @Test
+    public void testDoFilter_ClientLimitExceeded_TooManyRequestsUntilRefilled() throws Exception {
+        authenticate("a");
+        assertThat(perform().getStatus()).isEqualTo(200);
+        assertThat(perform().getStatus()).isEqualTo(200);
+        
+        final MockHttpServletResponse rejected = perform();
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        
+        authenticate("b");
+        assertThat(perform().getStatus()).isEqualTo(200);
+        
+        authenticate("a");
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(perform().getStatus()).isEqualTo(200);
+    }
+    
+    @Test
+    public void testDoFilter_GlobalLimitExceeded_TooManyRequests() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(perform().getStatus()).isEqualTo(200);
+        }
+        
+        assertThat(perform().getStatus()).isEqualTo(429);
+    }
+    
+    private static void authenticate(final String principal) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken(principal, "", "ROLE_USER"));
+    }
+    
+    private MockHttpServletResponse perform() throws Exception {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final FilterChain chain = new MockFilterChain();
+        this.filter.doFilter(new MockHttpServletRequest("PATCH", "/api/increment"), response, chain);
+        return response;
+    }
+}
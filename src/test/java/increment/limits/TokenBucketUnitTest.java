@@ -0,0 +1,93 @@
+package increment.limits;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class TokenBucketUnitTest {
+    
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+    
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    
+    /*
+     * Testing strategy for:
+     *   TokenBucket(double ratePerSecond, int burst, long nowNanos)
+     *   long tryAcquire(long nowNanos), boolean isIdle(long nowNanos)
+     * 
+     * Partitions:
+     *    rate, burst: <= 0, > 0;
+     *    tokens: full bucket, within burst, exhausted, refilled;
+     *    threads: one, many;
+     *    
+     *    # returns 0 or nanoseconds until next token;
+     *          throws IllegalArgumentException
+     */
+    
+    @Test
+    public void testConstructor_ZeroRate_Exception() {
+        thrown.expect(IllegalArgumentException.class);
+        
+        new TokenBucket(0, 1, 0L);
+    }
+    
+    @Test
+    public void testTryAcquire_BurstThenExhausted_WaitOfOneInterval() {
+        final TokenBucket bucket = new TokenBucket(10, 3, 0L);
+        assertThat(bucket.isIdle(0L)).isTrue();
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryAcquire(0L)).isZero();
+        }
+        
+        assertThat(bucket.tryAcquire(0L)).isEqualTo(SECOND / 10);
+        assertThat(bucket.isIdle(0L)).isFalse();
+    }
+    
+    @Test
+    public void testTryAcquire_Refilled_SustainedRate() {
+        final TokenBucket bucket = new TokenBucket(10, 1, 0L);
+        assertThat(bucket.tryAcquire(0L)).isZero();
+        assertThat(bucket.tryAcquire(SECOND / 20)).isEqualTo(SECOND / 20);
+        assertThat(bucket.tryAcquire(SECOND / 10)).isZero();
+        assertThat(bucket.isIdle(SECOND)).isTrue();
+    }
+    
+    @Test
+    public void testTryAcquire_ManyThreads_ExactlyBurstAdmitted() throws Exception {
+        final TokenBucket bucket = new TokenBucket(1, 1000, 0L);
+        final LongAdder admitted = new LongAdder();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            final Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 500; i++) {
+                    if (bucket.tryAcquire(0L) == 0L) {
+                        admitted.increment();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertThat(admitted.sum()).isEqualTo(1000);
+    }
+}
@@ -0,0 +1,93 @@
+package increment.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+
+
+public class RateLimitingTurboFilterUnitTest {
+    
+    private static final int EVENTS_PER_SECOND = 2;
+    
+    private final LoggerContext context = new LoggerContext();
+    
+    private final RateLimitingTurboFilter filter = new RateLimitingTurboFilter();
+    
+    private final AtomicLong millis = new AtomicLong(1000L);
+    
+    private Logger logger;
+    
+    @Before
+    public void before() {
+        logger = context.getLogger("limited");
+        logger.setLevel(Level.INFO);
+        filter.setEventsPerSecond(EVENTS_PER_SECOND);
+        filter.setMillisClock(millis::get);
+        filter.start();
+    }
+    
+    private FilterReply decide(final Logger logger, final Level level, final String format) {
+        return filter.decide(null, logger, level, format, null, null);
+    }
+    
+    /*
+     * Testing strategy for:
+     *   FilterReply decide(Marker marker, Logger logger, Level level, String format, 
+     *          Object[] params, Throwable t)
+     *   
+     * Partitions:
+     *    events of logger in second: <= limit, > limit, > limit in previous second;
+     *    event: level check without format, disabled level, other logger, 
+     *           suppressed logger, limit <= 0;
+     *    
+     *    # returns: NEUTRAL, DENY;
+     */
+    
+    @Test
+    public void testDecide_OverLimit_Deny() {
+        for (int i = 0; i < EVENTS_PER_SECOND; i++) {
+            assertThat(decide(logger, Level.WARN, "event")).isEqualTo(FilterReply.NEUTRAL);
+        }
+        
+        assertThat(decide(logger, Level.WARN, "event")).isEqualTo(FilterReply.DENY);
+    }
+    
+    @Test
+    public void testDecide_OverLimitInPreviousSecond_Neutral() {
+        for (int i = 0; i <= EVENTS_PER_SECOND; i++) {
+            decide(logger, Level.WARN, "event");
+        }
+        millis.addAndGet(1000L);
+        
+        assertThat(decide(logger, Level.WARN, "event")).isEqualTo(FilterReply.NEUTRAL);
+    }
+    
+    @Test
+    public void testDecide_NotCountedEvents_Neutral() {
+        for (int i = 0; i < 10 * EVENTS_PER_SECOND; i++) {
+            assertThat(decide(logger, Level.INFO, null)).isEqualTo(FilterReply.NEUTRAL);
+            assertThat(decide(logger, Level.DEBUG, "event")).isEqualTo(FilterReply.NEUTRAL);
+            assertThat(decide(context.getLogger(RateLimitingTurboFilter.SUPPRESSED_LOGGER), 
+                    Level.WARN, "event")).isEqualTo(FilterReply.NEUTRAL);
+        }
+        
+        assertThat(decide(context.getLogger("other"), Level.WARN, "event"))
+                .isEqualTo(FilterReply.NEUTRAL);
+    }
+    
+    @Test
+    public void testDecide_Disabled_Neutral() {
+        filter.setEventsPerSecond(0);
+        for (int i = 0; i < 10 * EVENTS_PER_SECOND; i++) {
+            assertThat(decide(logger, Level.WARN, "event")).isEqualTo(FilterReply.NEUTRAL);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package increment.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServlet;
+
+import org.HdrHistogram.Histogram;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+public class MetricsUnitTest {
+    
+    private Metrics metrics;
+    
+    @Before
+    public void setUp() {
+        metrics = new Metrics();
+    }
+    
+    /*
+     * Testing strategy for:
+     *   LatencyRecorder timer(String name), LongAdder counter(String name)
+     *   Map<String, Object> snapshot(), String prometheus()
+     * 
+     * Partitions:
+     *    name: seen, not seen before;
+     *    recorded latency: < 0, within range, > LatencyRecorder.MAX_NANOS;
+     *    snapshots: first, subsequent;
+     *    
+     *    # returns same recorder or counter for same name;
+     *    # snapshot is cumulative, latencies in microseconds;
+     *    # prometheus text has summaries in seconds and counters.
+     * 
+     * Testing strategy for request filters:
+     *    security filter: after request filter, alone;
+     *    
+     *    # records time since start of request, only within request filter.
+     * 
+     * Testing strategy for MetricsHandlerInterceptor:
+     *    handlers: same-named methods of different controllers;
+     *    
+     *    # records every handler by its own timer.
+     */
+    
+    @Test
+    public void testTimer_SameName_SameRecorder() {
+        assertThat(metrics.timer("a")).isSameAs(metrics.timer("a"));
+        assertThat(metrics.timer("a")).isNotSameAs(metrics.timer("b"));
+        assertThat(metrics.counter("a")).isSameAs(metrics.counter("a"));
+    }
+    
+    @Test
+    public void testRecord_OutOfRange_Clamped() {
+        final LatencyRecorder timer = metrics.timer("a");
+        timer.record(-1L);
+        timer.record(Long.MAX_VALUE);
+        final Histogram histogram = timer.snapshot();
+        assertThat(histogram.getTotalCount()).isEqualTo(2L);
+        assertThat(histogram.getMinValue()).isEqualTo(0L);
+        assertThat(histogram.highestEquivalentValue(LatencyRecorder.MAX_NANOS))
+            .isEqualTo(histogram.getMaxValue());
+        assertThat(timer.getTotalNanos()).isEqualTo(LatencyRecorder.MAX_NANOS);
+    }
+    
+    @Test
+    public void testSnapshot_SubsequentSnapshots_Cumulative() throws Exception {
+        final LatencyRecorder timer = metrics.timer("a");
+        timer.record(TimeUnit.MICROSECONDS.toNanos(100));
+        assertThat(timer.snapshot().getTotalCount()).isEqualTo(1L);
+        
+        final Thread other = new Thread(() -> timer.record(TimeUnit.MICROSECONDS.toNanos(100)));
+        other.start();
+        other.join();
+        timer.record(TimeUnit.MICROSECONDS.toNanos(100));
+        assertThat(timer.snapshot().getTotalCount()).isEqualTo(3L);
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSnapshot_RecordedValues_Microseconds() {
+        metrics.timer("service.increment").record(TimeUnit.MICROSECONDS.toNanos(100));
+        metrics.counter("errors.illegal_argument").increment();
+        
+        final Map<String, Object> snapshot = metrics.snapshot();
+        final Map<String, Object> timer = (Map<String, Object>) 
+                ((Map<String, Object>) snapshot.get("timers")).get("service.increment");
+        assertThat(timer).containsKeys("count", "mean", "p50", "p90", "p99", "p999", "max");
+        assertThat(timer.get("count")).isEqualTo(1L);
+        assertThat((Double) timer.get("p99")).isCloseTo(100.0, within(1.0));
+        assertThat(((Map<String, Object>) snapshot.get("counters")).get("errors.illegal_argument"))
+            .isEqualTo(1L);
+    }
+    
+    @Test
+    public void testPrometheus_RecordedValues_SummaryAndCounter() {
+        metrics.timer("service.increment").record(TimeUnit.MILLISECONDS.toNanos(1));
+        metrics.counter("http.errors").increment();
+        
+        final String text = metrics.prometheus();
+        assertThat(text)
+            .contains("# TYPE increment_service_increment_seconds summary\n")
+            .contains("increment_service_increment_seconds{quantile=\"0.5\"} 0.001")
+            .contains("increment_service_increment_seconds{quantile=\"0.99\"} 0.001")
+            .contains("increment_service_increment_seconds{quantile=\"0.999\"} 0.001")
+            .contains("increment_service_increment_seconds_sum 0.001\n")
+            .contains("increment_service_increment_seconds_count 1\n")
+            .contains("# TYPE increment_http_errors_total counter\n")
+            .contains("increment_http_errors_total 1\n");
+    }
+    
+    @Test
+    public void testRequestFilters_SecurityAfterRequest_BothRecordedStartCleared() throws Exception {
+        final MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            private static final long serialVersionUID = 1L;
+        }, new SecurityMetricsFilter(metrics));
+        new RequestMetricsFilter(metrics).doFilter(new MockHttpServletRequest("GET", "/"), 
+                new MockHttpServletResponse(), chain);
+        
+        assertThat(metrics.timer("http.requests").snapshot().getTotalCount()).isEqualTo(1L);
+        assertThat(metrics.timer("http.security").snapshot().getTotalCount()).isEqualTo(1L);
+        assertThat(RequestMetricsFilter.START.get()).isEqualTo(StartTime.NONE);
+        
+        new SecurityMetricsFilter(metrics).doFilter(new MockHttpServletRequest("GET", "/"), 
+                new MockHttpServletResponse(), new MockFilterChain());
+        assertThat(metrics.timer("http.security").snapshot().getTotalCount()).isEqualTo(1L);
+    }
+    
+    @Test
+    public void testHandlerInterceptor_SameNamedHandlers_SeparateTimers() throws Exception {
+        final MetricsHandlerInterceptor interceptor = new MetricsHandlerInterceptor(metrics);
+        final MockHttpServletRequest request = new MockHttpServletRequest("PATCH", "/");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        for (Object handler : new Object[] {
+                new HandlerMethod(new FirstController(), "increment"), 
+                new HandlerMethod(new SecondController(), "increment"), 
+                new HandlerMethod(new SecondController(), "increment")}) {
+            interceptor.preHandle(request, response, handler);
+            interceptor.afterCompletion(request, response, handler, null);
+        }
+        
+        assertThat(metrics.timer("handler.FirstController.increment").snapshot().getTotalCount())
+            .isEqualTo(1L);
+        assertThat(metrics.timer("handler.SecondController.increment").snapshot().getTotalCount())
+            .isEqualTo(2L);
+    }
+    
+    public static class FirstController {
+        public void increment() {
+        }
+    }
+    
+    public static class SecondController {
+        public void increment() {
+        }
+    }
+}
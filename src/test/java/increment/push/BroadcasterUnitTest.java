@@ -0,0 +1,167 @@
+package increment.push;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class BroadcasterUnitTest {
+    
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+    
+    private final Broadcaster broadcaster = new Broadcaster(2, 2, 2);
+    
+    @After
+    public void tearDown() {
+        this.broadcaster.close();
+    }
+    
+    /*
+     * Testing strategy for:
+     *   Subscription subscribe(Sink sink), void publish(String event), void cancel()
+     * 
+     * Partitions:
+     *    subscribers: none, fast, slow, blocked beyond send timeout on every sender thread, 
+     *        failing, cancelled; below, at maximal count;
+     *    events: within, above buffer size;
+     *    
+     *    # sends events in order, drops oldest ones of slow subscriber, cancels failing one
+     *          and blocked one, which is closed once its send returns;
+     *          throws IllegalStateException
+     */
+    
+    @Test
+    public void testPublish_FastSubscriber_AllInOrder() throws Exception {
+        final List<String> received = new CopyOnWriteArrayList<>();
+        final CountDownLatch done = new CountDownLatch(3);
+        this.broadcaster.subscribe(event -> {
+            received.add(event);
+            done.countDown();
+        });
+        for (int i = 0; i < 3; i++) {
+            this.broadcaster.publish("e" + i);
+            Thread.sleep(20);
+        }
+        
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).containsExactly("e0", "e1", "e2");
+    }
+    
+    @Test
+    public void testPublish_SlowSubscriber_OldestDroppedOthersUnaffected() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> slow = new CopyOnWriteArrayList<>();
+        this.broadcaster.subscribe(event -> {
+            slow.add(event);
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        final CountDownLatch fastDone = new CountDownLatch(1);
+        this.broadcaster.subscribe(event -> {
+            if ("e4".equals(event)) {
+                fastDone.countDown();
+            }
+        });
+        this.broadcaster.publish("e0");
+        assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i <= 4; i++) {
+            this.broadcaster.publish("e" + i);
+        }
+        
+        assertThat(fastDone.await(5, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (slow.size() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(slow).containsExactly("e0", "e3", "e4");
+        assertThat(this.broadcaster.getDropped()).isGreaterThanOrEqualTo(2);
+    }
+    
+    @Test
+    public void testPublish_BlockedSubscribers_CancelledOthersUnaffected() throws Exception {
+        final Broadcaster broadcaster = new Broadcaster(3, 2, 2, 100, TimeUnit.MILLISECONDS);
+        try {
+            final CountDownLatch blocked = new CountDownLatch(2);
+            final CountDownLatch release = new CountDownLatch(1);
+            final CountDownLatch closed = new CountDownLatch(2);
+            for (int i = 0; i < 2; i++) {
+                broadcaster.subscribe(new Broadcaster.Sink() {
+                    
+                    @Override
+                    public void send(final String event) throws IOException {
+                        blocked.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    
+                    @Override
+                    public void cancelled() {
+                        closed.countDown();
+                    }
+                });
+            }
+            broadcaster.publish("e0");
+            assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+            
+            final CountDownLatch fastDone = new CountDownLatch(1);
+            broadcaster.subscribe(event -> fastDone.countDown());
+            broadcaster.publish("e1");
+            
+            assertThat(fastDone.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(broadcaster.getStalled()).isEqualTo(2);
+            assertThat(broadcaster.getSubscribers()).isEqualTo(1);
+            assertThat(closed.getCount()).isEqualTo(2);
+            release.countDown();
+            assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            broadcaster.close();
+        }
+    }
+    
+    @Test
+    public void testPublish_FailingSubscriber_Cancelled() throws Exception {
+        final CountDownLatch failed = new CountDownLatch(1);
+        this.broadcaster.subscribe(event -> {
+            failed.countDown();
+            throw new IOException("Gone");
+        });
+        this.broadcaster.publish("e0");
+        
+        assertThat(failed.await(5, TimeUnit.SECONDS)).isTrue();
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (this.broadcaster.getSubscribers() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(this.broadcaster.getSubscribers()).isZero();
+    }
+    
+    @Test
+    public void testSubscribe_MaxSubscribers_ExceptionUntilCancelled() {
+        final Broadcaster.Subscription first = this.broadcaster.subscribe(event -> { });
+        this.broadcaster.subscribe(event -> { });
+        first.cancel();
+        first.cancel();
+        this.broadcaster.subscribe(event -> { });
+        
+        thrown.expect(IllegalStateException.class);
+        this.broadcaster.subscribe(event -> { });
+    }
+}
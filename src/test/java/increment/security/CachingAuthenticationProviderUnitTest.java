@@ -0,0 +1,109 @@
+package increment.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+
+@RunWith(MockitoJUnitRunner.class)
+public class CachingAuthenticationProviderUnitTest {
+    
+    private static final String USERNAME = "user";
+    
+    private static final String PASSWORD = "password";
+    
+    @Mock
+    private AuthenticationProvider delegateMock;
+    
+    private CachingAuthenticationProvider provider;
+    
+    @Before
+    public void before() {
+        provider = new CachingAuthenticationProvider(delegateMock, 16, 1, TimeUnit.MINUTES);
+        when(delegateMock.authenticate(any(Authentication.class))).thenAnswer(invocation -> {
+            final Authentication authentication = (Authentication) invocation.getArguments()[0];
+            if (!PASSWORD.equals(authentication.getCredentials())) {
+                throw new BadCredentialsException("Bad credentials");
+            }
+            return new UsernamePasswordAuthenticationToken(authentication.getName(), null, 
+                    Collections.singletonList(new SimpleGrantedAuthority("USER")));
+        });
+    }
+    
+    private static Authentication credentials(final String password) {
+        return new UsernamePasswordAuthenticationToken(USERNAME, password);
+    }
+    
+    /*
+     * Testing strategy for:
+     *   Authentication authenticate(Authentication authentication);
+     *   void invalidate(String username);
+     *   
+     * Partitions:
+     *    credentials: valid first time, valid again, valid after invalidate, invalid again;
+     *    cache: enabled, disabled;
+     *    
+     *    # returns authenticated token; delegate called: once, per request;
+     *          throws BadCredentialsException
+     */
+    
+    @Test
+    public void testAuthenticate_ValidAgain_DelegateCalledOnce() {
+        provider.authenticate(credentials(PASSWORD));
+        final Authentication authenticated = provider.authenticate(credentials(PASSWORD));
+        
+        assertThat(authenticated.isAuthenticated()).isTrue();
+        assertThat(authenticated.getName()).isEqualTo(USERNAME);
+        assertThat(authenticated.getAuthorities()).hasSize(1);
+        verify(delegateMock, times(1)).authenticate(any(Authentication.class));
+    }
+    
+    @Test
+    public void testAuthenticate_InvalidAgain_DelegateCalledPerRequest() {
+        provider.authenticate(credentials(PASSWORD));
+        for (int i = 0; i < 2; i++) {
+            try {
+                provider.authenticate(credentials("invalid"));
+            } catch (BadCredentialsException e) {
+                continue;
+            }
+            throw new AssertionError("Invalid credentials must not be authenticated.");
+        }
+        
+        verify(delegateMock, times(3)).authenticate(any(Authentication.class));
+    }
+    
+    @Test
+    public void testAuthenticate_ValidAfterInvalidate_DelegateCalledAgain() {
+        provider.authenticate(credentials(PASSWORD));
+        provider.invalidate(USERNAME);
+        provider.authenticate(credentials(PASSWORD));
+        
+        verify(delegateMock, times(2)).authenticate(any(Authentication.class));
+    }
+    
+    @Test
+    public void testAuthenticate_CacheDisabled_DelegateCalledPerRequest() {
+        provider = new CachingAuthenticationProvider(delegateMock, 0, 1, TimeUnit.MINUTES);
+        provider.authenticate(credentials(PASSWORD));
+        provider.authenticate(credentials(PASSWORD));
+        
+        verify(delegateMock, times(2)).authenticate(any(Authentication.class));
+    }
+}
@@ -0,0 +1,80 @@
+package increment.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+
+public class TokenServiceUnitTest {
+    
+    private static final String SECRET = "secret";
+    
+    private static final long TTL_SECONDS = 60;
+    
+    private static final Instant NOW = Instant.ofEpochSecond(1_500_000_000L);
+    
+    private static final Authentication USER = new UsernamePasswordAuthenticationToken("user", 
+            null, Collections.singletonList(new SimpleGrantedAuthority("USER")));
+    
+    private static TokenService tokenService(final Instant now) {
+        return new TokenService(SECRET, TTL_SECONDS, Clock.fixed(now, ZoneOffset.UTC));
+    }
+    
+    /*
+     * Testing strategy for:
+     *   Authentication verify(String token);
+     *   
+     * Partitions:
+     *    token: valid, expired, forged signature, other secret, malformed;
+     *    
+     *    # returns: authentication of token owner, null;
+     */
+    
+    @Test
+    public void testVerify_Valid_Authentication() {
+        final Authentication authentication = tokenService(NOW).verify(tokenService(NOW).issue(USER));
+        
+        assertThat(authentication.isAuthenticated()).isTrue();
+        assertThat(authentication.getName()).isEqualTo("user");
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("USER");
+    }
+    
+    @Test
+    public void testVerify_Expired_Null() {
+        final String token = tokenService(NOW).issue(USER);
+        
+        assertThat(tokenService(NOW.plus(Duration.ofSeconds(TTL_SECONDS))).verify(token)).isNull();
+    }
+    
+    @Test
+    public void testVerify_ForgedSignature_Null() {
+        final String token = tokenService(NOW).issue(USER);
+        final char last = token.charAt(token.length() - 1);
+        
+        assertThat(tokenService(NOW).verify(token.substring(0, token.length() - 1) 
+                + (last == 'A' ? 'B' : 'A'))).isNull();
+    }
+    
+    @Test
+    public void testVerify_OtherSecret_Null() {
+        final String token = new TokenService("other", TTL_SECONDS, 
+                Clock.fixed(NOW, ZoneOffset.UTC)).issue(USER);
+        
+        assertThat(tokenService(NOW).verify(token)).isNull();
+    }
+    
+    @Test
+    public void testVerify_Malformed_Null() {
+        assertThat(tokenService(NOW).verify("malformed")).isNull();
+        assertThat(tokenService(NOW).verify("%%.%%")).isNull();
+    }
+}
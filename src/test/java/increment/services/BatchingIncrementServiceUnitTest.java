@@ -0,0 +1,150 @@
+package increment.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class BatchingIncrementServiceUnitTest {
+    
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+    
+    private final List<Integer> batchSizes = new ArrayList<>();
+    
+    private final AtomicInteger failures = new AtomicInteger();
+    
+    /*
+     * Service recording sizes of batches, which fails while failures are set.
+     */
+    private final IncrementService delegate = new IncrementServiceImpl() {
+        @Override
+        public int[] incrementAll(final long[] toIncrement) {
+            synchronized (batchSizes) {
+                batchSizes.add(toIncrement.length);
+            }
+            if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("failed");
+            }
+            return super.incrementAll(toIncrement);
+        }
+    };
+    
+    private BatchingIncrementService service;
+    
+    @After
+    public void tearDown() {
+        if (service != null) {
+            service.close();
+        }
+    }
+    
+    /*
+     * Testing strategy for:
+     *   CompletableFuture<Long> submit(int incremented), long incrementAsLong(int incremented),
+     *   CompletableFuture<Long> incrementAsync(int incremented),
+     *   BigInteger increment(int incremented), void close()
+     * 
+     * Partitions:
+     *    callers: one, many concurrent;
+     *    queued values: fewer than, more than maximal batch size;
+     *    delegate: succeeds, fails;
+     *    state: open, closed;
+     *    
+     *    # returns incremented values, in batches of at most maximal size, recorded by summary;
+     *          throws exception of delegate; fails after close.
+     */
+    
+    @Test
+    public void testIncrement_SingleCaller_Incremented() {
+        service = new BatchingIncrementService(delegate, 16, 100, TimeUnit.MICROSECONDS);
+        assertThat(service.increment(Integer.MAX_VALUE)).isEqualTo(BigInteger.valueOf(Integer.MAX_VALUE + 1L));
+        assertThat(service.incrementAsLong(Integer.MIN_VALUE)).isEqualTo(Integer.MIN_VALUE + 1L);
+    }
+    
+    @Test
+    public void testSubmit_MoreThanMaxBatch_BatchedAndIncremented() {
+        service = new BatchingIncrementService(delegate, 16, 10, TimeUnit.MILLISECONDS);
+        final List<CompletableFuture<Long>> results = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            results.add(service.submit(i));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertThat(results.get(i).join()).isEqualTo(i + 1L);
+        }
+        synchronized (batchSizes) {
+            assertThat(batchSizes.stream().allMatch(size -> size <= 16)).isTrue();
+            assertThat(batchSizes.size()).isLessThan(100);
+        }
+    }
+    
+    @Test
+    public void testIncrementAsync_Batched_RecordedBySummary() {
+        final IncrementSummary summary = mock(IncrementSummary.class);
+        service = new BatchingIncrementService(delegate, summary, 16, 10, TimeUnit.MILLISECONDS);
+        final List<CompletableFuture<Long>> results = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            results.add(service.incrementAsync(i));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertThat(results.get(i).join()).isEqualTo(i + 1L);
+        }
+        verify(summary, times(100)).record(anyLong());
+        verify(summary).record(100L);
+    }
+    
+    @Test
+    public void testIncrementAsLong_ConcurrentCallers_AllIncremented() throws Exception {
+        service = new BatchingIncrementService(delegate, 64, 50, TimeUnit.MICROSECONDS);
+        final int threadsCount = 8;
+        final int calls = 2000;
+        final CountDownLatch done = new CountDownLatch(threadsCount);
+        final AtomicInteger wrong = new AtomicInteger();
+        for (int t = 0; t < threadsCount; t++) {
+            final int offset = t * calls;
+            new Thread(() -> {
+                for (int i = offset; i < offset + calls; i++) {
+                    if (service.incrementAsLong(i) != i + 1L) {
+                        wrong.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+        assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(wrong.get()).isZero();
+        synchronized (batchSizes) {
+            assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(threadsCount * calls);
+        }
+    }
+    
+    @Test
+    public void testIncrementAsLong_DelegateFails_Exception() {
+        thrown.expect(IllegalStateException.class);
+        failures.set(1);
+        service = new BatchingIncrementService(delegate, 16, 100, TimeUnit.MICROSECONDS);
+        service.incrementAsLong(1);
+    }
+    
+    @Test
+    public void testSubmit_Closed_Exception() {
+        thrown.expect(IllegalStateException.class);
+        service = new BatchingIncrementService(delegate, 16, 100, TimeUnit.MICROSECONDS);
+        service.close();
+        service.incrementAsLong(1);
+    }
+}
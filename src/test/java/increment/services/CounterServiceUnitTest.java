@@ -0,0 +1,71 @@
+package increment.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import increment.cluster.GossipTransport;
+import increment.cluster.PnCounterStore;
+import increment.counters.CounterJournal;
+import increment.counters.CounterNameException;
+
+public class CounterServiceUnitTest {
+    
+    /*
+     * Testing strategy for:
+     *   long increment(String name), OptionalLong value(String name)
+     *   of CounterServiceImpl, OffHeapCounterService, ClusteredCounterService
+     * 
+     * Partitions:
+     *    name: at, over limit of 255 bytes in UTF-8;
+     *    
+     *    # every store accepts the same names; throws CounterNameException
+     */
+    
+    private static final String AT_LIMIT = repeat('\u00e9', 127) + "a";
+    
+    private static final String OVER_LIMIT = repeat('\u00e9', 128);
+    
+    @Test
+    public void testIncrement_NameAtLimit_EveryStoreIncrements() {
+        for (CounterService service : services()) {
+            assertThat(service.increment(AT_LIMIT)).isEqualTo(1L);
+            assertThat(service.value(AT_LIMIT)).isEqualTo(OptionalLong.of(1L));
+        }
+    }
+    
+    @Test
+    public void testIncrement_NameOverLimit_EveryStoreException() {
+        for (CounterService service : services()) {
+            assertThatThrownBy(() -> service.increment(OVER_LIMIT))
+                .isInstanceOf(CounterNameException.class);
+            assertThatThrownBy(() -> service.value(OVER_LIMIT))
+                .isInstanceOf(CounterNameException.class);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static List<CounterService> services() {
+        final ObjectProvider<CounterJournal> noJournal = mock(ObjectProvider.class);
+        return Arrays.asList(
+                new CounterServiceImpl(10, noJournal),
+                new OffHeapCounterService(10, noJournal),
+                new ClusteredCounterService(new PnCounterStore("a", 10), mock(GossipTransport.class), 
+                        Collections.emptyList(), 1, new LongAdder()));
+    }
+    
+    private static String repeat(final char c, final int count) {
+        final char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}
@@ -71,4 +71,102 @@ public class IncrementServiceUnitTest  {
         
         assertThat(incremented).isEqualTo(BigInteger.valueOf((long)Integer.MAX_VALUE + 1L));
     }
+    
+    /*
+     * Testing strategy for:
+     *   long incrementAsLong(int incremented);
+     *   
+     * Partitions:
+     *    incremented: = Integer.Min, < 0, = 0, Integer.Max;
+     *    
+     *    # returns: = Integer.Min + 1, = 0, = 1, Integer.Max + 1;
+     */
+    
+    @Test
+    public void testIncrementAsLong_InegerMin_IntegerMinPluseOne() {         
+        assertThat(incrementService.incrementAsLong(Integer.MIN_VALUE))
+                .isEqualTo(Integer.MIN_VALUE + 1L);
+    }
+    
+    @Test
+    public void testIncrementAsLong_NegativeVal_NegativeValPlusOne() {         
+        assertThat(incrementService.incrementAsLong(NEGATIVE_VAL)).isEqualTo(NEGATIVE_VAL + 1L);
+    }
+    
+    @Test
+    public void testIncrementAsLong_ZeroVal_One() {         
+        assertThat(incrementService.incrementAsLong(0)).isEqualTo(1L);
+    }
+    
+    @Test
+    public void testIncrementAsLong_InegerMax_IntegerMaxPluseOne() {         
+        assertThat(incrementService.incrementAsLong(Integer.MAX_VALUE))
+                .isEqualTo((long)Integer.MAX_VALUE + 1L);
+    }
+    
+    /*
+     * Testing strategy for:
+     *   BigInteger increment(long incremented);
+     *   BigInteger increment(BigInteger incremented);
+     *   
+     * Partitions:
+     *    incremented: = Long.Min, = -1, Long.Max, > Long.Max;
+     *    
+     *    # returns: = Long.Min + 1, = 0, = 2^63, > 2^63;
+     */
+    
+    @Test
+    public void testIncrementLong_LongMin_LongMinPlusOne() {         
+        assertThat(incrementService.increment(Long.MIN_VALUE))
+                .isEqualTo(BigInteger.valueOf(Long.MIN_VALUE + 1L));
+    }
+    
+    @Test
+    public void testIncrementLong_NegativeVal_Zero() {         
+        assertThat(incrementService.increment((long) NEGATIVE_VAL)).isEqualTo(BigInteger.ZERO);
+    }
+    
+    @Test
+    public void testIncrementLong_LongMax_TwoToSixtyThree() {         
+        assertThat(incrementService.increment(Long.MAX_VALUE))
+                .isEqualTo(BigInteger.ONE.shiftLeft(63));
+    }
+    
+    @Test
+    public void testIncrementBig_AboveLongMax_PlusOne() {         
+        final BigInteger big = BigInteger.TEN.pow(100);
+        assertThat(incrementService.increment(big)).isEqualTo(big.add(BigInteger.ONE));
+    }
+    
+    /*
+     * Testing strategy for:
+     *   int[] incrementAll(long[] incremented);
+     *   
+     * Partitions:
+     *    incremented: empty, without Long.Max, with Long.Max lanes;
+     *    
+     *    # increments in place, returns: no lanes, indexes of Long.Max lanes;
+     */
+    
+    @Test
+    public void testIncrementAll_Empty_NoLanes() {         
+        assertThat(incrementService.incrementAll(new long[0])).isEmpty();
+    }
+    
+    @Test
+    public void testIncrementAll_NoOverflow_IncrementedInPlace() {         
+        final long[] values = {Long.MIN_VALUE, NEGATIVE_VAL, 0L, Long.MAX_VALUE - 1L};
+        assertThat(incrementService.incrementAll(values)).isEmpty();
+        assertThat(values).containsExactly(Long.MIN_VALUE + 1L, 0L, 1L, Long.MAX_VALUE);
+    }
+    
+    @Test
+    public void testIncrementAll_LongMaxLanes_OverflowedLanes() {         
+        final long[] values = new long[1000];
+        values[3] = Long.MAX_VALUE;
+        values[999] = Long.MAX_VALUE;
+        assertThat(incrementService.incrementAll(values)).containsExactly(3, 999);
+        assertThat(values[3]).isEqualTo(Long.MIN_VALUE);
+        assertThat(values[4]).isEqualTo(1L);
+    }
 }
@@ -0,0 +1,81 @@
+package increment.servlet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.StreamUtils;
+
+public class BufferedBodyRequestWrapperUnitTest {
+    
+    private static BufferedBodyRequestWrapper wrap(final String body) {
+        final byte[] buffer = (body + "ignored").getBytes(StandardCharsets.UTF_8);
+        return new BufferedBodyRequestWrapper(new MockHttpServletRequest("PATCH", "/api/increment"), 
+                buffer, body.length());
+    }
+    
+    /*
+     * Testing strategy for:
+     *   ServletInputStream getInputStream(), BufferedReader getReader()
+     * 
+     * Partitions:
+     *    body: empty, not empty;
+     *    read: blocking, with ReadListener, which fails;
+     *    
+     *    # reads given length of buffer; calls onDataAvailable unless empty, 
+     *          then onAllDataRead, or onError
+     */
+    
+    @Test
+    public void testGetInputStream_Blocking_Body() throws IOException {
+        assertThat(StreamUtils.copyToString(wrap("42").getInputStream(), StandardCharsets.UTF_8))
+                .isEqualTo("42");
+        assertThat(wrap("42").getReader().readLine()).isEqualTo("42");
+    }
+    
+    @Test
+    public void testSetReadListener_Body_ReadAtOnce() throws IOException {
+        assertThat(readWithListener(wrap("42"), false)).isEqualTo("42.");
+        assertThat(readWithListener(wrap(""), false)).isEqualTo(".");
+    }
+    
+    @Test
+    public void testSetReadListener_ListenerFails_Error() throws IOException {
+        assertThat(readWithListener(wrap("42"), true)).isEqualTo("!");
+    }
+    
+    private static String readWithListener(final BufferedBodyRequestWrapper request, final boolean fail) 
+            throws IOException {
+        final StringBuilder read = new StringBuilder();
+        final ServletInputStream input = request.getInputStream();
+        input.setReadListener(new ReadListener() {
+            
+            @Override
+            public void onDataAvailable() throws IOException {
+                if (fail) {
+                    throw new IOException("failed");
+                }
+                while (input.isReady() && !input.isFinished()) {
+                    read.append((char) input.read());
+                }
+            }
+            
+            @Override
+            public void onAllDataRead() {
+                read.append('.');
+            }
+            
+            @Override
+            public void onError(final Throwable t) {
+                read.append('!');
+            }
+        });
+        return read.toString();
+    }
+}